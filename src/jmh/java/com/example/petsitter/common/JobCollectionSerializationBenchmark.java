@@ -0,0 +1,95 @@
+package com.example.petsitter.common;
+
+import com.example.petsitter.jobs.JobDto;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Writes and reads a job collection as JSON, CBOR or Smile with an object mapper configured as the application's:
+ * SNAKE_CASE naming, non-null inclusion and the {@link CommonConfig#DATE_TIME_FORMATTER} date-time format. CBOR and
+ * Smile write UUIDs as 16-byte binary values. The payload size of each format is printed during setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JobCollectionSerializationBenchmark {
+
+    @Param({"1", "100"})
+    public int jobs;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectMapper objectMapper;
+
+    private JobCollectionDto jobCollectionDto;
+
+    private byte[] content;
+
+    @Setup
+    public void setup() throws IOException {
+
+        var objectMapperBuilder = new Jackson2ObjectMapperBuilder()
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+
+        new CommonConfig().jsonCustomizer().customize(objectMapperBuilder);
+
+        objectMapper = objectMapperBuilder.factory(switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        }).build();
+
+        var startTime = LocalDateTime.of(2024, 12, 2, 12, 0);
+
+        jobCollectionDto = new JobCollectionDto(ItemStream.of(IntStream.range(0, jobs)
+            .mapToObj(i -> JobDto.builder()
+                .id(UUID.randomUUID())
+                .creatorUserId(UUID.randomUUID())
+                .startTime(startTime.plusDays(i))
+                .endTime(startTime.plusDays(i).plusHours(2))
+                .activity("Walk")
+                .dog(JobDto.DogDto.builder()
+                    .name("Rambo")
+                    .age(3)
+                    .breed("Bichon Frisé")
+                    .size("6kg")
+                    .build())
+                .build())
+            .toList()));
+
+        content = objectMapper.writeValueAsBytes(jobCollectionDto);
+
+        System.out.printf("%n%s, %d jobs: %d bytes%n", format, jobs, content.length);
+    }
+
+    @Benchmark
+    public byte[] writeJobCollection() throws IOException {
+        return objectMapper.writeValueAsBytes(jobCollectionDto);
+    }
+
+    /**
+     * Reads into a tree, as JobCollectionDto has no creator for Jackson.
+     */
+    @Benchmark
+    public JsonNode readJobCollection() throws IOException {
+        return objectMapper.readTree(content);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.petsitter.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.example.petsitter.common.CommonConfig.DATE_TIME_FORMATTER;
+
+/**
+ * Writes and reads an array of date-times in the {@link CommonConfig#DATE_TIME_FORMAT} layout, with Jackson's
+ * formatter-based serializers or with the fixed layout ones. 20,000 date-times are the timestamps of 10,000 jobs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LocalDateTimeSerializationBenchmark {
+
+    @Param({"formatter", "fixed-layout"})
+    public String layout;
+
+    @Param({"20000"})
+    public int dateTimes;
+
+    private ObjectMapper objectMapper;
+
+    private LocalDateTime[] values;
+
+    private byte[] json;
+
+    @Setup
+    public void setup() throws IOException {
+
+        var module = new SimpleModule();
+
+        if (layout.equals("formatter")) {
+            module.addSerializer(new LocalDateTimeSerializer(DATE_TIME_FORMATTER));
+            module.addDeserializer(LocalDateTime.class, new LocalDateTimeDeserializer(DATE_TIME_FORMATTER));
+        }
+        else {
+            module.addSerializer(new FixedLayoutLocalDateTimeSerializer());
+            module.addDeserializer(LocalDateTime.class, new FixedLayoutLocalDateTimeDeserializer());
+        }
+
+        objectMapper = new ObjectMapper().registerModule(module);
+
+        var startTime = LocalDateTime.of(2024, 12, 2, 12, 0);
+
+        values = IntStream.range(0, dateTimes)
+            .mapToObj(i -> startTime.plusMinutes(37L * i))
+            .toArray(LocalDateTime[]::new);
+
+        json = objectMapper.writeValueAsBytes(values);
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        return objectMapper.writeValueAsBytes(values);
+    }
+
+    @Benchmark
+    public LocalDateTime[] read() throws IOException {
+        return objectMapper.readValue(json, LocalDateTime[].class);
+    }
+}
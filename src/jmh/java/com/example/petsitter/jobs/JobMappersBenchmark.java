@@ -0,0 +1,103 @@
+package com.example.petsitter.jobs;
+
+import com.example.petsitter.users.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.petsitter.jobs.JobApplication.JobApplicationStatus.ACCEPTED;
+import static com.example.petsitter.jobs.JobApplication.JobApplicationStatus.PENDING;
+
+/**
+ * Maps jobs and job applications between entities and DTOs with the generated MapStruct mappers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JobMappersBenchmark {
+
+    private final JobMapper jobMapper = new JobMapperImpl();
+    private final JobApplicationMapper jobApplicationMapper = new JobApplicationMapperImpl();
+
+    private User jobOwner;
+    private JobDto jobDto;
+    private JobDto jobPatchDto;
+    private Job job;
+
+    private JobApplicationDto jobApplicationDto;
+    private JobApplicationDto jobApplicationPatchDto;
+    private JobApplication jobApplication;
+
+    @Setup
+    public void setup() {
+
+        jobOwner = new User();
+
+        var startTime = LocalDateTime.of(2024, 12, 2, 12, 0);
+
+        jobDto = JobDto.builder()
+            .creatorUserId(UUID.randomUUID())
+            .startTime(startTime)
+            .endTime(startTime.plusHours(2))
+            .activity("Walk")
+            .dog(JobDto.DogDto.builder()
+                .name("Rambo")
+                .age(3)
+                .breed("Bichon Frisé")
+                .size("6kg")
+                .build())
+            .build();
+
+        jobPatchDto = JobDto.builder()
+            .activity("Walk, Exercise")
+            .dog(JobDto.DogDto.builder()
+                .age(4)
+                .size("8kg")
+                .build())
+            .build();
+
+        job = jobMapper.toJob(jobDto, jobOwner);
+        job.setId(UUID.randomUUID());
+
+        jobApplicationDto = JobApplicationDto.builder().status(PENDING).build();
+        jobApplicationPatchDto = JobApplicationDto.builder().status(ACCEPTED).build();
+
+        jobApplication = jobApplicationMapper.toJobApplication(jobApplicationDto, new User(), job);
+        jobApplication.setId(UUID.randomUUID());
+    }
+
+    @Benchmark
+    public Job toJob() {
+        return jobMapper.toJob(jobDto, jobOwner);
+    }
+
+    @Benchmark
+    public JobDto toJobDto() {
+        return jobMapper.toJobDto(job);
+    }
+
+    @Benchmark
+    public Job updateJobFromDto() {
+        return jobMapper.updateJobFromDto(job, jobPatchDto, null);
+    }
+
+    @Benchmark
+    public JobApplication toJobApplication() {
+        return jobApplicationMapper.toJobApplication(jobApplicationDto, jobOwner, job);
+    }
+
+    @Benchmark
+    public JobApplicationDto toJobApplicationDto() {
+        return jobApplicationMapper.toJobApplicationDto(jobApplication);
+    }
+
+    @Benchmark
+    public JobApplication updateJobApplicationFromDto() {
+        return jobApplicationMapper.updateJobApplicationFromDto(jobApplication, jobApplicationPatchDto, null, null);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.petsitter.sessions;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashes a password at every bcrypt cost from petsitter.password-hashing.bcrypt.min-cost to max-cost, including the
+ * costs over the latency budget that startup calibration stops short of. Each hash at cost 16 takes seconds, so every
+ * invocation is timed on its own.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BCryptCostBenchmark {
+
+    @Param({"10", "11", "12", "13", "14", "15", "16"})
+    public int cost;
+
+    private BCryptPasswordEncoder encoder;
+
+    @Setup
+    public void setup() {
+        encoder = new BCryptPasswordEncoder(cost);
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("1Password!");
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.petsitter.sessions;
+
+import com.example.petsitter.common.Email;
+import com.example.petsitter.jobs.Job;
+import com.example.petsitter.jobs.JobApplication;
+import com.example.petsitter.jobs.JobApplicationDto;
+import com.example.petsitter.jobs.JobDto;
+import com.example.petsitter.users.User;
+import com.example.petsitter.users.UserDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.petsitter.jobs.JobApplication.JobApplicationStatus.PENDING;
+import static com.example.petsitter.sessions.Permission.Attribute.*;
+
+/**
+ * Evaluates the permission policy for every action, resource and role. The attributes satisfy every rule's
+ * requirements and name the session user as owner, so evaluation reaches the role-specific rules.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PermissionsBenchmark {
+
+    @Param
+    public Permission.Action action;
+
+    @Param
+    public Permission.Resource resource;
+
+    @Param({"PET_OWNER", "PET_SITTER", "ADMIN"})
+    public User.UserRole role;
+
+    private Session session;
+
+    private Map<Permission.Attribute, Object> attributes;
+
+    @Setup
+    public void setup() {
+
+        var userId = UUID.randomUUID();
+
+        session = new Session(userId, Set.of(role));
+
+        var job = new Job();
+        job.setJobOwner(new User());
+
+        var jobApplication = new JobApplication();
+        jobApplication.setApplicationOwner(new User());
+        jobApplication.setApplicationJob(job);
+
+        attributes = Map.of(
+            USER_ID_ATT, userId,
+            USER_DTO_ATT, UserDto.builder()
+                .email(new Email("pet-owner@example.com"))
+                .fullName("Full Name")
+                .roles(Set.of(role))
+                .build(),
+            JOB_ID_ATT, UUID.randomUUID(),
+            JOB_OWNER_ID_ATT, userId,
+            JOB_DTO_ATT, JobDto.builder().creatorUserId(userId).build(),
+            JOB_APPLICATION_OWNER_ID_ATT, userId,
+            JOB_APPLICATION_DTO_ATT, JobApplicationDto.builder().status(PENDING).build(),
+            JOB_APPLICATION_ATT, jobApplication);
+    }
+
+    @Benchmark
+    public Permission getPermission() {
+        return Permissions.getPermission(action, resource, attributes, session);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.petsitter.users;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validates passwords against the password pattern, for a valid password, one missing a character class and one too
+ * long, which makes the lookaheads scan the whole input.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordValidatorBenchmark {
+
+    @Param({"1Password!", "password1!", "1Password!1Password!1Password!"})
+    public String password;
+
+    @Benchmark
+    public boolean isValid() {
+        return PasswordValidator.isValid(password);
+    }
+}
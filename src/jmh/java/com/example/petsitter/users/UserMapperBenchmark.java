@@ -0,0 +1,78 @@
+package com.example.petsitter.users;
+
+import com.example.petsitter.common.Email;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.petsitter.users.User.UserRole.PET_OWNER;
+
+/**
+ * Maps users between entities and DTOs with the generated MapStruct mapper. Passwords are encoded by a pass-through
+ * encoder, so the mapping is measured rather than the hashing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserMapperBenchmark {
+
+    private final UserMapper userMapper = new UserMapperImpl();
+
+    private UserDto userDto;
+    private UserDto userPatchDto;
+    private User user;
+
+    @Setup
+    public void setup() {
+
+        ReflectionTestUtils.setField(userMapper, "passwordEncoderMapper",
+            new UserMapper.PasswordEncoderMapper(new PassThroughPasswordEncoder()));
+
+        userDto = UserDto.builder()
+            .email(new Email("pet-owner@example.com"))
+            .password("1Password!")
+            .fullName("Full Name")
+            .roles(Set.of(PET_OWNER))
+            .build();
+
+        userPatchDto = UserDto.builder()
+            .fullName("Another Full Name")
+            .build();
+
+        user = userMapper.toUserEncodePassword(userDto);
+    }
+
+    @Benchmark
+    public User toUserEncodePassword() {
+        return userMapper.toUserEncodePassword(userDto);
+    }
+
+    @Benchmark
+    public UserDto toUserDto() {
+        return userMapper.toUserDto(user);
+    }
+
+    @Benchmark
+    public User updateUserFromDtoEncodePassword() {
+        return userMapper.updateUserFromDtoEncodePassword(user, userPatchDto);
+    }
+
+    private static class PassThroughPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
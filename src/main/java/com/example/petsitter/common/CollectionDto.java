@@ -1,15 +1,15 @@
 package com.example.petsitter.common;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Getter;
 
-import java.util.Collection;
-
 public class CollectionDto<E> {
 
     @Getter
-    Collection<E> items;
+    @JsonSerialize(using = ItemStreamSerializer.class)
+    ItemStream<E> items;
 
-    public CollectionDto(Collection<E> items) {
+    public CollectionDto(ItemStream<E> items) {
         this.items = items;
     }
 }
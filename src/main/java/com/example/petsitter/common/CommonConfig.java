@@ -1,10 +1,13 @@
 package com.example.petsitter.common;
 
-import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
-import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 
 import java.time.format.DateTimeFormatter;
 
@@ -13,6 +16,9 @@ public class CommonConfig {
 
     public static final String MEDIA_TYPE_APPLICATION_MERGE_PATCH_JSON = "application/merge-patch+json";
     public static final String MEDIA_TYPE_APPLICATION_PROBLEM_JSON = "application/problem+json";
+    public static final String MEDIA_TYPE_TEXT_CSV = "text/csv";
+    public static final String MEDIA_TYPE_APPLICATION_CBOR = "application/cbor";
+    public static final String MEDIA_TYPE_APPLICATION_SMILE = "application/x-jackson-smile";
 
     public static final String DATE_TIME_FORMAT = "yyyy-MM-dd HH:mm";
     public static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern(DATE_TIME_FORMAT);
@@ -21,8 +27,26 @@ public class CommonConfig {
     Jackson2ObjectMapperBuilderCustomizer jsonCustomizer() {
 
         return builder -> {
-            builder.serializers(new LocalDateTimeSerializer(DATE_TIME_FORMATTER));
-            builder.deserializers(new LocalDateTimeDeserializer(DATE_TIME_FORMATTER));
+            builder.serializers(new FixedLayoutLocalDateTimeSerializer());
+            builder.deserializers(new FixedLayoutLocalDateTimeDeserializer());
         };
     }
+
+    /**
+     * Replaces the default CBOR converter, whose object mapper ignores the application's Jackson configuration. UUIDs
+     * are written as 16-byte binary values, which CBOR supports natively.
+     */
+    @Bean
+    MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new MappingJackson2CborHttpMessageConverter(objectMapperBuilder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Replaces the default Smile converter, as for CBOR.
+     */
+    @Bean
+    MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+        Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapperBuilder.factory(new SmileFactory()).build());
+    }
 }
@@ -0,0 +1,138 @@
+package com.example.petsitter.common;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits at most a fixed number of callers to the target data source at a time. With virtual threads there can be far
+ * more concurrent requests than pooled connections; waiting on a fair semaphore in front of the pool keeps the
+ * surplus parked cheaply and in arrival order instead of contending inside the pool. A permit is held from
+ * {@code getConnection} until the connection is closed.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+
+    private final int limit;
+
+    private final Duration acquireTimeout;
+
+    public ConnectionLimitingDataSource(DataSource targetDataSource, int limit, Duration acquireTimeout) {
+
+        super(targetDataSource);
+
+        this.permits = new Semaphore(limit, true);
+        this.limit = limit;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+
+        acquire();
+
+        try {
+            return releasingOnClose(super.getConnection());
+        }
+        catch (SQLException | RuntimeException e) {
+
+            permits.release();
+
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+
+        acquire();
+
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        }
+        catch (SQLException | RuntimeException e) {
+
+            permits.release();
+
+            throw e;
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    private void acquire() throws SQLException {
+
+        try {
+            if (!permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+
+                throw new SQLTransientConnectionException("Connection limit of %d reached, waited %s"
+                    .formatted(limit, acquireTimeout));
+            }
+        }
+        catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+
+            throw new SQLTransientConnectionException("Interrupted waiting for a connection", e);
+        }
+    }
+
+    private Connection releasingOnClose(Connection connection) {
+
+        var released = new AtomicBoolean();
+
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+
+            if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            }
+
+            if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+
+            if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+
+                try {
+                    return invoke(connection, method, args);
+                }
+                finally {
+                    permits.release();
+                }
+            }
+
+            return invoke(connection, method, args);
+        };
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+            invocationHandler);
+    }
+
+    private static Object invoke(Connection connection, Method method, Object[] args) throws Throwable {
+
+        try {
+            return method.invoke(connection, args);
+        }
+        catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.petsitter.common;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+@Configuration
+@Slf4j
+public class DataSourceConfig {
+
+    /**
+     * Wraps each connection pool in a {@link ConnectionLimitingDataSource}. Enabled by the virtual-threads profile; a
+     * limit of 0 uses the pool's maximum size.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "petsitter.datasource.connection-limit.enabled", havingValue = "true")
+    static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+
+        var configuredLimit = environment.getRequiredProperty("petsitter.datasource.connection-limit.permits",
+            Integer.class);
+        var acquireTimeout = environment.getRequiredProperty(
+            "petsitter.datasource.connection-limit.acquire-timeout", Duration.class);
+
+        return new BeanPostProcessor() {
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+                if (!(bean instanceof HikariDataSource hikariDataSource)) {
+                    return bean;
+                }
+
+                var limit = configuredLimit > 0 ? configuredLimit : hikariDataSource.getMaximumPoolSize();
+
+                log.info("Data source {} limited to {} concurrent connections", beanName, limit);
+
+                return new ConnectionLimitingDataSource(hikariDataSource, limit, acquireTimeout);
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "petsitter.datasource.connection-limit.enabled", havingValue = "true")
+    MeterBinder connectionLimitingDataSourceMetrics(Map<String, DataSource> dataSourcesByName) {
+
+        return meterRegistry -> dataSourcesByName.forEach((name, dataSource) -> {
+
+            if (dataSource instanceof ConnectionLimitingDataSource connectionLimitingDataSource) {
+
+                Gauge.builder("petsitter.datasource.connection.limit.waiting", connectionLimitingDataSource,
+                        ConnectionLimitingDataSource::getWaiting)
+                    .description("Threads waiting for a connection permit")
+                    .tag("name", name)
+                    .register(meterRegistry);
+
+                Gauge.builder("petsitter.datasource.connection.limit", connectionLimitingDataSource,
+                        ConnectionLimitingDataSource::getLimit)
+                    .tag("name", name)
+                    .register(meterRegistry);
+            }
+        });
+    }
+
+    /**
+     * Routes read-only transactions to a replica pool. Both pools are Hikari pools; the primary is configured by
+     * spring.datasource, the replica by petsitter.datasource.replica.
+     */
+    @Configuration
+    @ConditionalOnProperty(name = "petsitter.datasource.replica.enabled", havingValue = "true")
+    static class ReadWriteRoutingConfig {
+
+        @Bean
+        @ConfigurationProperties("spring.datasource.hikari")
+        HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+
+            return dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        }
+
+        @Bean
+        @ConfigurationProperties("petsitter.datasource.replica.hikari")
+        HikariDataSource replicaDataSource(DataSourceProperties dataSourceProperties,
+                                           @Value("${petsitter.datasource.replica.url}") String url,
+                                           @Value("${petsitter.datasource.replica.username}") String username,
+                                           @Value("${petsitter.datasource.replica.password}") String password) {
+
+            var replicaDataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(dataSourceProperties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+
+            replicaDataSource.setPoolName("replica");
+
+            return replicaDataSource;
+        }
+
+        @Bean
+        @Primary
+        DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                              @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                              @Value("${petsitter.datasource.replica.read-your-writes-window}")
+                              Duration readYourWritesWindow) {
+
+            log.info("Read-only transactions routed to replica, read-your-writes window {}", readYourWritesWindow);
+
+            return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, readYourWritesWindow));
+        }
+
+        /**
+         * Hibernate otherwise holds its connection until the session closes. With open-in-view that is the end of the
+         * request, so a write following a read-only transaction in the same request would go to the replica.
+         */
+        @Bean
+        HibernatePropertiesCustomizer releaseConnectionAfterTransactionCustomizer() {
+
+            return hibernateProperties -> hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+        }
+    }
+}
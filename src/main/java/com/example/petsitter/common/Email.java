@@ -5,6 +5,8 @@ import com.fasterxml.jackson.annotation.JsonValue;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Value;
 
+import java.util.Locale;
+
 @Value
 @Schema(type = "string", format = "email", example = "email@example.com")
 public class Email {
@@ -13,4 +15,12 @@ public class Email {
     @JsonProperty("email")
     @jakarta.validation.constraints.Email
     String address;
+
+    /**
+     * The form of an address used to identify a user: addresses differing only in case or surrounding whitespace
+     * belong to the same user.
+     */
+    public static String normalize(String address) {
+        return address.trim().toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,89 @@
+package com.example.petsitter.common;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+
+import static com.example.petsitter.common.CommonConfig.DATE_TIME_FORMATTER;
+
+/**
+ * Reads date-times in the {@link CommonConfig#DATE_TIME_FORMAT} layout straight from the parser's text buffer. Anything
+ * else, including values the formatter would resolve differently, such as the 31st of a 30-day month, falls back to
+ * the formatter, so results and errors stay those of {@link LocalDateTimeDeserializer}.
+ */
+class FixedLayoutLocalDateTimeDeserializer extends LocalDateTimeDeserializer {
+
+    FixedLayoutLocalDateTimeDeserializer() {
+        super(DATE_TIME_FORMATTER);
+    }
+
+    @Override
+    public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+
+        if (parser.hasToken(JsonToken.VALUE_STRING)
+            && parser.getTextLength() == FixedLayoutLocalDateTimeSerializer.LENGTH) {
+
+            var dateTime = parse(parser.getTextCharacters(), parser.getTextOffset());
+
+            if (dateTime != null) {
+                return dateTime;
+            }
+        }
+
+        return super.deserialize(parser, context);
+    }
+
+    /**
+     * Returns null unless the 16 characters from the offset are a valid date-time in the fixed layout.
+     */
+    static LocalDateTime parse(char[] text, int offset) {
+
+        if (text[offset + 4] != '-' || text[offset + 7] != '-' || text[offset + 10] != ' '
+            || text[offset + 13] != ':') {
+            return null;
+        }
+
+        var year = readDigits(text, offset, 4);
+        var month = readDigits(text, offset + 5, 2);
+        var dayOfMonth = readDigits(text, offset + 8, 2);
+        var hour = readDigits(text, offset + 11, 2);
+        var minute = readDigits(text, offset + 14, 2);
+
+        if (year < 1 || month < 0 || dayOfMonth < 0 || hour < 0 || minute < 0) {
+            return null;
+        }
+
+        try {
+            return LocalDateTime.of(year, month, dayOfMonth, hour, minute);
+        }
+        catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns -1 if any of the characters is not an ASCII digit.
+     */
+    private static int readDigits(char[] text, int offset, int digits) {
+
+        var value = 0;
+
+        for (int i = offset; i < offset + digits; i++) {
+
+            var digit = text[i] - '0';
+
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+
+            value = value * 10 + digit;
+        }
+
+        return value;
+    }
+}
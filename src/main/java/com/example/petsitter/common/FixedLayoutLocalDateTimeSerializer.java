@@ -0,0 +1,60 @@
+package com.example.petsitter.common;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import static com.example.petsitter.common.CommonConfig.DATE_TIME_FORMATTER;
+
+/**
+ * Writes date-times in the {@link CommonConfig#DATE_TIME_FORMAT} layout digit by digit into a per-thread buffer, which
+ * the generator copies without an intermediate string. Years outside 1 to 9999 and timestamp output fall back to the
+ * formatter.
+ */
+class FixedLayoutLocalDateTimeSerializer extends LocalDateTimeSerializer {
+
+    static final int LENGTH = 16;
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[LENGTH]);
+
+    FixedLayoutLocalDateTimeSerializer() {
+        super(DATE_TIME_FORMATTER);
+    }
+
+    @Override
+    public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+        throws IOException {
+
+        var year = value.getYear();
+
+        if (year < 1 || year > 9999 || useTimestamp(provider)) {
+            super.serialize(value, generator, provider);
+            return;
+        }
+
+        var buffer = BUFFER.get();
+
+        writeDigits(buffer, 0, year, 4);
+        buffer[4] = '-';
+        writeDigits(buffer, 5, value.getMonthValue(), 2);
+        buffer[7] = '-';
+        writeDigits(buffer, 8, value.getDayOfMonth(), 2);
+        buffer[10] = ' ';
+        writeDigits(buffer, 11, value.getHour(), 2);
+        buffer[13] = ':';
+        writeDigits(buffer, 14, value.getMinute(), 2);
+
+        generator.writeString(buffer, 0, LENGTH);
+    }
+
+    private static void writeDigits(char[] buffer, int offset, int value, int digits) {
+
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
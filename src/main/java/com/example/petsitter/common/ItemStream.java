@@ -0,0 +1,32 @@
+package com.example.petsitter.common;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Items produced one at a time, typically the rows of a query that runs when the items are iterated. A collection
+ * response writes each item as it is read, so its memory does not grow with the number of items.
+ */
+@FunctionalInterface
+public interface ItemStream<E> {
+
+    /**
+     * Passes every item to the action, in order. Every call iterates the items anew, e.g. runs the query again.
+     */
+    void forEach(Consumer<? super E> action);
+
+    default List<E> toList() {
+
+        var items = new ArrayList<E>();
+
+        forEach(items::add);
+
+        return items;
+    }
+
+    static <E> ItemStream<E> of(Collection<? extends E> items) {
+        return items::forEach;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.petsitter.common;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes the items of an {@link ItemStream} to a JSON array while they are produced. Once the first buffer of the
+ * array has been flushed the response is committed, so a failure after that truncates the response rather than
+ * turning it into a problem response.
+ */
+class ItemStreamSerializer extends StdSerializer<ItemStream<?>> {
+
+    ItemStreamSerializer() {
+        super(ItemStream.class, false);
+    }
+
+    @Override
+    public void serialize(ItemStream<?> items, JsonGenerator generator, SerializerProvider provider)
+        throws IOException {
+
+        generator.writeStartArray();
+
+        try {
+            items.forEach(item -> {
+
+                try {
+                    provider.defaultSerializeValue(item, generator);
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        generator.writeEndArray();
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.petsitter.common;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Makes {@link ItemStream}s of repository streams. Each iteration opens the stream in a read-only transaction, or in
+ * the caller's transaction if there is one, and closes it once every item has been passed on.
+ */
+@Component
+public class ItemStreams {
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    ItemStreams(PlatformTransactionManager transactionManager) {
+
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    public <E> ItemStream<E> of(Supplier<Stream<E>> query) {
+
+        return action -> readOnlyTransactionTemplate.executeWithoutResult(status -> {
+
+            try (var items = query.get()) {
+                items.forEachOrdered(action);
+            }
+        });
+    }
+}
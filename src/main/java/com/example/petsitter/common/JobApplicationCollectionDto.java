@@ -1,14 +1,19 @@
 package com.example.petsitter.common;
 
 import com.example.petsitter.jobs.JobApplicationDto;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Schema;
 
-import java.util.Collection;
-
 @Schema(name = "JobApplicationCollection")
 public class JobApplicationCollectionDto extends CollectionDto<JobApplicationDto> {
 
-    public JobApplicationCollectionDto(Collection<JobApplicationDto> items) {
+    public JobApplicationCollectionDto(ItemStream<JobApplicationDto> items) {
         super(items);
     }
+
+    @Override
+    @ArraySchema(schema = @Schema(implementation = JobApplicationDto.class))
+    public ItemStream<JobApplicationDto> getItems() {
+        return super.getItems();
+    }
 }
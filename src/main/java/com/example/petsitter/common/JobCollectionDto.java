@@ -1,14 +1,19 @@
 package com.example.petsitter.common;
 
 import com.example.petsitter.jobs.JobDto;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Schema;
 
-import java.util.Collection;
-
 @Schema(name = "JobCollection")
 public class JobCollectionDto extends CollectionDto<JobDto> {
 
-    public JobCollectionDto(Collection<JobDto> items) {
+    public JobCollectionDto(ItemStream<JobDto> items) {
         super(items);
     }
+
+    @Override
+    @ArraySchema(schema = @Schema(implementation = JobDto.class))
+    public ItemStream<JobDto> getItems() {
+        return super.getItems();
+    }
 }
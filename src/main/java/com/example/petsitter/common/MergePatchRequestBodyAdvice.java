@@ -0,0 +1,99 @@
+package com.example.petsitter.common;
+
+import com.example.petsitter.common.exception.InvalidArgument;
+import com.example.petsitter.common.exception.InvalidArgumentException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.petsitter.common.CommonConfig.MEDIA_TYPE_APPLICATION_MERGE_PATCH_JSON;
+
+/**
+ * Reads the members of a JSON Merge Patch request body before it is bound to a DTO, where a member that is absent and
+ * one that is explicitly null both become a null field. A null member would remove the field, and no field of a job,
+ * job application or user can be removed, so each one is rejected by its path, e.g. job.dog.age. The non-null fields
+ * of a patch DTO are then exactly the members that were present, which is all an update writes.
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+class MergePatchRequestBodyAdvice extends RequestBodyAdviceAdapter {
+
+    private static final MediaType MERGE_PATCH_JSON = MediaType.valueOf(MEDIA_TYPE_APPLICATION_MERGE_PATCH_JSON);
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+
+        return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                           Class<? extends HttpMessageConverter<?>> converterType) throws IOException {
+
+        var contentType = inputMessage.getHeaders().getContentType();
+
+        if (contentType == null || !MERGE_PATCH_JSON.isCompatibleWith(contentType)) {
+            return inputMessage;
+        }
+
+        var body = inputMessage.getBody().readAllBytes();
+
+        // named as in other invalid arguments, e.g. job for a JobDto
+        var objectName =
+            StringUtils.uncapitalize(parameter.getParameterType().getSimpleName().replaceFirst("Dto$", ""));
+        var invalidArguments = new ArrayList<InvalidArgument>();
+
+        addNullMembers(objectMapper.readTree(body), null, objectName, invalidArguments);
+
+        if (!invalidArguments.isEmpty()) {
+            throw new InvalidArgumentException(invalidArguments);
+        }
+
+        return new HttpInputMessage() {
+
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(body);
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return inputMessage.getHeaders();
+            }
+        };
+    }
+
+    private static void addNullMembers(JsonNode node, String path, String objectName,
+                                       List<InvalidArgument> invalidArguments) {
+
+        node.fields().forEachRemaining(member -> {
+
+            var memberPath = path == null ? member.getKey() : path + "." + member.getKey();
+
+            if (member.getValue().isNull()) {
+                invalidArguments.add(new InvalidArgument(objectName, memberPath, InvalidArgument.NULL_VALUE_MSG));
+            } else {
+                addNullMembers(member.getValue(), memberPath, objectName, invalidArguments);
+            }
+        });
+    }
+}
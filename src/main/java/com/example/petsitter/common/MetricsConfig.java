@@ -0,0 +1,132 @@
+package com.example.petsitter.common;
+
+import com.example.petsitter.PetSitterApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Times each call of a method of the application's {@link Repository} classes as petsitter.repository.invocations,
+     * tagged with the repository, the method and the exception thrown, if any. Spring Data's own repositories are
+     * timed by Spring Boot as spring.data.repository.invocations.
+     * <p>
+     * A method returning an {@link ItemStream} only prepares its query, which runs when the items are iterated, so each
+     * iteration is timed instead of the call. The time the caller spends on the items, e.g. writing them to the
+     * response, is left out.
+     */
+    @Bean
+    static Advisor repositoryTimingAdvisor(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+
+        var meterRegistry = SingletonSupplier.of(meterRegistryProvider::getObject);
+
+        var applicationPackage = PetSitterApplication.class.getPackageName();
+
+        var pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(Repository.class))
+            .intersection((Class<?> type) -> type.getPackageName().startsWith(applicationPackage));
+
+        return new DefaultPointcutAdvisor(pointcut, (MethodInterceptor) invocation -> {
+
+            var repository = ClassUtils.getUserClass(invocation.getThis().getClass()).getSimpleName();
+            var method = invocation.getMethod().getName();
+
+            var clock = meterRegistry.obtain().config().clock();
+            var start = clock.monotonicTime();
+
+            try {
+                var result = invocation.proceed();
+
+                if (result instanceof ItemStream<?> items) {
+                    return timed(items, meterRegistry, repository, method);
+                }
+
+                recordRepositoryInvocation(meterRegistry.obtain(), repository, method, "none",
+                    clock.monotonicTime() - start);
+
+                return result;
+            }
+            catch (Throwable e) {
+
+                recordRepositoryInvocation(meterRegistry.obtain(), repository, method, e.getClass().getSimpleName(),
+                    clock.monotonicTime() - start);
+
+                throw e;
+            }
+        });
+    }
+
+    private static <E> ItemStream<E> timed(ItemStream<E> items, Supplier<MeterRegistry> meterRegistry,
+                                           String repository, String method) {
+
+        return action -> {
+
+            var clock = meterRegistry.get().config().clock();
+            var start = clock.monotonicTime();
+
+            var actionNanos = new long[1];
+            var actionFailure = new Throwable[1];
+
+            var exception = "none";
+
+            try {
+                items.forEach(item -> {
+
+                    var actionStart = clock.monotonicTime();
+
+                    try {
+                        action.accept(item);
+                    }
+                    catch (RuntimeException | Error e) {
+
+                        actionFailure[0] = e;
+
+                        throw e;
+                    }
+                    finally {
+                        actionNanos[0] += clock.monotonicTime() - actionStart;
+                    }
+                });
+            }
+            catch (RuntimeException | Error e) {
+
+                // a failure of the caller, e.g. a client gone while its response is written, is not the repository's
+                if (e != actionFailure[0]) {
+                    exception = e.getClass().getSimpleName();
+                }
+
+                throw e;
+            }
+            finally {
+                recordRepositoryInvocation(meterRegistry.get(), repository, method, exception,
+                    clock.monotonicTime() - start - actionNanos[0]);
+            }
+        };
+    }
+
+    private static void recordRepositoryInvocation(MeterRegistry meterRegistry, String repository, String method,
+                                                   String exception, long nanos) {
+
+        Timer.builder("petsitter.repository.invocations")
+            .description("Repository method invocations")
+            .tag("repository", repository)
+            .tag("method", method)
+            .tag("exception", exception)
+            .register(meterRegistry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.petsitter.common;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends connections of read-only transactions to the replica and everything else to the primary. The route is decided
+ * when a connection is first needed, so this data source has to sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}; otherwise the connection is taken before
+ * the transaction is marked read-only.
+ * <p>
+ * To let a user read their own writes despite replication lag, read-only transactions of a user who committed a write
+ * within the read-your-writes window also use the primary.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final long readYourWritesWindowNanos;
+
+    private final Map<String, Long> lastWriteByPrincipal = new ConcurrentHashMap<>();
+
+    public ReadWriteRoutingDataSource(DataSource primaryDataSource, DataSource replicaDataSource,
+                                      Duration readYourWritesWindow) {
+
+        this.readYourWritesWindowNanos = readYourWritesWindow.toNanos();
+
+        setTargetDataSources(Map.of(Route.PRIMARY, primaryDataSource, Route.REPLICA, replicaDataSource));
+        setDefaultTargetDataSource(primaryDataSource);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Route.PRIMARY;
+        }
+
+        var principal = currentPrincipal();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+
+            principal.ifPresent(this::recordWriteAfterCommit);
+
+            return Route.PRIMARY;
+        }
+
+        return principal.filter(this::wroteRecently).isPresent() ? Route.PRIMARY : Route.REPLICA;
+    }
+
+    private boolean wroteRecently(String principal) {
+
+        var lastWrite = lastWriteByPrincipal.get(principal);
+
+        if (lastWrite == null) {
+            return false;
+        }
+
+        if (System.nanoTime() - lastWrite < readYourWritesWindowNanos) {
+            return true;
+        }
+
+        lastWriteByPrincipal.remove(principal, lastWrite);
+
+        return false;
+    }
+
+    private void recordWriteAfterCommit(String principal) {
+
+        if (readYourWritesWindowNanos <= 0 || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+
+                if (lastWriteByPrincipal.size() > PURGE_THRESHOLD) {
+
+                    var now = System.nanoTime();
+
+                    lastWriteByPrincipal.values().removeIf(lastWrite -> now - lastWrite >= readYourWritesWindowNanos);
+                }
+
+                lastWriteByPrincipal.put(principal, System.nanoTime());
+            }
+        });
+    }
+
+    private static Optional<String> currentPrincipal() {
+
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken ||
+            !authentication.isAuthenticated()) {
+
+            return Optional.empty();
+        }
+
+        return Optional.of(authentication.getName());
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.petsitter.common.audit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records field changes of {@link RecordChanges} entities, masking the values of their masked fields. Updates made
+ * through Hibernate are recorded by the {@link ChangeHistoryListener}; updates that bypass it, such as an UPDATE of
+ * some columns only, pass the old and new values of the fields they set to {@link #recordAfterCommit}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeHistory {
+
+    private static final String MASKED_VALUE = "***";
+
+    private final ChangeHistoryWriter changeHistoryWriter;
+
+    /**
+     * The masked fields of each entity class, empty for classes whose changes are not recorded.
+     */
+    private final Map<Class<?>, Optional<Set<String>>> maskedFieldsByEntityClass = new ConcurrentHashMap<>();
+
+    /**
+     * Records each field whose new value differs from its old one once the current transaction commits, or at once
+     * outside a transaction. Fields are named as the listener names them, e.g. dog.age, associations valued by id.
+     */
+    public void recordAfterCommit(Class<?> entityClass, UUID entityId, Map<String, ?> oldValues,
+                                  Map<String, ?> newValues, @Nullable UUID changedBy, LocalDateTime changedDate) {
+
+        if (!isRecorded(entityClass)) {
+            return;
+        }
+
+        var changes = new ArrayList<Change>();
+
+        newValues.forEach((fieldName, newValue) -> addChange(changes, fieldName, oldValues.get(fieldName), newValue));
+
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+
+            record(entityClass, entityId, changes, changedBy, changedDate);
+
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                record(entityClass, entityId, changes, changedBy, changedDate);
+            }
+        });
+    }
+
+    boolean isRecorded(Class<?> entityClass) {
+        return maskedFields(entityClass).isPresent();
+    }
+
+    void record(Class<?> entityClass, UUID entityId, List<Change> changes, @Nullable UUID changedBy,
+                LocalDateTime changedDate) {
+
+        var maskedFields = maskedFields(entityClass).orElseThrow();
+        var entityType = entityClass.getSimpleName();
+
+        var entries = new ArrayList<ChangeHistoryEntry>(changes.size());
+
+        for (var change : changes) {
+
+            var masked = maskedFields.contains(change.fieldName());
+
+            entries.add(new ChangeHistoryEntry(UUID.randomUUID(), entityType, entityId, change.fieldName(),
+                masked ? MASKED_VALUE : format(change.oldValue()), masked ? MASKED_VALUE : format(change.newValue()),
+                changedBy, changedDate));
+        }
+
+        changeHistoryWriter.append(entries);
+    }
+
+    static void addChange(List<Change> changes, String fieldName, Object oldValue, Object newValue) {
+
+        if (!Objects.equals(oldValue, newValue)) {
+            changes.add(new Change(fieldName, oldValue, newValue));
+        }
+    }
+
+    private Optional<Set<String>> maskedFields(Class<?> entityClass) {
+
+        return maskedFieldsByEntityClass.computeIfAbsent(entityClass, key ->
+            Optional.ofNullable(key.getAnnotation(RecordChanges.class))
+                .map(recordChanges -> Set.of(recordChanges.maskedFields())));
+    }
+
+    private static String format(Object value) {
+
+        if (value == null) {
+            return null;
+        }
+
+        var text = value instanceof Enum<?> enumValue ? enumValue.name() : value.toString();
+
+        return text.length() > ChangeHistoryEntry.MAX_VALUE_LENGTH ?
+            text.substring(0, ChangeHistoryEntry.MAX_VALUE_LENGTH) : text;
+    }
+
+    record Change(String fieldName, Object oldValue, Object newValue) {}
+}
@@ -0,0 +1,54 @@
+package com.example.petsitter.common.audit;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The change of one field of an entity annotated with {@link RecordChanges}. Rows are only ever appended, in batches
+ * by the {@link ChangeHistoryWriter}; the mapping declares the table.
+ */
+@Entity
+@Table(name = "Change_History", indexes = {
+    @Index(name = "change_history_entity_id_idx", columnList = "entity_id, changed_date")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class ChangeHistoryEntry {
+
+    static final int MAX_VALUE_LENGTH = 500;
+
+    @Id
+    private UUID id;
+
+    @Column(name = "entity_type", length = 50, nullable = false)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private UUID entityId;
+
+    @Column(name = "field_name", length = 100, nullable = false)
+    private String fieldName;
+
+    @Column(name = "old_value", length = MAX_VALUE_LENGTH)
+    private String oldValue;
+
+    @Column(name = "new_value", length = MAX_VALUE_LENGTH)
+    private String newValue;
+
+    @Column(name = "changed_by")
+    private UUID changedBy;
+
+    @Column(name = "changed_date", nullable = false)
+    private LocalDateTime changedDate;
+}
@@ -0,0 +1,133 @@
+package com.example.petsitter.common.audit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.CollectionType;
+import org.hibernate.type.ComponentType;
+import org.hibernate.type.EntityType;
+import org.hibernate.type.Type;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+
+/**
+ * Turns the dirty checking result of each committed update of a {@link RecordChanges} entity into change history
+ * entries: one per changed field, embedded fields by their path, e.g. dog.age, and associations by the id of the
+ * associated entity. The version, the audit metadata and collections are not recorded. Runs after the commit, so
+ * rolled back changes never reach the history, and only hands the changes to the {@link ChangeHistory}.
+ */
+@Component
+class ChangeHistoryListener implements PostCommitUpdateEventListener {
+
+    private final ChangeHistory changeHistory;
+
+    ChangeHistoryListener(ChangeHistory changeHistory, EntityManagerFactory entityManagerFactory) {
+
+        this.changeHistory = changeHistory;
+
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getServiceRegistry()
+            .getService(EventListenerRegistry.class)
+            .appendListeners(EventType.POST_COMMIT_UPDATE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return changeHistory.isRecorded(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+
+        var persister = event.getPersister();
+        var oldState = event.getOldState();
+
+        if (!changeHistory.isRecorded(persister.getMappedClass()) || oldState == null) {
+            return;
+        }
+
+        var state = event.getState();
+        var propertyNames = persister.getPropertyNames();
+        var propertyTypes = persister.getPropertyTypes();
+
+        var changes = new ArrayList<ChangeHistory.Change>();
+        UUID changedBy = null;
+        LocalDateTime changedDate = null;
+
+        for (int i = 0; i < propertyNames.length; i++) {
+
+            if (i == persister.getVersionProperty() || propertyTypes[i] instanceof CollectionType) {
+                continue;
+            }
+
+            if (propertyTypes[i] instanceof ComponentType componentType) {
+
+                var componentNames = componentType.getPropertyNames();
+                var oldValues = componentValues(componentType, oldState[i]);
+                var newValues = componentValues(componentType, state[i]);
+
+                if (componentType.getReturnedClass() == AuditMetaData.class) {
+                    changedBy = (UUID) newValues[indexOf(componentNames, "lastModifiedBy")];
+                    changedDate = (LocalDateTime) newValues[indexOf(componentNames, "lastModifiedDate")];
+                    continue;
+                }
+
+                for (int j = 0; j < componentNames.length; j++) {
+                    ChangeHistory.addChange(changes, propertyNames[i] + "." + componentNames[j], oldValues[j],
+                        newValues[j]);
+                }
+            } else {
+                ChangeHistory.addChange(changes, propertyNames[i], value(event, propertyTypes[i], oldState[i]),
+                    value(event, propertyTypes[i], state[i]));
+            }
+        }
+
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        changeHistory.record(persister.getMappedClass(), (UUID) event.getId(), changes, changedBy,
+            changedDate != null ? changedDate : LocalDateTime.now());
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // nothing was recorded before the commit
+    }
+
+    private static Object value(PostUpdateEvent event, Type type, Object value) {
+
+        if (value == null || !(type instanceof EntityType entityType)) {
+            return value;
+        }
+
+        var session = event.getSession();
+
+        return session.getFactory().getMappingMetamodel()
+            .getEntityDescriptor(entityType.getAssociatedEntityName())
+            .getIdentifier(value, session);
+    }
+
+    private static Object[] componentValues(ComponentType componentType, Object component) {
+
+        return component != null ? componentType.getPropertyValues(component) :
+            new Object[componentType.getPropertyNames().length];
+    }
+
+    private static int indexOf(String[] names, String name) {
+
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+
+        throw new IllegalArgumentException(name);
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.petsitter.common.audit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Appends change history entries to the Change_History table off the request threads. Entries are put into a bounded
+ * ring buffer, an {@link ArrayBlockingQueue}, which a background thread drains into JDBC batch inserts. When the
+ * buffer is full the recording thread inserts its entries itself, so a burst slows writes down rather than losing
+ * history. Entries whose insert fails, e.g. while the database is unavailable, are kept and inserted again by the
+ * next batch, so history is delayed but not lost; only entries the database rejects are logged and dropped. Entries
+ * still buffered on shutdown are inserted before the data source closes.
+ */
+@Component
+@Slf4j
+class ChangeHistoryWriter implements DisposableBean {
+
+    private static final String INSERT_ENTRY = """
+        INSERT INTO change_history
+            (id, entity_type, entity_id, field_name, old_value, new_value, changed_by, changed_date)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final BlockingQueue<ChangeHistoryEntry> buffer;
+
+    private final int batchSize;
+
+    private final long pollTimeoutNanos;
+
+    /**
+     * Held while entries taken from the buffer are inserted, so {@link #flush()} returns only after they are.
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * Entries whose insert failed, inserted before the next batch. Guarded by the {@link #writeLock}.
+     */
+    private final List<ChangeHistoryEntry> unwritten = new ArrayList<>();
+
+    private final Thread writerThread;
+
+    private volatile boolean running = true;
+
+    ChangeHistoryWriter(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                        @Value("${petsitter.change-history.buffer-capacity}") int bufferCapacity,
+                        @Value("${petsitter.change-history.batch-size}") int batchSize,
+                        @Value("${petsitter.change-history.poll-timeout}") Duration pollTimeout) {
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.pollTimeoutNanos = pollTimeout.toNanos();
+
+        Gauge.builder("petsitter.change.history.buffered", buffer, BlockingQueue::size)
+            .description("Change history entries waiting to be inserted")
+            .register(meterRegistry);
+
+        this.writerThread = new Thread(this::run, "change-history-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    void append(List<ChangeHistoryEntry> entries) {
+
+        List<ChangeHistoryEntry> overflow = null;
+
+        for (var entry : entries) {
+
+            if (!running || !buffer.offer(entry)) {
+
+                if (overflow == null) {
+                    overflow = new ArrayList<>();
+                }
+
+                overflow.add(entry);
+            }
+        }
+
+        if (overflow != null && !insert(overflow)) {
+
+            writeLock.lock();
+
+            try {
+                unwritten.addAll(overflow);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Inserts all entries appended so far, including those the background thread is inserting right now, and returns
+     * whether they were all inserted. Entries whose insert failed are kept for the next attempt.
+     */
+    boolean flush() {
+
+        writeLock.lock();
+
+        try {
+            if (!insertUnwritten()) {
+                return false;
+            }
+
+            var batch = new ArrayList<ChangeHistoryEntry>(batchSize);
+
+            while (buffer.drainTo(batch, batchSize) > 0) {
+
+                if (!insert(batch)) {
+
+                    unwritten.addAll(batch);
+
+                    return false;
+                }
+
+                batch.clear();
+            }
+
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+
+        running = false;
+
+        writerThread.join();
+
+        if (!flush()) {
+            log.error("Lost {} change history entries on shutdown", unwritten.size() + buffer.size());
+        }
+    }
+
+    private void run() {
+
+        var batch = new ArrayList<ChangeHistoryEntry>(batchSize);
+
+        while (running) {
+
+            try {
+                writeLock.lockInterruptibly();
+
+                var retryLater = false;
+
+                try {
+                    if (insertUnwritten()) {
+
+                        var first = buffer.poll(pollTimeoutNanos, TimeUnit.NANOSECONDS);
+
+                        if (first != null) {
+
+                            batch.add(first);
+                            buffer.drainTo(batch, batchSize - 1);
+
+                            if (!insert(batch)) {
+                                unwritten.addAll(batch);
+                            }
+                        }
+                    } else {
+                        retryLater = true;
+                    }
+                } finally {
+                    batch.clear();
+                    writeLock.unlock();
+                }
+
+                // the database is probably unavailable, so give it a moment before trying again
+                if (retryLater) {
+                    TimeUnit.NANOSECONDS.sleep(pollTimeoutNanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Inserts the entries whose insert failed before and returns whether they were inserted.
+     */
+    private boolean insertUnwritten() {
+
+        if (unwritten.isEmpty()) {
+            return true;
+        }
+
+        if (!insert(unwritten)) {
+            return false;
+        }
+
+        unwritten.clear();
+
+        return true;
+    }
+
+    /**
+     * Inserts the entries and returns false if they could not be inserted now but might be later.
+     */
+    private boolean insert(List<ChangeHistoryEntry> entries) {
+
+        try {
+            jdbcTemplate.batchUpdate(INSERT_ENTRY, entries, batchSize, (statement, entry) -> {
+                statement.setObject(1, entry.getId());
+                statement.setString(2, entry.getEntityType());
+                statement.setObject(3, entry.getEntityId());
+                statement.setString(4, entry.getFieldName());
+                statement.setString(5, entry.getOldValue());
+                statement.setString(6, entry.getNewValue());
+                statement.setObject(7, entry.getChangedBy());
+                statement.setTimestamp(8, Timestamp.valueOf(entry.getChangedDate()));
+            });
+
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // inserting them again would fail again
+            log.error("Dropped {} change history entries the database rejected", entries.size(), e);
+
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Could not insert {} change history entries, will try again", entries.size(), e);
+
+            return false;
+        }
+    }
+}
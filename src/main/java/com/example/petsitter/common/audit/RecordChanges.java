@@ -0,0 +1,17 @@
+package com.example.petsitter.common.audit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Records each field an update of the annotated entity changes in the change history, with its old and new value.
+ * Masked fields are recorded as changed, without their values.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RecordChanges {
+
+    String[] maskedFields() default {};
+}
@@ -3,8 +3,10 @@ package com.example.petsitter.common.exception;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -94,6 +96,24 @@ class ExceptionHandlerAdvice {
             "/errors/not-found", null);
     }
 
+    @ExceptionHandler(value = PreconditionFailedException.class)
+    ProblemDetail preconditionFailedExceptionHandler(PreconditionFailedException preconditionFailedException) {
+
+        return problemDetail(HttpStatus.PRECONDITION_FAILED, preconditionFailedException.getMessage(),
+            "/errors/precondition-failed", null);
+    }
+
+    @ExceptionHandler(value = ServiceUnavailableException.class)
+    ResponseEntity<ProblemDetail> serviceUnavailableExceptionHandler(
+        ServiceUnavailableException serviceUnavailableException) {
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, serviceUnavailableException.getRetryAfter().toSeconds())))
+            .body(problemDetail(HttpStatus.SERVICE_UNAVAILABLE, serviceUnavailableException.getMessage(),
+                "/errors/service-unavailable", null));
+    }
+
     static ProblemDetail problemDetail(HttpStatus status, String message, String resolutionPath,
                                        Map<String, Object> properties) {
 
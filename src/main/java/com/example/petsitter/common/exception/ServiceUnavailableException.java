@@ -0,0 +1,17 @@
+package com.example.petsitter.common.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+public class ServiceUnavailableException extends RuntimeException {
+
+    @Getter
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,308 @@
+package com.example.petsitter.common.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of small binary events, kept in fixed-size, memory-mapped segment files, together with a
+ * snapshot of the state the events were applied to. On startup a structure is restored by reading the snapshot and
+ * replaying the events appended after it; both are handed out as read-only views of the mapped files, without copying.
+ * Writing a snapshot deletes the segments it supersedes.
+ * <p>
+ * Each event is stored as its length, the CRC32C of its bytes and the bytes, so a record torn by a crash ends the
+ * journal. Appends are not forced to disk: the operating system writes them back, so they survive a crash of the
+ * process but not necessarily of the host.
+ */
+public class EventJournal {
+
+    private static final String SEGMENT_SUFFIX = ".segment";
+
+    private static final String SNAPSHOT_FILE = "snapshot";
+
+    private static final String SNAPSHOT_TEMP_FILE = "snapshot.tmp";
+
+    private static final int SNAPSHOT_MAGIC = 0x4a534e50;
+
+    /**
+     * Magic number, segment and offset the snapshot was taken at, payload length and payload CRC32C.
+     */
+    private static final int SNAPSHOT_HEADER_SIZE = Integer.BYTES + Long.BYTES + 3 * Integer.BYTES;
+
+    /**
+     * Payload length and payload CRC32C.
+     */
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private long segment;
+
+    private MappedByteBuffer segmentBuffer;
+
+    private final Object snapshotLock = new Object();
+
+    public EventJournal(Path directory, int segmentSize) {
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+
+        try {
+            Files.createDirectories(directory);
+
+            var segments = segments();
+
+            segment = segments.isEmpty() ? 0 : segments.get(segments.size() - 1);
+            segmentBuffer = mapSegment(segment, FileChannel.MapMode.READ_WRITE);
+
+            var end = end(segmentBuffer, 0);
+
+            // clears a torn record so that later appends cannot be mistaken for its remains
+            for (int i = end; i < segmentSize; i++) {
+                if (segmentBuffer.get(i) != 0) {
+                    segmentBuffer.put(i, (byte) 0);
+                }
+            }
+
+            segmentBuffer.position(end);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized void append(ByteBuffer event) {
+
+        var length = event.remaining();
+
+        if (RECORD_HEADER_SIZE + length > segmentSize) {
+            throw new IllegalArgumentException("Event of %d bytes exceeds the segment size".formatted(length));
+        }
+
+        if (segmentBuffer.remaining() < RECORD_HEADER_SIZE + length) {
+            rotate();
+        }
+
+        var start = segmentBuffer.position();
+
+        segmentBuffer.position(start + Integer.BYTES);
+        segmentBuffer.putInt(crc(event));
+        segmentBuffer.put(event);
+
+        // the length goes last, it makes the record visible
+        segmentBuffer.putInt(start, length);
+    }
+
+    /**
+     * @return the payload of the latest snapshot, if one was written and is intact
+     */
+    public synchronized Optional<ByteBuffer> readSnapshot() {
+
+        var snapshotFile = directory.resolve(SNAPSHOT_FILE);
+
+        if (!Files.exists(snapshotFile)) {
+            return Optional.empty();
+        }
+
+        var snapshot = map(snapshotFile, FileChannel.MapMode.READ_ONLY, -1);
+
+        if (snapshot.capacity() < SNAPSHOT_HEADER_SIZE || snapshot.getInt(0) != SNAPSHOT_MAGIC) {
+            return Optional.empty();
+        }
+
+        var length = snapshot.getInt(Integer.BYTES + Long.BYTES + Integer.BYTES);
+
+        if (length < 0 || length > snapshot.capacity() - SNAPSHOT_HEADER_SIZE) {
+            return Optional.empty();
+        }
+
+        var payload = snapshot.slice(SNAPSHOT_HEADER_SIZE, length).asReadOnlyBuffer();
+
+        if (crc(payload) != snapshot.getInt(SNAPSHOT_HEADER_SIZE - Integer.BYTES)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(payload);
+    }
+
+    /**
+     * Passes each event appended after the latest snapshot, or every event if there is none, to the consumer.
+     */
+    public synchronized void replay(Consumer<ByteBuffer> consumer) {
+
+        var snapshot = readSnapshotPosition();
+
+        for (var replayedSegment : segments()) {
+
+            if (replayedSegment < snapshot.segment()) {
+                continue;
+            }
+
+            var buffer = replayedSegment == segment ? segmentBuffer.duplicate() :
+                mapSegment(replayedSegment, FileChannel.MapMode.READ_ONLY);
+
+            var offset = replayedSegment == snapshot.segment() ? snapshot.offset() : 0;
+
+            while (isRecord(buffer, offset)) {
+
+                var length = buffer.getInt(offset);
+
+                consumer.accept(buffer.slice(offset + RECORD_HEADER_SIZE, length).asReadOnlyBuffer());
+
+                offset += RECORD_HEADER_SIZE + length;
+            }
+        }
+    }
+
+    /**
+     * Writes a snapshot of the given size, filled in by the writer while appends wait, so that it reflects exactly the
+     * events appended before it. Replaces the previous snapshot and deletes the segments before the current one.
+     */
+    public void writeSnapshot(int size, Consumer<ByteBuffer> writer) {
+
+        synchronized (snapshotLock) {
+
+            var tempFile = directory.resolve(SNAPSHOT_TEMP_FILE);
+
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            var snapshot = map(tempFile, FileChannel.MapMode.READ_WRITE, SNAPSHOT_HEADER_SIZE + size);
+
+            long snapshotSegment;
+
+            synchronized (this) {
+
+                snapshotSegment = segment;
+
+                snapshot.putLong(Integer.BYTES, segment);
+                snapshot.putInt(Integer.BYTES + Long.BYTES, segmentBuffer.position());
+
+                writer.accept(snapshot.slice(SNAPSHOT_HEADER_SIZE, size));
+            }
+
+            snapshot.putInt(Integer.BYTES + Long.BYTES + Integer.BYTES, size);
+            snapshot.putInt(SNAPSHOT_HEADER_SIZE - Integer.BYTES, crc(snapshot.slice(SNAPSHOT_HEADER_SIZE, size)));
+            snapshot.putInt(0, SNAPSHOT_MAGIC);
+            snapshot.force();
+
+            try {
+                Files.move(tempFile, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+
+                for (var supersededSegment : segments()) {
+                    if (supersededSegment < snapshotSegment) {
+                        Files.delete(segmentFile(supersededSegment));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void rotate() {
+
+        segmentBuffer.force();
+
+        segment++;
+        segmentBuffer = mapSegment(segment, FileChannel.MapMode.READ_WRITE);
+    }
+
+    private SnapshotPosition readSnapshotPosition() {
+
+        var snapshotFile = directory.resolve(SNAPSHOT_FILE);
+
+        if (readSnapshot().isEmpty()) {
+            return new SnapshotPosition(Long.MIN_VALUE, 0);
+        }
+
+        var snapshot = map(snapshotFile, FileChannel.MapMode.READ_ONLY, -1);
+
+        return new SnapshotPosition(snapshot.getLong(Integer.BYTES), snapshot.getInt(Integer.BYTES + Long.BYTES));
+    }
+
+    private boolean isRecord(ByteBuffer buffer, int offset) {
+
+        if (offset > segmentSize - RECORD_HEADER_SIZE) {
+            return false;
+        }
+
+        var length = buffer.getInt(offset);
+
+        return length > 0 && length <= segmentSize - RECORD_HEADER_SIZE - offset &&
+            crc(buffer.slice(offset + RECORD_HEADER_SIZE, length)) == buffer.getInt(offset + Integer.BYTES);
+    }
+
+    private int end(ByteBuffer buffer, int offset) {
+
+        while (isRecord(buffer, offset)) {
+            offset += RECORD_HEADER_SIZE + buffer.getInt(offset);
+        }
+
+        return offset;
+    }
+
+    private List<Long> segments() {
+
+        try (Stream<Path> files = Files.list(directory)) {
+
+            return files
+                .map(file -> file.getFileName().toString())
+                .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                .sorted()
+                .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path segmentFile(long segment) {
+        return directory.resolve("%020d%s".formatted(segment, SEGMENT_SUFFIX));
+    }
+
+    private MappedByteBuffer mapSegment(long segment, FileChannel.MapMode mode) {
+        return map(segmentFile(segment), mode, segmentSize);
+    }
+
+    /**
+     * @param size the size to map, -1 for the size of the file
+     */
+    private static MappedByteBuffer map(Path file, FileChannel.MapMode mode, long size) {
+
+        var options = mode == FileChannel.MapMode.READ_ONLY ? new StandardOpenOption[] {StandardOpenOption.READ} :
+            new StandardOpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE};
+
+        try (var channel = FileChannel.open(file, options)) {
+            return channel.map(mode, 0, size < 0 ? channel.size() : size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int crc(ByteBuffer bytes) {
+
+        var crc = new CRC32C();
+        crc.update(bytes.duplicate());
+
+        return (int) crc.getValue();
+    }
+
+    private record SnapshotPosition(long segment, int offset) {}
+}
@@ -0,0 +1,37 @@
+package com.example.petsitter.demodata;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+class DemoDataConfig {
+
+    /**
+     * Fills an empty database on startup with the demo accounts and the synthetic data planned under
+     * petsitter.demo-data.
+     */
+    @Bean
+    @Profile("!test")
+    CommandLineRunner initDemoData(DemoDataGenerator demoDataGenerator,
+                                   @Value("${petsitter.demo-data.pet-owners}") int petOwners,
+                                   @Value("${petsitter.demo-data.pet-sitters}") int petSitters,
+                                   @Value("${petsitter.demo-data.jobs-per-owner}") int jobsPerOwner,
+                                   @Value("${petsitter.demo-data.applications-per-job}") double applicationsPerJob,
+                                   @Value("${petsitter.demo-data.seed}") long seed) {
+
+        return args -> {
+
+            if (!demoDataGenerator.isDatabaseEmpty()) {
+                return;
+            }
+
+            demoDataGenerator.insertDemoAccounts();
+
+            demoDataGenerator.generate(
+                new DemoDataGenerator.Plan(petOwners, petSitters, jobsPerOwner, applicationsPerJob, seed));
+        };
+    }
+}
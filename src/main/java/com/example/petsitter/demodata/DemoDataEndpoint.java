@@ -0,0 +1,36 @@
+package com.example.petsitter.demodata;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates synthetic data on demand, e.g. to grow the dataset of a running instance before a benchmark. Served on the
+ * management port to administrators only, and only if exposed:
+ * management.endpoints.web.exposure.include=health,prometheus,demodata. Omitted sizes are 0, an omitted seed is
+ * random.
+ */
+@Component
+@Endpoint(id = "demodata")
+@RequiredArgsConstructor
+class DemoDataEndpoint {
+
+    private final DemoDataGenerator demoDataGenerator;
+
+    @WriteOperation
+    public DemoDataGenerator.Summary generate(@Nullable Integer petOwners, @Nullable Integer petSitters,
+                                              @Nullable Integer jobsPerOwner, @Nullable Double applicationsPerJob,
+                                              @Nullable Long seed) {
+
+        return demoDataGenerator.generate(new DemoDataGenerator.Plan(
+            petOwners != null ? petOwners : 0,
+            petSitters != null ? petSitters : 0,
+            jobsPerOwner != null ? jobsPerOwner : 0,
+            applicationsPerJob != null ? applicationsPerJob : 0,
+            seed != null ? seed : ThreadLocalRandom.current().nextLong()));
+    }
+}
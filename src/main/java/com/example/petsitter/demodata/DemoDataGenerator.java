@@ -0,0 +1,395 @@
+package com.example.petsitter.demodata;
+
+import com.example.petsitter.common.Email;
+import com.example.petsitter.jobs.JobApplication.JobApplicationStatus;
+import com.example.petsitter.users.UserInfrastructureService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static com.example.petsitter.jobs.JobApplication.JobApplicationStatus.*;
+import static com.example.petsitter.users.User.UserRole.*;
+
+/**
+ * Inserts the demo accounts and generates synthetic users, jobs and job applications with JDBC batches, bypassing the
+ * persistence context. Synthetic users share one password, encoded once per generation. A generation is reproducible:
+ * the same plan, including its seed, produces the same rows, with job times relative to the current date.
+ * <p>
+ * Jobs start on a random day of the coming {@value #JOB_DAYS} days, mostly during the day, and mostly last one to three
+ * hours. The number of applications per job follows a Poisson distribution around the planned mean; at most one
+ * application per job is accepted. With sharded jobs only users are generated.
+ */
+@Component
+@Slf4j
+class DemoDataGenerator {
+
+    static final String SYNTHETIC_USER_PASSWORD = "1Password!";
+
+    private static final int JOB_DAYS = 90;
+
+    private static final String[] ACTIVITIES = {"Walk", "Walk, House sit", "House sit", "Feed", "Play", "Groom",
+        "Walk, Play (requires constant attention)"};
+    private static final String[] DOG_NAMES = {"Rambo", "Minnie", "Molly", "Max", "Bella", "Charlie", "Luna", "Rocky"};
+    private static final String[] BREEDS = {"Bichon Frisé", "Jack Russell Terrier", "Irish Setter", "Labrador",
+        "Beagle", "Poodle", "Border Collie", "Mixed"};
+    private static final String[] SIZES = {"4kg", "6kg", "12kg", "20kg", "26kg", "35kg"};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final UserInfrastructureService userInfrastructureService;
+
+    private final int batchSize;
+
+    private final boolean jobsSharded;
+
+    DemoDataGenerator(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                      PasswordEncoder passwordEncoder, UserInfrastructureService userInfrastructureService,
+                      @Value("${petsitter.demo-data.batch-size}") int batchSize,
+                      @Value("${petsitter.jobs.sharding.enabled}") boolean jobsSharded) {
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.userInfrastructureService = userInfrastructureService;
+        this.batchSize = batchSize;
+        this.jobsSharded = jobsSharded;
+    }
+
+    record Plan(int petOwners, int petSitters, int jobsPerOwner, double applicationsPerJob, long seed) {}
+
+    record Summary(long users, long jobs, long jobApplications, Duration elapsed) {}
+
+    private record UserRow(UUID id, String email, String encodedPassword, String fullName, String role) {}
+
+    private record JobRow(UUID id, UUID jobOwnerId, LocalDateTime startTime, LocalDateTime endTime, String activity,
+                          String name, int age, String breed, String size) {}
+
+    private record JobApplicationRow(UUID id, UUID jobId, UUID applicationOwnerId, JobApplicationStatus status) {}
+
+    boolean isDatabaseEmpty() {
+
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class) == 0;
+    }
+
+    /**
+     * Inserts the administrator, pet owner and pet sitter documented in the README, with one job and one application.
+     */
+    void insertDemoAccounts() {
+
+        var aliceTheAdminUuid = UUID.fromString("cc085f34-a338-44bb-aeb0-557ee724d7cd");
+        var owenThePetOwnerUuid = UUID.fromString("a96056bc-c7bc-4d96-a5f5-ed6510293731");
+        var sallyThePetSitterUuid = UUID.fromString("9fb1ceaa-277e-43c3-9cff-af24ef0a8e99");
+        var jobUuid = UUID.fromString("fdafe54b-4614-4660-b29d-f3ef5a28a409");
+
+        var startTime = LocalDate.now().plusWeeks(1).atTime(LocalTime.NOON);
+
+        transactionTemplate.executeWithoutResult(status -> {
+
+            insertUsers(List.of(
+
+                new UserRow(aliceTheAdminUuid, "admin@example.com",
+                    "{bcrypt}$2a$10$16L4qAUqBZKqfVmmkbTtFecqp5nRnw80DYB1vTgoQB8gVu7XUrkEe",
+                    "Alice The Admin", ADMIN.name()),
+
+                new UserRow(owenThePetOwnerUuid, "pet-owner@example.com",
+                    "{bcrypt}$2a$10$NmzKr5PKbBwc6aNwrlq5IOjfoGwvubZ57B9HL2hjDekBLYcTwW0ey",
+                    "Owen The Pet Owner", PET_OWNER.name()),
+
+                new UserRow(sallyThePetSitterUuid, "pet-sitter@example.com",
+                    "{bcrypt}$2a$10$dKanbl3YZUHJOCYvZGTwA.A6VkXszaddPn8ExqEvrWbL/Y8ik6Df.",
+                    "Sally The Pet Sitter", PET_SITTER.name())
+            ));
+
+            if (jobsSharded) {
+                return;
+            }
+
+            insertJobs(List.of(new JobRow(jobUuid, owenThePetOwnerUuid, startTime, startTime.plusHours(3),
+                "Walk, House sit", "Molly", 8, "Irish Setter", "26kg")));
+
+            insertJobApplications(List.of(new JobApplicationRow(
+                UUID.fromString("eee6b21a-bd39-4ab8-b369-a30140eb3ee1"), jobUuid, sallyThePetSitterUuid, PENDING)));
+        });
+    }
+
+    /**
+     * Generates the planned rows, one transaction per batch of pet owners with their jobs and applications. Email
+     * addresses include the seed, so generations with different seeds can be added to the same database.
+     */
+    Summary generate(Plan plan) {
+
+        var start = System.nanoTime();
+
+        var random = new Random(plan.seed());
+
+        var encodedPassword = passwordEncoder.encode(SYNTHETIC_USER_PASSWORD);
+
+        var petSitterIds = new ArrayList<UUID>(plan.petSitters());
+
+        var jobsPerOwner = jobsSharded ? 0 : plan.jobsPerOwner();
+
+        if (jobsSharded) {
+            log.warn("Jobs are sharded, generating users only");
+        }
+
+        for (int from = 0; from < plan.petSitters(); from += batchSize) {
+
+            var petSitters = new ArrayList<UserRow>();
+
+            for (int i = from; i < Math.min(from + batchSize, plan.petSitters()); i++) {
+
+                var petSitter = syntheticUser(random, encodedPassword, PET_SITTER.name(), "pet-sitter", i,
+                    plan.seed());
+
+                petSitters.add(petSitter);
+                petSitterIds.add(petSitter.id());
+            }
+
+            transactionTemplate.executeWithoutResult(status -> insertUsers(petSitters));
+
+            addToEmailFilter(petSitters);
+        }
+
+        long jobCount = 0;
+        long jobApplicationCount = 0;
+
+        for (int from = 0; from < plan.petOwners(); from += batchSize) {
+
+            var petOwners = new ArrayList<UserRow>();
+            var jobs = new ArrayList<JobRow>();
+            var jobApplications = new ArrayList<JobApplicationRow>();
+
+            for (int i = from; i < Math.min(from + batchSize, plan.petOwners()); i++) {
+
+                var petOwner = syntheticUser(random, encodedPassword, PET_OWNER.name(), "pet-owner", i,
+                    plan.seed());
+
+                petOwners.add(petOwner);
+
+                for (int j = 0; j < jobsPerOwner; j++) {
+
+                    var job = syntheticJob(random, petOwner.id());
+
+                    jobs.add(job);
+
+                    jobApplications.addAll(syntheticJobApplications(random, job.id(), petSitterIds,
+                        plan.applicationsPerJob()));
+                }
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+
+                insertUsers(petOwners);
+                insertJobs(jobs);
+                insertJobApplications(jobApplications);
+            });
+
+            addToEmailFilter(petOwners);
+
+            jobCount += jobs.size();
+            jobApplicationCount += jobApplications.size();
+        }
+
+        var summary = new Summary((long) plan.petOwners() + plan.petSitters(), jobCount, jobApplicationCount,
+            Duration.ofNanos(System.nanoTime() - start));
+
+        log.info("Generated {} users, {} jobs and {} job applications in {} ms", summary.users(), summary.jobs(),
+            summary.jobApplications(), summary.elapsed().toMillis());
+
+        return summary;
+    }
+
+    private static UserRow syntheticUser(Random random, String encodedPassword, String role, String emailPrefix,
+                                         int index, long seed) {
+
+        return new UserRow(randomUuid(random), "%s-%d@demo-%x.example.com".formatted(emailPrefix, index, seed),
+            encodedPassword, "Synthetic %s %d".formatted(emailPrefix.replace('-', ' '), index), role);
+    }
+
+    private static JobRow syntheticJob(Random random, UUID jobOwnerId) {
+
+        // daytime starts on the hour or half hour, durations of one hour or more, halving in likelihood per hour
+        var startTime = LocalDate.now()
+            .plusDays(1 + random.nextInt(JOB_DAYS))
+            .atTime(7 + random.nextInt(13), random.nextBoolean() ? 0 : 30);
+
+        var hours = 1;
+
+        while (hours < 12 && random.nextBoolean()) {
+            hours++;
+        }
+
+        return new JobRow(randomUuid(random), jobOwnerId, startTime, startTime.plusHours(hours),
+            pick(random, ACTIVITIES), pick(random, DOG_NAMES), random.nextInt(16), pick(random, BREEDS),
+            pick(random, SIZES));
+    }
+
+    private static List<JobApplicationRow> syntheticJobApplications(Random random, UUID jobId, List<UUID> petSitterIds,
+                                                                    double mean) {
+
+        var count = Math.min(poisson(random, mean), petSitterIds.size());
+
+        var applicantIds = new HashSet<UUID>();
+
+        while (applicantIds.size() < count) {
+            applicantIds.add(petSitterIds.get(random.nextInt(petSitterIds.size())));
+        }
+
+        var jobApplications = new ArrayList<JobApplicationRow>(count);
+
+        var accepted = random.nextInt(10) < 3;
+
+        for (var applicantId : applicantIds) {
+
+            JobApplicationStatus status;
+
+            if (accepted) {
+                status = ACCEPTED;
+                accepted = false;
+            }
+            else {
+                var outcome = random.nextInt(100);
+                status = outcome < 70 ? PENDING : outcome < 85 ? REJECTED : WITHDRAWN;
+            }
+
+            jobApplications.add(new JobApplicationRow(randomUuid(random), jobId, applicantId, status));
+        }
+
+        return jobApplications;
+    }
+
+    private void insertUsers(List<UserRow> users) {
+
+        var now = LocalDateTime.now();
+
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO users (id, email, email_normalized, password, full_name, version,
+                                   created_by, created_date, last_modified_by, last_modified_date)
+                     VALUES (?,?,?,?,?,?,?,?,?,?)""",
+            users, batchSize, (preparedStatement, user) -> {
+
+                preparedStatement.setObject(1, user.id());
+                preparedStatement.setString(2, user.email());
+                preparedStatement.setString(3, Email.normalize(user.email()));
+                preparedStatement.setString(4, user.encodedPassword());
+                preparedStatement.setString(5, user.fullName());
+                preparedStatement.setShort(6, (short) 0);
+                preparedStatement.setObject(7, user.id());
+                preparedStatement.setObject(8, now);
+                preparedStatement.setObject(9, user.id());
+                preparedStatement.setObject(10, now);
+            });
+
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO user_roles (user_id, roles)
+                     VALUES (?,?)""",
+            users, batchSize, (preparedStatement, user) -> {
+
+                preparedStatement.setObject(1, user.id());
+                preparedStatement.setString(2, user.role());
+            });
+    }
+
+    private void addToEmailFilter(List<UserRow> users) {
+
+        userInfrastructureService.addToEmailFilter(users.stream().map(UserRow::email).toList());
+    }
+
+    private void insertJobs(List<JobRow> jobs) {
+
+        var now = LocalDateTime.now();
+
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO jobs (id, job_owner_id, start_time, end_time, activity, name, age, breed, size, version,
+                                  created_by, created_date, last_modified_by, last_modified_date)
+                     VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?)""",
+            jobs, batchSize, (preparedStatement, job) -> {
+
+                preparedStatement.setObject(1, job.id());
+                preparedStatement.setObject(2, job.jobOwnerId());
+                preparedStatement.setObject(3, job.startTime());
+                preparedStatement.setObject(4, job.endTime());
+                preparedStatement.setString(5, job.activity());
+                preparedStatement.setString(6, job.name());
+                preparedStatement.setInt(7, job.age());
+                preparedStatement.setString(8, job.breed());
+                preparedStatement.setString(9, job.size());
+                preparedStatement.setShort(10, (short) 0);
+                preparedStatement.setObject(11, job.jobOwnerId());
+                preparedStatement.setObject(12, now);
+                preparedStatement.setObject(13, job.jobOwnerId());
+                preparedStatement.setObject(14, now);
+            });
+    }
+
+    private void insertJobApplications(List<JobApplicationRow> jobApplications) {
+
+        var now = LocalDateTime.now();
+
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO job_applications (id, application_job_id, application_owner_id, application_status,
+                                              version, created_by, created_date, last_modified_by, last_modified_date)
+                     VALUES (?,?,?,?,?,?,?,?,?)""",
+            jobApplications, batchSize, (preparedStatement, jobApplication) -> {
+
+                preparedStatement.setObject(1, jobApplication.id());
+                preparedStatement.setObject(2, jobApplication.jobId());
+                preparedStatement.setObject(3, jobApplication.applicationOwnerId());
+                preparedStatement.setString(4, jobApplication.status().name());
+                preparedStatement.setShort(5, (short) 0);
+                preparedStatement.setObject(6, jobApplication.applicationOwnerId());
+                preparedStatement.setObject(7, now);
+                preparedStatement.setObject(8, jobApplication.applicationOwnerId());
+                preparedStatement.setObject(9, now);
+            });
+    }
+
+    /**
+     * Knuth's method, adequate for the small means of applications per job.
+     */
+    private static int poisson(Random random, double mean) {
+
+        var limit = Math.exp(-mean);
+        var count = 0;
+        var product = random.nextDouble();
+
+        while (product > limit) {
+            count++;
+            product *= random.nextDouble();
+        }
+
+        return count;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * A version 4 UUID drawn from the seeded random rather than from a secure random.
+     */
+    private static UUID randomUuid(Random random) {
+
+        var mostSigBits = random.nextLong() & ~0xF000L | 0x4000L;
+        var leastSigBits = random.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.petsitter.jobs;
 
 import com.example.petsitter.common.audit.AuditMetaData;
+import com.example.petsitter.common.audit.RecordChanges;
 import com.example.petsitter.users.User;
 import jakarta.persistence.*;
 import jakarta.validation.Valid;
@@ -9,20 +10,25 @@ import lombok.AccessLevel;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@DynamicUpdate
+@RecordChanges
 @EntityListeners(AuditingEntityListener.class)
-@Table(name = "Jobs")
+@Table(name = "Jobs", indexes = {
+    @Index(name = "jobs_job_owner_id_idx", columnList = "job_owner_id")
+})
 @Data
 public class Job {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
-    @Setter(AccessLevel.NONE)
+    @Setter(AccessLevel.PACKAGE)
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -47,8 +53,8 @@ public class Job {
     private Dog dog;
 
     @Version
-    @Getter(AccessLevel.NONE)
-    @Setter(AccessLevel.NONE)
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.PACKAGE)
     private short version;
 
     @Embedded
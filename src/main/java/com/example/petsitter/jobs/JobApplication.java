@@ -1,6 +1,7 @@
 package com.example.petsitter.jobs;
 
 import com.example.petsitter.common.audit.AuditMetaData;
+import com.example.petsitter.common.audit.RecordChanges;
 import com.example.petsitter.users.User;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
@@ -8,19 +9,27 @@ import lombok.AccessLevel;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.util.UUID;
 
 @Entity
+@DynamicUpdate
+@RecordChanges
 @EntityListeners(AuditingEntityListener.class)
-@Table(name = "Job_Applications")
+@Table(name = "Job_Applications", indexes = {
+    @Index(name = "job_applications_job_owner_dto_idx",
+        columnList = "application_job_id, application_owner_id, application_status, id"),
+    @Index(name = "job_applications_owner_job_dto_idx",
+        columnList = "application_owner_id, application_job_id, application_status, id")
+})
 @Data
 public class JobApplication {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
-    @Setter(AccessLevel.NONE)
+    @Setter(AccessLevel.PACKAGE)
     private UUID id;
 
     @Enumerated(EnumType.STRING)
@@ -37,8 +46,8 @@ public class JobApplication {
     private Job applicationJob;
 
     @Version
-    @Getter(AccessLevel.NONE)
-    @Setter(AccessLevel.NONE)
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.PACKAGE)
     private short version;
 
     @Embedded
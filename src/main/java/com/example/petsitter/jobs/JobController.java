@@ -1,9 +1,11 @@
 package com.example.petsitter.jobs;
 
+import com.example.petsitter.common.ItemStream;
 import com.example.petsitter.common.JobApplicationCollectionDto;
 import com.example.petsitter.common.JobCollectionDto;
 import com.example.petsitter.common.exception.*;
 import com.example.petsitter.openapi.ApiProblemResponse;
+import com.example.petsitter.sessions.Session;
 import com.example.petsitter.sessions.SessionService;
 import com.example.petsitter.users.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,22 +18,27 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 
 import static com.example.petsitter.common.CommonConfig.DATE_TIME_FORMATTER;
+import static com.example.petsitter.common.CommonConfig.MEDIA_TYPE_APPLICATION_CBOR;
 import static com.example.petsitter.common.CommonConfig.MEDIA_TYPE_APPLICATION_MERGE_PATCH_JSON;
+import static com.example.petsitter.common.CommonConfig.MEDIA_TYPE_APPLICATION_SMILE;
 import static com.example.petsitter.sessions.Permission.Action.*;
 import static com.example.petsitter.sessions.Permission.Attribute.*;
 import static com.example.petsitter.sessions.Permission.Resource.JOB;
@@ -83,7 +90,8 @@ class JobController {
         return ResponseEntity.created(location).build();
     }
 
-    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE,
+        MEDIA_TYPE_APPLICATION_CBOR, MEDIA_TYPE_APPLICATION_SMILE})
     @Operation(summary = "View all Jobs")
     @ApiResponse(responseCode = "200", description = "All Jobs", content = @Content(
         schema = @Schema(implementation = JobCollectionDto.class), examples = {@ExampleObject(value =
@@ -128,7 +136,9 @@ class JobController {
 
     @GetMapping(path = "/{uuid}", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "View Job")
-    @ApiResponse(responseCode = "200", description = "Job", content = @Content(
+    @ApiResponse(responseCode = "200", description = "Job",
+        headers = { @Header(name = "ETag", description = "Job version", schema = @Schema(type = "string")) },
+        content = @Content(
         schema = @Schema(implementation = JobDto.class), examples = {@ExampleObject(value =
             """
             {
@@ -148,9 +158,11 @@ class JobController {
     @ApiProblemResponse(responseCode = "401", description = "Unauthorized")
     @ApiProblemResponse(responseCode = "403", description = "Forbidden")
     @ApiProblemResponse(responseCode = "404", description = "Job Not Found")
-    JobDto viewJobWithId(@Parameter(description = "Job ID") @PathVariable UUID uuid) {
+    ResponseEntity<JobDto> viewJobWithId(@Parameter(description = "Job ID") @PathVariable UUID uuid) {
 
-        return jobService.viewJobWithId(uuid);
+        var job = jobService.viewVersionedJobWithId(uuid);
+
+        return ResponseEntity.ok().eTag(job.eTag()).body(job.dto());
     }
 
     @PatchMapping(path = "/{uuid}", consumes = MEDIA_TYPE_APPLICATION_MERGE_PATCH_JSON,
@@ -169,7 +181,10 @@ class JobController {
             }
             """)})
     )
-    @ApiResponse(responseCode = "200", description = "Modified Job", content = @Content(
+    @ApiResponse(responseCode = "200", description = "Modified Job",
+        headers = { @Header(name = "ETag", description = "Job version, if modified conditionally",
+            schema = @Schema(type = "string")) },
+        content = @Content(
         schema = @Schema(implementation = JobDto.class), examples = {@ExampleObject(value =
             """
             {
@@ -191,10 +206,22 @@ class JobController {
     @ApiProblemResponse(responseCode = "401", description = "Unauthorized")
     @ApiProblemResponse(responseCode = "403", description = "Forbidden")
     @ApiProblemResponse(responseCode = "404", description = "Job Not Found")
-    JobDto modifyJobWithId(@Parameter(description = "Job ID") @PathVariable UUID uuid,
-                           @Valid @RequestBody JobDto jobDTO) {
+    @ApiProblemResponse(responseCode = "412", description = "Precondition Failed")
+    ResponseEntity<JobDto> modifyJobWithId(
+        @Parameter(description = "Job ID") @PathVariable UUID uuid,
+        @Parameter(description = "ETag of the Job version the patch is based on")
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @Valid @RequestBody JobDto jobDTO) {
 
-        return jobService.modifyJobWithId(uuid, jobDTO);
+        var version = Versioned.versionOf(ifMatch);
+
+        if (version == null) {
+            return ResponseEntity.ok(jobService.modifyJobWithId(uuid, jobDTO));
+        }
+
+        var job = jobService.modifyJobWithId(uuid, version, jobDTO);
+
+        return ResponseEntity.ok().eTag(job.eTag()).body(job.dto());
     }
 
     @DeleteMapping("/{uuid}")
@@ -208,7 +235,8 @@ class JobController {
         jobService.deleteJobWithId(uuid);
     }
 
-    @GetMapping(path = "/{uuid}/job-applications", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(path = "/{uuid}/job-applications", produces = {MediaType.APPLICATION_JSON_VALUE,
+        MEDIA_TYPE_APPLICATION_CBOR, MEDIA_TYPE_APPLICATION_SMILE})
     @Operation(summary = "View Applications for Job")
     @ApiResponse(responseCode = "200", description = "Job Applications for Job", content = @Content(
         schema = @Schema(implementation = JobApplicationCollectionDto.class),  examples = {@ExampleObject(value =
@@ -291,7 +319,10 @@ class JobApplicationController {
             }
             """)})
     )
-    @ApiResponse(responseCode = "200", description = "Modified Job Application", content = @Content(
+    @ApiResponse(responseCode = "200", description = "Modified Job Application",
+        headers = { @Header(name = "ETag", description = "Job Application version",
+            schema = @Schema(type = "string")) },
+        content = @Content(
         schema = @Schema(implementation = JobApplicationDto.class), examples = {@ExampleObject(value =
             """
             {
@@ -305,11 +336,17 @@ class JobApplicationController {
     @ApiProblemResponse(responseCode = "401", description = "Unauthorized")
     @ApiProblemResponse(responseCode = "403", description = "Forbidden")
     @ApiProblemResponse(responseCode = "404", description = "Job Application Not Found")
-    JobApplicationDto modifyJobApplicationWithId(
+    @ApiProblemResponse(responseCode = "412", description = "Precondition Failed")
+    ResponseEntity<JobApplicationDto> modifyJobApplicationWithId(
         @Parameter(description = "Job Application ID") @PathVariable UUID uuid,
+        @Parameter(description = "ETag of the Job Application version the patch is based on")
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @Valid @RequestBody JobApplicationDto jobApplicationDTO) {
 
-        return jobService.modifyJobApplicationWithId(uuid, jobApplicationDTO);
+        var jobApplication =
+            jobService.modifyJobApplicationWithId(uuid, Versioned.versionOf(ifMatch), jobApplicationDTO);
+
+        return ResponseEntity.ok().eTag(jobApplication.eTag()).body(jobApplication.dto());
     }
 }
 
@@ -317,19 +354,38 @@ interface JobServiceInternal {
 
     UUID createJob(JobDto jobDTO);
 
-    Set<JobDto> viewAllJobs();
+    ItemStream<JobDto> viewAllJobs();
 
     JobDto viewJobWithId(UUID id);
 
+    Versioned<JobDto> viewVersionedJobWithId(UUID id);
+
     JobDto modifyJobWithId(UUID id, JobDto jobDTO);
 
+    /**
+     * Sets only the fields the merge patch sets, without loading the job, provided it is still at the given version.
+     *
+     * @throws PreconditionFailedException if the job is at another version
+     */
+    Versioned<JobDto> modifyJobWithId(UUID id, short version, JobDto jobDTO);
+
     void deleteJobWithId(UUID id);
 
-    Set<JobApplicationDto> viewApplicationsForJob(UUID id);
+    ItemStream<JobApplicationDto> viewApplicationsForJob(UUID id);
 
     UUID createJobApplication(UUID id, JobApplicationDto jobApplicationDTO);
 
-    JobApplicationDto modifyJobApplicationWithId(UUID id, JobApplicationDto jobApplicationDTO);
+    default JobApplicationDto modifyJobApplicationWithId(UUID id, JobApplicationDto jobApplicationDTO) {
+
+        return modifyJobApplicationWithId(id, null, jobApplicationDTO).dto();
+    }
+
+    /**
+     * @param version the version the job application must still be at, null to modify whatever its version
+     * @throws PreconditionFailedException if the job application is at another version
+     */
+    Versioned<JobApplicationDto> modifyJobApplicationWithId(UUID id, @Nullable Short version,
+                                                            JobApplicationDto jobApplicationDTO);
 }
 
 @Service
@@ -337,6 +393,10 @@ interface JobServiceInternal {
 @Transactional(readOnly = true)
 class JobServiceInternalImpl implements JobServiceInternal {
 
+    private static final String VERSION_MISMATCH_MSG = "%s %s is at version %d, not at version %d";
+
+    private static final String CONCURRENT_MODIFICATION_MSG = "%s %s was modified or deleted concurrently";
+
     private final UserService userService;
     private final SessionService sessionService;
 
@@ -413,7 +473,7 @@ class JobServiceInternalImpl implements JobServiceInternal {
     }
 
     @Override
-    public Set<JobDto> viewAllJobs() {
+    public ItemStream<JobDto> viewAllJobs() {
 
         var currentSession = sessionService.getCurrentSession()
             .orElseThrow(() -> new UnauthorizedException(UnauthorizedException.VIEW_MSG, "all Jobs"));
@@ -430,19 +490,26 @@ class JobServiceInternalImpl implements JobServiceInternal {
     @Override
     public JobDto viewJobWithId(UUID jobId) {
 
+        return viewVersionedJobWithId(jobId).dto();
+    }
+
+    @Override
+    public Versioned<JobDto> viewVersionedJobWithId(UUID jobId) {
+
         var currentSession = sessionService.getCurrentSession()
             .orElseThrow(() -> new UnauthorizedException(UnauthorizedException.VIEW_MSG, "Job %s".formatted(jobId)));
 
-        var jobDto = jobRepository.findDtoById(jobId)
+        var job = jobRepository.findVersionedDtoById(jobId)
             .orElseThrow(() -> new NotFoundException("Job %s".formatted(jobId)));
 
-        var permission = currentSession.getPermission(VIEW, JOB, Map.of(JOB_OWNER_ID_ATT, jobDto.getCreatorUserId()));
+        var permission = currentSession.getPermission(VIEW, JOB,
+            Map.of(JOB_OWNER_ID_ATT, job.dto().getCreatorUserId()));
 
         if (permission.isDenied()) {
             throw new ForbiddenException(ForbiddenException.VIEW_MSG, "Job %s".formatted(jobId));
         }
 
-        return jobDto;
+        return job;
     }
 
     @Override
@@ -455,12 +522,45 @@ class JobServiceInternalImpl implements JobServiceInternal {
         var job = jobRepository.findWithJobOwnerById(jobId)
             .orElseThrow(() -> new NotFoundException("Job %s".formatted(jobId)));
 
-        var jobOwnerId = job.getJobOwner().getId();
+        checkJobModification(currentSession, jobId, job.getJobOwner().getId(), job.getStartTime(), job.getEndTime(),
+            jobDto);
+
+        return jobRepository.updateJobFromDto(job, jobDto);
+    }
+
+    @Override
+    @Transactional
+    public Versioned<JobDto> modifyJobWithId(UUID jobId, short version, JobDto jobDto) {
+
+        var currentSession = sessionService.getCurrentSession()
+            .orElseThrow(() -> new UnauthorizedException(UnauthorizedException.MODIFY_MSG, "Job %s".formatted(jobId)));
+
+        var job = jobRepository.findVersionedDtoById(jobId)
+            .orElseThrow(() -> new NotFoundException("Job %s".formatted(jobId)));
+
+        var currentJobDto = job.dto();
+
+        checkJobModification(currentSession, jobId, currentJobDto.getCreatorUserId(), currentJobDto.getStartTime(),
+            currentJobDto.getEndTime(), jobDto);
+
+        if (job.version() != version) {
+            throw new PreconditionFailedException(VERSION_MISMATCH_MSG.formatted("Job", jobId, job.version(), version));
+        }
+
+        return jobRepository.updateJobIfVersion(job, jobDto)
+            .orElseThrow(() -> new PreconditionFailedException(CONCURRENT_MODIFICATION_MSG.formatted("Job", jobId)));
+    }
+
+    /**
+     * Checks the permission to modify the job and the fields the merge patch sets against its current state.
+     */
+    private void checkJobModification(Session currentSession, UUID jobId, UUID jobOwnerId, LocalDateTime jobStartTime,
+                                      LocalDateTime jobEndTime, JobDto jobDto) {
 
         var permission = currentSession.getPermission(MODIFY, JOB,
 
             Map.of(
-                JOB_ID_ATT, job.getId(),
+                JOB_ID_ATT, jobId,
                 JOB_OWNER_ID_ATT, jobOwnerId,
                 JOB_DTO_ATT, jobDto)
         );
@@ -482,8 +582,6 @@ class JobServiceInternalImpl implements JobServiceInternal {
                 "start time %s must be before end time %s".formatted(jobDtoStartTime, jobDtoEndTime));
         }
 
-        var jobEndTime = job.getEndTime();
-
         if (jobDtoStartTime != null && jobDtoEndTime == null && !jobDtoStartTime.isBefore(jobEndTime)) {
 
             throw new InvalidArgumentException("job", "start_time",
@@ -491,8 +589,6 @@ class JobServiceInternalImpl implements JobServiceInternal {
                     jobDtoStartTime.format(DATE_TIME_FORMATTER), jobEndTime.format(DATE_TIME_FORMATTER)));
         }
 
-        var jobStartTime = job.getStartTime();
-
         if (jobDtoStartTime == null && jobDtoEndTime != null && !jobStartTime.isBefore(jobDtoEndTime)) {
 
             throw new InvalidArgumentException("job", "end_time",
@@ -508,8 +604,6 @@ class JobServiceInternalImpl implements JobServiceInternal {
 
             throw new NotFoundException("Pet Owner with ID %s".formatted(jobDtoCreatorUserId));
         }
-
-        return jobRepository.updateJobFromDto(job, jobDto);
     }
 
     @Override
@@ -532,7 +626,7 @@ class JobServiceInternalImpl implements JobServiceInternal {
     }
 
     @Override
-    public Set<JobApplicationDto> viewApplicationsForJob(UUID jobId) {
+    public ItemStream<JobApplicationDto> viewApplicationsForJob(UUID jobId) {
 
         var currentSession = sessionService.getCurrentSession()
             .orElseThrow(() -> new UnauthorizedException(UnauthorizedException.VIEW_MSG,
@@ -621,7 +715,8 @@ class JobServiceInternalImpl implements JobServiceInternal {
 
     @Override
     @Transactional
-    public JobApplicationDto modifyJobApplicationWithId(UUID jobApplicationId, JobApplicationDto jobApplicationDto) {
+    public Versioned<JobApplicationDto> modifyJobApplicationWithId(UUID jobApplicationId, @Nullable Short version,
+                                                                   JobApplicationDto jobApplicationDto) {
 
         var currentSession = sessionService.getCurrentSession()
             .orElseThrow(() -> new UnauthorizedException(UnauthorizedException.MODIFY_MSG,
@@ -665,6 +760,29 @@ class JobServiceInternalImpl implements JobServiceInternal {
             throw new NotFoundException("Job %s".formatted(jobApplicationDtoJobId));
         }
 
-        return jobRepository.updateJobApplicationFromDto(jobApplication, jobApplicationDto);
+        if (version != null && jobApplication.getVersion() != version) {
+
+            throw new PreconditionFailedException(VERSION_MISMATCH_MSG.formatted("Job Application", jobApplicationId,
+                jobApplication.getVersion(), version));
+        }
+
+        JobApplicationDto modifiedJobApplicationDto;
+
+        // flushes to learn the new version, and to find a concurrent modification here rather than on commit
+        try {
+            modifiedJobApplicationDto = jobRepository.updateJobApplicationFromDto(jobApplication, jobApplicationDto);
+
+            jobRepository.flush();
+        } catch (OptimisticLockingFailureException e) {
+
+            if (version == null) {
+                throw e;
+            }
+
+            throw new PreconditionFailedException(
+                CONCURRENT_MODIFICATION_MSG.formatted("Job Application", jobApplicationId));
+        }
+
+        return new Versioned<>(modifiedJobApplicationDto, jobApplication.getVersion());
     }
 }
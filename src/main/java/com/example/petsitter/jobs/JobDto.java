@@ -38,6 +38,31 @@ public class JobDto {
     @Valid
     DogDto dog;
 
+    /**
+     * @return this job with the fields the merge patch sets replaced, as they replace the fields of the entity
+     */
+    JobDto patchedWith(JobDto patchDto) {
+
+        var patchDogDto = patchDto.getDog();
+
+        return toBuilder()
+            .creatorUserId(patched(patchDto.getCreatorUserId(), creatorUserId))
+            .startTime(patched(patchDto.getStartTime(), startTime))
+            .endTime(patched(patchDto.getEndTime(), endTime))
+            .activity(patched(patchDto.getActivity(), activity))
+            .dog(patchDogDto == null ? dog : DogDto.builder()
+                .name(patched(patchDogDto.getName(), dog.getName()))
+                .age(patched(patchDogDto.getAge(), dog.getAge()))
+                .breed(patched(patchDogDto.getBreed(), dog.getBreed()))
+                .size(patched(patchDogDto.getSize(), dog.getSize()))
+                .build())
+            .build();
+    }
+
+    private static <T> T patched(T patchValue, T value) {
+        return patchValue != null ? patchValue : value;
+    }
+
     @Value
     @Builder
     @Schema(name = "Dog")
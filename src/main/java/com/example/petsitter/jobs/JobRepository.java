@@ -1,38 +1,121 @@
 package com.example.petsitter.jobs;
 
+import com.example.petsitter.common.ItemStream;
+import com.example.petsitter.common.ItemStreams;
+import com.example.petsitter.common.audit.ChangeHistory;
 import com.example.petsitter.users.User;
 import com.example.petsitter.users.UserInfrastructureService;
+import jakarta.persistence.QueryHint;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
 import org.mapstruct.*;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.RepositoryDefinition;
 import org.springframework.data.repository.query.Param;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Stores jobs and their applications, either in the application database or, with petsitter.jobs.sharding.enabled,
+ * across the job shards. Collections are ordered by id and read when iterated, one row at a time.
+ */
+interface JobRepository {
+
+    boolean applicationExistsByJobIdAndOwnerId(UUID jobId, UUID ownerId);
+
+    void deleteAllJobsAndApplicationsByOwnerId(UUID ownerId);
+
+    void deleteById(UUID jobId);
+
+    boolean existsById(UUID jobId);
+
+    ItemStream<JobApplicationDto> findAllApplicationsDtoByApplicationOwnerId(UUID applicationOwnerId);
+
+    ItemStream<JobApplicationDto> findAllApplicationsDtoByJobId(UUID jobId);
+
+    ItemStream<JobDto> findAllDto();
+
+    ItemStream<JobDto> findAllDtoByJobOwnerId(UUID jobOwnerId);
+
+    Optional<JobApplication> findApplicationWithOwnerAndJobById(UUID applicationId);
+
+    Optional<JobDto> findDtoById(UUID jobId);
+
+    Optional<UUID> findJobOwnerIdById(UUID jobId);
+
+    Optional<Versioned<JobDto>> findVersionedDtoById(UUID jobId);
+
+    Optional<Job> findWithJobOwnerById(UUID jobId);
+
+    /**
+     * Writes the pending changes of loaded jobs and job applications, which increments their versions.
+     */
+    void flush();
+
+    JobDto save(UUID jobOwnerId, JobDto jobDto);
+
+    JobApplicationDto saveJobApplication(UUID jobApplicationOwnerId, UUID jobId, JobApplicationDto jobApplicationDto);
+
+    JobApplicationDto updateJobApplicationFromDto(JobApplication jobApplication, JobApplicationDto jobApplicationDto);
+
+    JobDto updateJobFromDto(Job job, JobDto jobDto);
+
+    /**
+     * Sets only the columns of the fields the merge patch sets, provided the job is still at the version it was read.
+     *
+     * @return the patched job at its new version, empty if the job was modified or deleted since it was read
+     */
+    Optional<Versioned<JobDto>> updateJobIfVersion(Versioned<JobDto> job, JobDto jobDto);
+}
 
 @Repository
+@ConditionalOnProperty(name = "petsitter.jobs.sharding.enabled", havingValue = "false", matchIfMissing = true)
 @RequiredArgsConstructor
-class JobRepository {
+class SingleDatabaseJobRepository implements JobRepository {
 
     private final JpaJobRepository jpaJobRepository;
     private final JpaJobApplicationRepository jpaJobApplicationRepository;
 
     private final UserInfrastructureService userInfrastructureService;
 
+    private final ItemStreams itemStreams;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final AuditorAware<UUID> auditorAware;
+
+    private final Validator validator;
+
+    private final ChangeHistory changeHistory;
+
     private final JobMapper jobMapper;
     private final JobApplicationMapper jobApplicationMapper;
 
-    boolean applicationExistsByJobIdAndOwnerId(UUID jobId, UUID ownerId) {
+    @Override
+    public boolean applicationExistsByJobIdAndOwnerId(UUID jobId, UUID ownerId) {
 
         return jpaJobApplicationRepository.existsByApplicationJobIdAndApplicationOwnerId(jobId, ownerId);
     }
 
-    void deleteAllJobsAndApplicationsByOwnerId(UUID ownerId) {
+    @Override
+    public void deleteAllJobsAndApplicationsByOwnerId(UUID ownerId) {
 
         jpaJobApplicationRepository.deleteByApplicationOwnerId(ownerId);
 
@@ -41,65 +124,113 @@ class JobRepository {
         jpaJobRepository.deleteByJobOwnerId(ownerId);
     }
 
-    void deleteById(UUID jobId) {
+    @Override
+    public void deleteById(UUID jobId) {
 
         jpaJobApplicationRepository.deleteByApplicationJobId(jobId);
 
         jpaJobRepository.deleteById(jobId);
     }
 
-    boolean existsById(UUID jobId) {
+    @Override
+    public boolean existsById(UUID jobId) {
 
         return jpaJobRepository.existsById(jobId);
     }
 
-    Set<JobApplicationDto> findAllApplicationsDtoByApplicationOwnerId(UUID applicationOwnerId) {
+    @Override
+    public ItemStream<JobApplicationDto> findAllApplicationsDtoByApplicationOwnerId(UUID applicationOwnerId) {
 
-        return jpaJobApplicationRepository.findAllApplicationsDtoByApplicationOwnerId(applicationOwnerId);
+        return itemStreams.of(() ->
+            jpaJobApplicationRepository.streamAllApplicationsDtoByApplicationOwnerId(applicationOwnerId));
     }
 
-    Set<JobApplicationDto> findAllApplicationsDtoByJobId(UUID jobId) {
+    @Override
+    public ItemStream<JobApplicationDto> findAllApplicationsDtoByJobId(UUID jobId) {
 
-        return jpaJobApplicationRepository.findAllApplicationsDtoByJobId(jobId);
+        return itemStreams.of(() -> jpaJobApplicationRepository.streamAllApplicationsDtoByJobId(jobId));
     }
 
-    Set<JobDto> findAllDto() {
+    @Override
+    public ItemStream<JobDto> findAllDto() {
 
-        return jpaJobRepository.findAllDto();
+        return itemStreams.of(jpaJobRepository::streamAllDto);
     }
 
-    Set<JobDto> findAllDtoByJobOwnerId(UUID jobOwnerId) {
+    @Override
+    public ItemStream<JobDto> findAllDtoByJobOwnerId(UUID jobOwnerId) {
 
-        return jpaJobRepository.findAllDtoByJobOwnerId(jobOwnerId);
+        return itemStreams.of(() -> jpaJobRepository.streamAllDtoByJobOwnerId(jobOwnerId));
     }
 
-    Optional<JobApplication> findApplicationWithOwnerAndJobById(UUID applicationId) {
+    @Override
+    public Optional<JobApplication> findApplicationWithOwnerAndJobById(UUID applicationId) {
 
         return jpaJobApplicationRepository.findApplicationWithOwnerAndJobById(applicationId);
     }
 
-    Optional<JobDto> findDtoById(UUID jobId) {
+    @Override
+    public Optional<JobDto> findDtoById(UUID jobId) {
 
         return jpaJobRepository.findDtoById(jobId);
     }
 
-    Optional<UUID> findJobOwnerIdById(UUID jobId) {
+    @Override
+    public Optional<UUID> findJobOwnerIdById(UUID jobId) {
 
         return jpaJobRepository.findJobOwnerIdById(jobId);
     }
 
-    Optional<Job> findWithJobOwnerById(UUID jobId) {
+    /**
+     * Reads the version, which no query of the entity exposes, with JDBC. Pending changes are flushed first, as a query
+     * of the entity would flush them.
+     */
+    @Override
+    public Optional<Versioned<JobDto>> findVersionedDtoById(UUID jobId) {
+
+        jpaJobRepository.flush();
+
+        return jdbcTemplate.query("""
+            SELECT id, job_owner_id, start_time, end_time, activity, name, age, breed, size, version
+              FROM jobs
+             WHERE id = ?
+            """, (resultSet, rowNum) -> new Versioned<>(JobDto.builder()
+                .id(resultSet.getObject("id", UUID.class))
+                .creatorUserId(resultSet.getObject("job_owner_id", UUID.class))
+                .startTime(resultSet.getObject("start_time", LocalDateTime.class))
+                .endTime(resultSet.getObject("end_time", LocalDateTime.class))
+                .activity(resultSet.getString("activity"))
+                .dog(JobDto.DogDto.builder()
+                    .name(resultSet.getString("name"))
+                    .age(resultSet.getInt("age"))
+                    .breed(resultSet.getString("breed"))
+                    .size(resultSet.getString("size"))
+                    .build())
+                .build(), resultSet.getShort("version")), jobId).stream().findFirst();
+    }
+
+    @Override
+    public Optional<Job> findWithJobOwnerById(UUID jobId) {
 
         return jpaJobRepository.findWithJobOwnerById(jobId);
     }
 
-    JobDto save(UUID jobOwnerId, JobDto jobDto) {
+    @Override
+    public void flush() {
+
+        jpaJobRepository.flush();
+    }
+
+    @Override
+    public JobDto save(UUID jobOwnerId, JobDto jobDto) {
 
         return jobMapper.toJobDto(jpaJobRepository.save(jobMapper.toJob(jobDto,
             userInfrastructureService.getReferenceById(jobOwnerId))));
     }
 
-    JobApplicationDto saveJobApplication(UUID jobApplicationOwnerId, UUID jobId, JobApplicationDto jobApplicationDto) {
+    @Override
+    public JobApplicationDto saveJobApplication(UUID jobApplicationOwnerId, UUID jobId,
+                                                JobApplicationDto jobApplicationDto) {
 
         var jobApplication = jobApplicationMapper.toJobApplication(jobApplicationDto,
             userInfrastructureService.getReferenceById(jobApplicationOwnerId),
@@ -108,7 +239,9 @@ class JobRepository {
         return jobApplicationMapper.toJobApplicationDto(jpaJobApplicationRepository.save(jobApplication));
     }
 
-    JobApplicationDto updateJobApplicationFromDto(JobApplication jobApplication, JobApplicationDto jobApplicationDto) {
+    @Override
+    public JobApplicationDto updateJobApplicationFromDto(JobApplication jobApplication,
+                                                         JobApplicationDto jobApplicationDto) {
 
         var userId = jobApplicationDto.getUserId();
 
@@ -124,7 +257,8 @@ class JobRepository {
             .updateJobApplicationFromDto(jobApplication, jobApplicationDto, applicationOwner, applicationJob));
     }
 
-    JobDto updateJobFromDto(Job job, JobDto jobDto) {
+    @Override
+    public JobDto updateJobFromDto(Job job, JobDto jobDto) {
 
         var creatorUserId = jobDto.getCreatorUserId();
 
@@ -133,14 +267,54 @@ class JobRepository {
 
         return jobMapper.toJobDto(jobMapper.updateJobFromDto(job, jobDto, jobOwner));
     }
+
+    /**
+     * Records the change history itself, since the UPDATE bypasses Hibernate.
+     */
+    @Override
+    public Optional<Versioned<JobDto>> updateJobIfVersion(Versioned<JobDto> job, JobDto jobDto) {
+
+        var patchedJobDto = job.dto().patchedWith(jobDto);
+
+        var constraintViolations = validator.validate(jobMapper.toJob(patchedJobDto, null));
+
+        if (!constraintViolations.isEmpty()) {
+            throw new ConstraintViolationException(constraintViolations);
+        }
+
+        var jobId = job.dto().getId();
+        var modifiedBy = auditorAware.getCurrentAuditor().orElse(null);
+        var modifiedDate = LocalDateTime.now();
+
+        var update = JobColumnUpdate.of(jobId, job.version(), jobDto, modifiedBy, modifiedDate);
+
+        if (jdbcTemplate.update(update.sql(), update.arguments()) == 0) {
+            return Optional.empty();
+        }
+
+        changeHistory.recordAfterCommit(Job.class, jobId, ChangeHistoryValues.of(job.dto()),
+            ChangeHistoryValues.of(patchedJobDto), modifiedBy, modifiedDate);
+
+        return Optional.of(new Versioned<>(patchedJobDto, (short) (job.version() + 1)));
+    }
 }
 
 @RepositoryDefinition(domainClass = Job.class, idClass = UUID.class)
 interface JpaJobRepository {
 
+    /**
+     * Rows the driver fetches per round trip while a collection is streamed.
+     */
+    String STREAM_FETCH_SIZE = "100";
+
     void deleteById(UUID id);
 
-    void deleteByJobOwnerId(UUID ownerId);
+    @Modifying
+    @Query("""
+        DELETE FROM Job j
+         WHERE j.jobOwner.id = :ownerId
+        """)
+    void deleteByJobOwnerId(@Param("ownerId") UUID ownerId);
 
     boolean existsById(UUID id);
 
@@ -157,8 +331,10 @@ interface JpaJobRepository {
                    j.dog.breed AS breed,
                    j.dog.size AS size) AS dog)
           FROM Job j
+         ORDER BY j.id
         """)
-    Set<JobDto> findAllDto();
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<JobDto> streamAllDto();
 
     @Query("""
         SELECT new com.example.petsitter.jobs.JobDto(
@@ -174,8 +350,10 @@ interface JpaJobRepository {
                    j.dog.size AS size) AS dog)
           FROM Job j
          WHERE j.jobOwner.id = :ownerId
+         ORDER BY j.id
         """)
-    Set<JobDto> findAllDtoByJobOwnerId(@Param("ownerId") UUID id);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<JobDto> streamAllDtoByJobOwnerId(@Param("ownerId") UUID id);
 
     @Query("""
         SELECT new com.example.petsitter.jobs.JobDto(
@@ -204,6 +382,8 @@ interface JpaJobRepository {
     @EntityGraph(type = EntityGraph.EntityGraphType.LOAD, attributePaths = {"jobOwner"})
     Optional<Job> findWithJobOwnerById(UUID id);
 
+    void flush();
+
     Job getReferenceById(UUID id);
 
     Job save(Job job);
@@ -215,16 +395,25 @@ interface JpaJobApplicationRepository {
     @Modifying
     @Query("""
         DELETE FROM JobApplication ja
-         WHERE EXISTS (SELECT 1
-                         FROM Job j
-                        WHERE j.jobOwner.id = :jobOwnerId
-                          AND j.id = ja.applicationJob.id)
+         WHERE ja.applicationJob.id IN (SELECT j.id
+                                          FROM Job j
+                                         WHERE j.jobOwner.id = :jobOwnerId)
         """)
     void deleteAllApplicationsForJobsByJobOwnerId(@Param("jobOwnerId") UUID jobOwnerId);
 
-    void deleteByApplicationJobId(UUID jobId);
+    @Modifying
+    @Query("""
+        DELETE FROM JobApplication ja
+         WHERE ja.applicationJob.id = :jobId
+        """)
+    void deleteByApplicationJobId(@Param("jobId") UUID jobId);
 
-    void deleteByApplicationOwnerId(UUID applicationOwnerId);
+    @Modifying
+    @Query("""
+        DELETE FROM JobApplication ja
+         WHERE ja.applicationOwner.id = :applicationOwnerId
+        """)
+    void deleteByApplicationOwnerId(@Param("applicationOwnerId") UUID applicationOwnerId);
 
     boolean existsByApplicationJobIdAndApplicationOwnerId(UUID jobId, UUID ownerId);
 
@@ -236,8 +425,10 @@ interface JpaJobApplicationRepository {
                    ja.applicationJob.id AS jobId)
               FROM JobApplication ja
              WHERE ja.applicationOwner.id = :ownerId
+             ORDER BY ja.id
         """)
-    Set<JobApplicationDto> findAllApplicationsDtoByApplicationOwnerId(@Param("ownerId") UUID id);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = JpaJobRepository.STREAM_FETCH_SIZE))
+    Stream<JobApplicationDto> streamAllApplicationsDtoByApplicationOwnerId(@Param("ownerId") UUID id);
 
     @Query("""
             SELECT new com.example.petsitter.jobs.JobApplicationDto(
@@ -247,8 +438,10 @@ interface JpaJobApplicationRepository {
                    ja.applicationJob.id AS jobId)
               FROM JobApplication ja
              WHERE ja.applicationJob.id = :jobId
+             ORDER BY ja.id
             """)
-    Set<JobApplicationDto> findAllApplicationsDtoByJobId(@Param("jobId") UUID id);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = JpaJobRepository.STREAM_FETCH_SIZE))
+    Stream<JobApplicationDto> streamAllApplicationsDtoByJobId(@Param("jobId") UUID id);
 
     @EntityGraph(type = EntityGraph.EntityGraphType.LOAD, attributePaths = {"applicationOwner", "applicationJob"})
     Optional<JobApplication> findApplicationWithOwnerAndJobById(UUID id);
@@ -270,6 +463,87 @@ interface JobMapper {
     Job updateJobFromDto(@MappingTarget Job job, JobDto jobDto, User jobOwner);
 }
 
+/**
+ * The field values of jobs and job applications updated without Hibernate, named as the change history names the
+ * {@link Job} and {@link JobApplication} properties.
+ */
+final class ChangeHistoryValues {
+
+    private ChangeHistoryValues() {
+    }
+
+    static Map<String, Object> of(JobDto jobDto) {
+
+        var values = new HashMap<String, Object>();
+
+        values.put("jobOwner", jobDto.getCreatorUserId());
+        values.put("startTime", jobDto.getStartTime());
+        values.put("endTime", jobDto.getEndTime());
+        values.put("activity", jobDto.getActivity());
+        values.put("dog.name", jobDto.getDog().getName());
+        values.put("dog.age", jobDto.getDog().getAge());
+        values.put("dog.breed", jobDto.getDog().getBreed());
+        values.put("dog.size", jobDto.getDog().getSize());
+
+        return values;
+    }
+
+    static Map<String, Object> of(JobApplication jobApplication) {
+
+        var values = new HashMap<String, Object>();
+
+        values.put("applicationStatus", jobApplication.getApplicationStatus());
+        values.put("applicationOwner", jobApplication.getApplicationOwner().getId());
+        values.put("applicationJob", jobApplication.getApplicationJob().getId());
+
+        return values;
+    }
+}
+
+/**
+ * An UPDATE of the jobs columns a merge patch sets, together with the version and the audit columns, that only
+ * matches the job at the version the patch was based on. Columns of fields the patch leaves out are not written.
+ */
+record JobColumnUpdate(String sql, Object[] arguments) {
+
+    static JobColumnUpdate of(UUID jobId, short version, JobDto jobDto, @Nullable UUID modifiedBy,
+                              LocalDateTime modifiedDate) {
+
+        var sql = new StringBuilder("UPDATE jobs SET ");
+        var arguments = new ArrayList<>();
+
+        BiConsumer<String, Object> set = (column, value) -> {
+            if (value != null) {
+                sql.append(column).append(" = ?, ");
+                arguments.add(value);
+            }
+        };
+
+        set.accept("job_owner_id", jobDto.getCreatorUserId());
+        set.accept("start_time", jobDto.getStartTime());
+        set.accept("end_time", jobDto.getEndTime());
+        set.accept("activity", jobDto.getActivity());
+
+        var dogDto = jobDto.getDog();
+
+        if (dogDto != null) {
+            set.accept("name", dogDto.getName());
+            set.accept("age", dogDto.getAge());
+            set.accept("breed", dogDto.getBreed());
+            set.accept("size", dogDto.getSize());
+        }
+
+        sql.append("version = version + 1, last_modified_by = ?, last_modified_date = ? WHERE id = ? AND version = ?");
+
+        arguments.add(modifiedBy);
+        arguments.add(modifiedDate);
+        arguments.add(jobId);
+        arguments.add(version);
+
+        return new JobColumnUpdate(sql.toString(), arguments.toArray());
+    }
+}
+
 @Mapper
 interface JobApplicationMapper {
 
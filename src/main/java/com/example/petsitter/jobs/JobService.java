@@ -1,13 +1,14 @@
 package com.example.petsitter.jobs;
 
-import java.util.Set;
+import com.example.petsitter.common.ItemStream;
+
 import java.util.UUID;
 
 public interface JobService {
 
     void deleteAllJobsAndApplicationsByOwnerId(UUID id);
 
-    Set<JobApplicationDto> findAllApplicationsDtoByApplicationOwnerId(UUID id);
+    ItemStream<JobApplicationDto> findAllApplicationsDtoByApplicationOwnerId(UUID id);
 
-    Set<JobDto> findAllDtoByJobOwnerId(UUID id);
+    ItemStream<JobDto> findAllDtoByJobOwnerId(UUID id);
 }
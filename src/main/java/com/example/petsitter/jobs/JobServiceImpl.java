@@ -1,10 +1,10 @@
 package com.example.petsitter.jobs;
 
+import com.example.petsitter.common.ItemStream;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -22,13 +22,13 @@ public class JobServiceImpl implements JobService {
     }
 
     @Override
-    public Set<JobApplicationDto> findAllApplicationsDtoByApplicationOwnerId(UUID id) {
+    public ItemStream<JobApplicationDto> findAllApplicationsDtoByApplicationOwnerId(UUID id) {
 
         return jobRepository.findAllApplicationsDtoByApplicationOwnerId(id);
     }
 
     @Override
-    public Set<JobDto> findAllDtoByJobOwnerId(UUID id) {
+    public ItemStream<JobDto> findAllDtoByJobOwnerId(UUID id) {
 
         return jobRepository.findAllDtoByJobOwnerId(id);
     }
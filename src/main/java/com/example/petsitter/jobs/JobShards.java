@@ -0,0 +1,324 @@
+package com.example.petsitter.jobs;
+
+import com.example.petsitter.common.ItemStream;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * The databases jobs and their applications are spread across. A new job goes to the shard picked by a hash of its
+ * owner's id and its applications go to the shard of the job. Job and application ids carry the index of their shard
+ * in their top 16 bits, so a lookup by id reads a single shard, as does a lookup of jobs by owner; any other query
+ * asks every shard. As the shard index leads the id, reading the shards in order and each one by id yields rows
+ * ordered by id across all shards.
+ */
+class JobShards implements AutoCloseable {
+
+    static final int MAX_SHARDS = 1 << 16;
+
+    static final int PREFETCHED_ROWS_PER_SHARD = 256;
+
+    private static final Object END_OF_ROWS = new Object();
+
+    private static final int SHARD_INDEX_SHIFT = 48;
+    private static final long RANDOM_BITS_MASK = -1L >>> (Long.SIZE - SHARD_INDEX_SHIFT);
+
+    private final List<Shard> shards;
+
+    private final ExecutorService executor;
+
+    /**
+     * @param threads threads for queries that ask every shard; more than the shards' connections combined only wait
+     */
+    JobShards(List<DataSource> dataSources, int threads) {
+
+        if (dataSources.isEmpty() || dataSources.size() > MAX_SHARDS) {
+
+            throw new IllegalArgumentException("Number of job shards must be between 1 and %d, was %d"
+                .formatted(MAX_SHARDS, dataSources.size()));
+        }
+
+        var shardList = new ArrayList<Shard>(dataSources.size());
+
+        for (int i = 0; i < dataSources.size(); i++) {
+            shardList.add(new Shard(i, dataSources.get(i)));
+        }
+
+        this.shards = List.copyOf(shardList);
+
+        var threadNumber = new AtomicInteger();
+
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+
+            var thread = new Thread(runnable, "job-shard-query-" + threadNumber.incrementAndGet());
+
+            thread.setDaemon(true);
+
+            return thread;
+        });
+    }
+
+    int size() {
+        return shards.size();
+    }
+
+    Shard get(int index) {
+        return shards.get(index);
+    }
+
+    /**
+     * @return the shard new jobs of the owner are placed on
+     */
+    Shard shardOfOwner(UUID ownerId) {
+        return shards.get(Math.floorMod(ownerId.hashCode(), shards.size()));
+    }
+
+    /**
+     * @return the shard encoded in a job or application id, empty for ids no shard can have issued
+     */
+    Optional<Shard> shardOfId(UUID id) {
+
+        var index = (int) (id.getMostSignificantBits() >>> SHARD_INDEX_SHIFT);
+
+        return index < shards.size() ? Optional.of(shards.get(index)) : Optional.empty();
+    }
+
+    /**
+     * Runs the read-only query on every shard in parallel when iterated, and passes the rows on shard by shard as they
+     * arrive rather than gathering them first. Each shard reads ahead into a queue of its own, so at most
+     * {@link #PREFETCHED_ROWS_PER_SHARD} rows per shard wait for the shards before it to be passed on.
+     */
+    @SuppressWarnings("unchecked")
+    <T> ItemStream<T> streamAll(Function<JdbcTemplate, Stream<T>> query) {
+
+        if (shards.size() == 1) {
+            return action -> shards.get(0).stream(query, action);
+        }
+
+        return action -> {
+
+            var queues = new ArrayList<BlockingQueue<Object>>(shards.size());
+            var futures = new ArrayList<Future<?>>(shards.size());
+
+            try {
+
+                for (var shard : shards) {
+
+                    var queue = new ArrayBlockingQueue<>(PREFETCHED_ROWS_PER_SHARD);
+
+                    queues.add(queue);
+                    futures.add(executor.submit(() -> readAhead(shard, query, queue)));
+                }
+
+                for (var queue : queues) {
+
+                    for (var row = take(queue); row != END_OF_ROWS; row = take(queue)) {
+
+                        if (row instanceof FailedRead failedRead) {
+                            throw failedRead.exception();
+                        }
+
+                        action.accept((T) row);
+                    }
+                }
+            }
+            finally {
+                // stops shards still reading ahead once the caller stopped, e.g. on a failed action
+                futures.forEach(future -> future.cancel(true));
+            }
+        };
+    }
+
+    /**
+     * Runs the write on every shard in parallel, each in a transaction of its own.
+     */
+    void writeAll(Consumer<JdbcTemplate> write) {
+
+        forEachShardInParallel(shard -> {
+
+            shard.writeWithoutResult(write);
+
+            return null;
+        });
+    }
+
+    @Override
+    public void close() throws Exception {
+
+        executor.shutdownNow();
+
+        for (var shard : shards) {
+
+            if (shard.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static <T> void readAhead(Shard shard, Function<JdbcTemplate, Stream<T>> query,
+                                      BlockingQueue<Object> queue) {
+
+        Object last;
+
+        try {
+
+            shard.stream(query, row -> put(queue, row));
+
+            last = END_OF_ROWS;
+        }
+        catch (CancellationException e) {
+            return;
+        }
+        catch (RuntimeException e) {
+            last = new FailedRead(e);
+        }
+
+        try {
+            put(queue, last);
+        }
+        catch (CancellationException e) {
+            // the caller stopped reading
+        }
+    }
+
+    private static void put(BlockingQueue<Object> queue, Object row) {
+
+        try {
+            queue.put(row);
+        }
+        catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+
+            throw new CancellationException("Reading ahead from job shard cancelled");
+        }
+    }
+
+    private static Object take(BlockingQueue<Object> queue) {
+
+        try {
+            return queue.take();
+        }
+        catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+
+            throw new CancellationException("Interrupted while reading job shards");
+        }
+    }
+
+    private <T> List<T> forEachShardInParallel(Function<Shard, T> task) {
+
+        var futures = shards.stream()
+            .map(shard -> CompletableFuture.supplyAsync(() -> task.apply(shard), executor))
+            .toList();
+
+        try {
+            return futures.stream()
+                .map(CompletableFuture::join)
+                .toList();
+        }
+        catch (CompletionException e) {
+
+            futures.forEach(future -> future.cancel(true));
+
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+
+            throw e;
+        }
+    }
+
+    private record FailedRead(RuntimeException exception) {}
+
+    /**
+     * A single job database. Every statement runs in a transaction of the shard's own, so a shard connection is never
+     * left bound to the caller's transaction.
+     */
+    static class Shard {
+
+        private final int index;
+
+        private final DataSource dataSource;
+
+        private final JdbcTemplate jdbcTemplate;
+
+        private final TransactionTemplate readTransactionTemplate;
+
+        private final TransactionTemplate writeTransactionTemplate;
+
+        private Shard(int index, DataSource dataSource) {
+
+            this.index = index;
+            this.dataSource = dataSource;
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+
+            var transactionManager = new DataSourceTransactionManager(dataSource);
+
+            this.readTransactionTemplate = new TransactionTemplate(transactionManager);
+            this.readTransactionTemplate.setReadOnly(true);
+            this.readTransactionTemplate.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+
+            this.writeTransactionTemplate = new TransactionTemplate(transactionManager);
+            this.writeTransactionTemplate.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+        }
+
+        int index() {
+            return index;
+        }
+
+        /**
+         * @return a new random id that encodes this shard
+         */
+        UUID newId() {
+
+            var randomUuid = UUID.randomUUID();
+
+            var mostSignificantBits =
+                (randomUuid.getMostSignificantBits() & RANDOM_BITS_MASK) | ((long) index << SHARD_INDEX_SHIFT);
+
+            return new UUID(mostSignificantBits, randomUuid.getLeastSignificantBits());
+        }
+
+        <T> T read(Function<JdbcTemplate, T> query) {
+            return readTransactionTemplate.execute(status -> query.apply(jdbcTemplate));
+        }
+
+        <T> T write(Function<JdbcTemplate, T> write) {
+            return writeTransactionTemplate.execute(status -> write.apply(jdbcTemplate));
+        }
+
+        void writeWithoutResult(Consumer<JdbcTemplate> write) {
+            writeTransactionTemplate.executeWithoutResult(status -> write.accept(jdbcTemplate));
+        }
+
+        /**
+         * Passes the rows of the read-only query to the action as they are read, then closes the stream.
+         */
+        <T> void stream(Function<JdbcTemplate, Stream<T>> query, Consumer<? super T> action) {
+
+            readTransactionTemplate.executeWithoutResult(status -> {
+
+                try (var rows = query.apply(jdbcTemplate)) {
+                    rows.forEachOrdered(action);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,530 @@
+package com.example.petsitter.jobs;
+
+import com.example.petsitter.common.ItemStream;
+import com.example.petsitter.common.audit.ChangeHistory;
+import com.example.petsitter.common.exception.InvalidArgumentException;
+import com.example.petsitter.users.User;
+import com.example.petsitter.users.UserInfrastructureService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Stores jobs and their applications across the {@link JobShards}. Lookups by job or application id read the shard
+ * the id encodes and lookups of jobs by owner read the owner's shard, so a job's owner can only change to a user on
+ * the same shard. Applications are stored with their job, so lookups by applicant ask every shard. The shards have no
+ * foreign keys to users, who stay in the application database. Updates bypass Hibernate, so they record their change
+ * history themselves once the shard's transaction commits.
+ */
+@Repository
+@ConditionalOnProperty(name = "petsitter.jobs.sharding.enabled", havingValue = "true")
+@RequiredArgsConstructor
+class ShardedJobRepository implements JobRepository {
+
+    private static final String SELECT_JOB = """
+        SELECT j.id, j.job_owner_id, j.start_time, j.end_time, j.activity, j.name, j.age, j.breed, j.size, j.version
+          FROM jobs j
+        """;
+
+    private static final String SELECT_JOB_APPLICATION_DTO = """
+        SELECT ja.id, ja.application_status, ja.application_owner_id, ja.application_job_id
+          FROM job_applications ja
+        """;
+
+    private final JobShards jobShards;
+
+    private final UserInfrastructureService userInfrastructureService;
+
+    private final AuditorAware<UUID> auditorAware;
+
+    private final Validator validator;
+
+    private final ChangeHistory changeHistory;
+
+    private final JobMapper jobMapper;
+    private final JobApplicationMapper jobApplicationMapper;
+
+    @Override
+    public boolean applicationExistsByJobIdAndOwnerId(UUID jobId, UUID ownerId) {
+
+        return jobShards.shardOfId(jobId)
+            .map(shard -> shard.read(jdbcTemplate -> jdbcTemplate.queryForObject("""
+                SELECT EXISTS (SELECT 1
+                                 FROM job_applications
+                                WHERE application_job_id = ?
+                                  AND application_owner_id = ?)
+                """, Boolean.class, jobId, ownerId)))
+            .orElse(false);
+    }
+
+    @Override
+    public void deleteAllJobsAndApplicationsByOwnerId(UUID ownerId) {
+
+        jobShards.writeAll(jdbcTemplate -> {
+
+            jdbcTemplate.update("DELETE FROM job_applications WHERE application_owner_id = ?", ownerId);
+
+            jdbcTemplate.update("""
+                DELETE FROM job_applications
+                 WHERE application_job_id IN (SELECT id
+                                                FROM jobs
+                                               WHERE job_owner_id = ?)
+                """, ownerId);
+
+            jdbcTemplate.update("DELETE FROM jobs WHERE job_owner_id = ?", ownerId);
+        });
+    }
+
+    @Override
+    public void deleteById(UUID jobId) {
+
+        jobShards.shardOfId(jobId).ifPresent(shard -> shard.writeWithoutResult(jdbcTemplate -> {
+
+            jdbcTemplate.update("DELETE FROM job_applications WHERE application_job_id = ?", jobId);
+
+            jdbcTemplate.update("DELETE FROM jobs WHERE id = ?", jobId);
+        }));
+    }
+
+    @Override
+    public boolean existsById(UUID jobId) {
+
+        return jobShards.shardOfId(jobId)
+            .map(shard -> shard.read(jdbcTemplate ->
+                jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM jobs WHERE id = ?)", Boolean.class, jobId)))
+            .orElse(false);
+    }
+
+    @Override
+    public ItemStream<JobApplicationDto> findAllApplicationsDtoByApplicationOwnerId(UUID applicationOwnerId) {
+
+        return jobShards.streamAll(jdbcTemplate -> jdbcTemplate.queryForStream(
+            SELECT_JOB_APPLICATION_DTO + " WHERE ja.application_owner_id = ? ORDER BY ja.id", this::toJobApplicationDto,
+            applicationOwnerId));
+    }
+
+    @Override
+    public ItemStream<JobApplicationDto> findAllApplicationsDtoByJobId(UUID jobId) {
+
+        return action -> jobShards.shardOfId(jobId)
+            .ifPresent(shard -> shard.stream(jdbcTemplate -> jdbcTemplate.queryForStream(
+                SELECT_JOB_APPLICATION_DTO + " WHERE ja.application_job_id = ? ORDER BY ja.id",
+                this::toJobApplicationDto, jobId), action));
+    }
+
+    @Override
+    public ItemStream<JobDto> findAllDto() {
+
+        return jobShards.streamAll(jdbcTemplate ->
+            jdbcTemplate.queryForStream(SELECT_JOB + " ORDER BY j.id", this::toJobDto));
+    }
+
+    @Override
+    public ItemStream<JobDto> findAllDtoByJobOwnerId(UUID jobOwnerId) {
+
+        return action -> jobShards.shardOfOwner(jobOwnerId)
+            .stream(jdbcTemplate -> jdbcTemplate.queryForStream(
+                SELECT_JOB + " WHERE j.job_owner_id = ? ORDER BY j.id", this::toJobDto, jobOwnerId), action);
+    }
+
+    @Override
+    public Optional<JobApplication> findApplicationWithOwnerAndJobById(UUID applicationId) {
+
+        return jobShards.shardOfId(applicationId)
+            .flatMap(shard -> shard.read(jdbcTemplate -> jdbcTemplate.query("""
+                SELECT ja.id AS application_id, ja.application_status, ja.application_owner_id,
+                       ja.version AS application_version,
+                       j.id, j.job_owner_id, j.start_time, j.end_time, j.activity, j.name, j.age, j.breed, j.size,
+                       j.version
+                  FROM job_applications ja
+                  JOIN jobs j ON j.id = ja.application_job_id
+                 WHERE ja.id = ?
+                """, this::toJobApplication, applicationId)).stream().findFirst());
+    }
+
+    @Override
+    public Optional<JobDto> findDtoById(UUID jobId) {
+
+        return findWithJobOwnerById(jobId).map(jobMapper::toJobDto);
+    }
+
+    @Override
+    public Optional<UUID> findJobOwnerIdById(UUID jobId) {
+
+        return jobShards.shardOfId(jobId)
+            .flatMap(shard -> shard.read(jdbcTemplate -> jdbcTemplate.queryForList(
+                "SELECT job_owner_id FROM jobs WHERE id = ?", UUID.class, jobId)).stream().findFirst());
+    }
+
+    @Override
+    public Optional<Versioned<JobDto>> findVersionedDtoById(UUID jobId) {
+
+        return findWithJobOwnerById(jobId).map(job -> new Versioned<>(jobMapper.toJobDto(job), job.getVersion()));
+    }
+
+    @Override
+    public Optional<Job> findWithJobOwnerById(UUID jobId) {
+
+        return jobShards.shardOfId(jobId)
+            .flatMap(shard -> shard.read(jdbcTemplate ->
+                jdbcTemplate.query(SELECT_JOB + " WHERE j.id = ?", this::toJob, jobId)).stream().findFirst());
+    }
+
+    @Override
+    public void flush() {
+        // every change is written when it is made
+    }
+
+    @Override
+    public JobDto save(UUID jobOwnerId, JobDto jobDto) {
+
+        var job = jobMapper.toJob(jobDto, userInfrastructureService.getReferenceById(jobOwnerId));
+
+        validate(job);
+
+        var shard = jobShards.shardOfOwner(jobOwnerId);
+
+        job.setId(shard.newId());
+
+        var auditor = auditorAware.getCurrentAuditor().orElse(null);
+        var now = LocalDateTime.now();
+
+        shard.write(jdbcTemplate -> jdbcTemplate.update("""
+            INSERT INTO jobs (id, job_owner_id, start_time, end_time, activity, name, age, breed, size, version,
+                              created_by, created_date, last_modified_by, last_modified_date)
+                 VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?, ?, ?)
+            """, job.getId(), jobOwnerId, job.getStartTime(), job.getEndTime(), job.getActivity(),
+            job.getDog().getName(), job.getDog().getAge(), job.getDog().getBreed(), job.getDog().getSize(),
+            auditor, now, auditor, now));
+
+        return jobMapper.toJobDto(job);
+    }
+
+    @Override
+    public JobApplicationDto saveJobApplication(UUID jobApplicationOwnerId, UUID jobId,
+                                                JobApplicationDto jobApplicationDto) {
+
+        var shard = jobShards.shardOfId(jobId)
+            .orElseThrow(() -> new IllegalArgumentException("Job %s is not on any shard".formatted(jobId)));
+
+        var jobApplication = jobApplicationMapper.toJobApplication(jobApplicationDto,
+            userInfrastructureService.getReferenceById(jobApplicationOwnerId), jobReference(jobId));
+
+        validate(jobApplication);
+
+        jobApplication.setId(shard.newId());
+
+        var auditor = auditorAware.getCurrentAuditor().orElse(null);
+        var now = LocalDateTime.now();
+
+        shard.write(jdbcTemplate -> jdbcTemplate.update("""
+            INSERT INTO job_applications (id, application_status, application_owner_id, application_job_id, version,
+                                          created_by, created_date, last_modified_by, last_modified_date)
+                 VALUES (?, ?, ?, ?, 0, ?, ?, ?, ?)
+            """, jobApplication.getId(), jobApplication.getApplicationStatus().name(), jobApplicationOwnerId, jobId,
+            auditor, now, auditor, now));
+
+        return jobApplicationMapper.toJobApplicationDto(jobApplication);
+    }
+
+    @Override
+    public JobApplicationDto updateJobApplicationFromDto(JobApplication jobApplication,
+                                                         JobApplicationDto jobApplicationDto) {
+
+        var userId = jobApplicationDto.getUserId();
+
+        User applicationOwner = userId != null && !userId.equals(jobApplication.getApplicationOwner().getId()) ?
+            userInfrastructureService.getReferenceById(userId) : null;
+
+        var jobId = jobApplicationDto.getJobId();
+
+        Job applicationJob = jobId != null && !jobId.equals(jobApplication.getApplicationJob().getId()) ?
+            jobReference(jobId) : null;
+
+        var shard = jobShards.shardOfId(jobApplication.getId()).orElseThrow();
+
+        if (applicationJob != null && jobShards.shardOfId(jobId).orElseThrow() != shard) {
+
+            throw new InvalidArgumentException("jobApplication", "job_id",
+                "Job Application %s cannot move to Job %s, which is stored on another shard"
+                    .formatted(jobApplication.getId(), jobId));
+        }
+
+        var oldValues = ChangeHistoryValues.of(jobApplication);
+
+        jobApplicationMapper.updateJobApplicationFromDto(jobApplication, jobApplicationDto, applicationOwner,
+            applicationJob);
+
+        validate(jobApplication);
+
+        var modifiedBy = auditorAware.getCurrentAuditor().orElse(null);
+        var modifiedDate = LocalDateTime.now();
+
+        var updated = shard.write(jdbcTemplate -> recordIfUpdated(jdbcTemplate.update("""
+                UPDATE job_applications
+                   SET application_status = ?, application_owner_id = ?, application_job_id = ?, version = version + 1,
+                       last_modified_by = ?, last_modified_date = ?
+                 WHERE id = ?
+                   AND version = ?
+                """, jobApplication.getApplicationStatus().name(), jobApplication.getApplicationOwner().getId(),
+                jobApplication.getApplicationJob().getId(), modifiedBy, modifiedDate, jobApplication.getId(),
+                jobApplication.getVersion()),
+            JobApplication.class, jobApplication.getId(), oldValues, ChangeHistoryValues.of(jobApplication), modifiedBy,
+            modifiedDate));
+
+        if (updated == 0) {
+
+            throw new OptimisticLockingFailureException(
+                "Job Application %s was modified or deleted concurrently".formatted(jobApplication.getId()));
+        }
+
+        jobApplication.setVersion((short) (jobApplication.getVersion() + 1));
+
+        return jobApplicationMapper.toJobApplicationDto(jobApplication);
+    }
+
+    @Override
+    public JobDto updateJobFromDto(Job job, JobDto jobDto) {
+
+        var creatorUserId = jobDto.getCreatorUserId();
+
+        User jobOwner = creatorUserId != null && !creatorUserId.equals(job.getJobOwner().getId()) ?
+            userInfrastructureService.getReferenceById(creatorUserId) : null;
+
+        if (jobOwner != null) {
+            checkOwnerShard(job.getId(), creatorUserId);
+        }
+
+        var oldValues = ChangeHistoryValues.of(jobMapper.toJobDto(job));
+
+        jobMapper.updateJobFromDto(job, jobDto, jobOwner);
+
+        validate(job);
+
+        var modifiedBy = auditorAware.getCurrentAuditor().orElse(null);
+        var modifiedDate = LocalDateTime.now();
+
+        var update = JobColumnUpdate.of(job.getId(), job.getVersion(), jobDto, modifiedBy, modifiedDate);
+
+        var updated = jobShards.shardOfId(job.getId()).orElseThrow()
+            .write(jdbcTemplate -> recordIfUpdated(jdbcTemplate.update(update.sql(), update.arguments()),
+                Job.class, job.getId(), oldValues, ChangeHistoryValues.of(jobMapper.toJobDto(job)), modifiedBy,
+                modifiedDate));
+
+        if (updated == 0) {
+            throw new OptimisticLockingFailureException(
+                "Job %s was modified or deleted concurrently".formatted(job.getId()));
+        }
+
+        job.setVersion((short) (job.getVersion() + 1));
+
+        return jobMapper.toJobDto(job);
+    }
+
+    @Override
+    public Optional<Versioned<JobDto>> updateJobIfVersion(Versioned<JobDto> job, JobDto jobDto) {
+
+        var patchedJobDto = job.dto().patchedWith(jobDto);
+
+        validate(jobMapper.toJob(patchedJobDto, null));
+
+        var jobId = job.dto().getId();
+
+        if (jobDto.getCreatorUserId() != null && !jobDto.getCreatorUserId().equals(job.dto().getCreatorUserId())) {
+            checkOwnerShard(jobId, jobDto.getCreatorUserId());
+        }
+
+        var modifiedBy = auditorAware.getCurrentAuditor().orElse(null);
+        var modifiedDate = LocalDateTime.now();
+
+        var update = JobColumnUpdate.of(jobId, job.version(), jobDto, modifiedBy, modifiedDate);
+
+        var updated = jobShards.shardOfId(jobId).orElseThrow()
+            .write(jdbcTemplate -> recordIfUpdated(jdbcTemplate.update(update.sql(), update.arguments()),
+                Job.class, jobId, ChangeHistoryValues.of(job.dto()), ChangeHistoryValues.of(patchedJobDto), modifiedBy,
+                modifiedDate));
+
+        return updated == 0 ? Optional.empty() :
+            Optional.of(new Versioned<>(patchedJobDto, (short) (job.version() + 1)));
+    }
+
+    /**
+     * Records the change history of an UPDATE that matched a row once the shard transaction it ran in commits, and
+     * returns the number of rows updated.
+     */
+    private int recordIfUpdated(int updated, Class<?> entityClass, UUID entityId, Map<String, ?> oldValues,
+                                Map<String, ?> newValues, @Nullable UUID modifiedBy,
+                                LocalDateTime modifiedDate) {
+
+        if (updated > 0) {
+            changeHistory.recordAfterCommit(entityClass, entityId, oldValues, newValues, modifiedBy, modifiedDate);
+        }
+
+        return updated;
+    }
+
+    /**
+     * Rejects a new job owner whose jobs are placed on another shard, where lookups by owner would not find the job.
+     */
+    private void checkOwnerShard(UUID jobId, UUID jobOwnerId) {
+
+        if (jobShards.shardOfOwner(jobOwnerId) != jobShards.shardOfId(jobId).orElseThrow()) {
+
+            throw new InvalidArgumentException("job", "creator_user_id",
+                "Job %s cannot move to User %s, whose jobs are stored on another shard".formatted(jobId, jobOwnerId));
+        }
+    }
+
+    /**
+     * Applies the bean validation constraints Hibernate checks before writing the entity.
+     */
+    private void validate(Object entity) {
+
+        var constraintViolations = validator.validate(entity);
+
+        if (!constraintViolations.isEmpty()) {
+            throw new ConstraintViolationException(constraintViolations);
+        }
+    }
+
+    private Job jobReference(UUID jobId) {
+
+        var job = new Job();
+
+        job.setId(jobId);
+
+        return job;
+    }
+
+    private Job toJob(ResultSet resultSet, int rowNum) throws SQLException {
+
+        var dog = new Job.Dog();
+
+        dog.setName(resultSet.getString("name"));
+        dog.setAge(resultSet.getInt("age"));
+        dog.setBreed(resultSet.getString("breed"));
+        dog.setSize(resultSet.getString("size"));
+
+        var job = new Job();
+
+        job.setId(resultSet.getObject("id", UUID.class));
+        job.setJobOwner(userInfrastructureService.getReferenceById(resultSet.getObject("job_owner_id", UUID.class)));
+        job.setStartTime(resultSet.getObject("start_time", LocalDateTime.class));
+        job.setEndTime(resultSet.getObject("end_time", LocalDateTime.class));
+        job.setActivity(resultSet.getString("activity"));
+        job.setDog(dog);
+        job.setVersion(resultSet.getShort("version"));
+
+        return job;
+    }
+
+    private JobDto toJobDto(ResultSet resultSet, int rowNum) throws SQLException {
+
+        return JobDto.builder()
+            .id(resultSet.getObject("id", UUID.class))
+            .creatorUserId(resultSet.getObject("job_owner_id", UUID.class))
+            .startTime(resultSet.getObject("start_time", LocalDateTime.class))
+            .endTime(resultSet.getObject("end_time", LocalDateTime.class))
+            .activity(resultSet.getString("activity"))
+            .dog(JobDto.DogDto.builder()
+                .name(resultSet.getString("name"))
+                .age(resultSet.getInt("age"))
+                .breed(resultSet.getString("breed"))
+                .size(resultSet.getString("size"))
+                .build())
+            .build();
+    }
+
+    private JobApplication toJobApplication(ResultSet resultSet, int rowNum) throws SQLException {
+
+        var jobApplication = new JobApplication();
+
+        jobApplication.setId(resultSet.getObject("application_id", UUID.class));
+        jobApplication.setApplicationStatus(
+            JobApplication.JobApplicationStatus.valueOf(resultSet.getString("application_status")));
+        jobApplication.setApplicationOwner(
+            userInfrastructureService.getReferenceById(resultSet.getObject("application_owner_id", UUID.class)));
+        jobApplication.setApplicationJob(toJob(resultSet, rowNum));
+        jobApplication.setVersion(resultSet.getShort("application_version"));
+
+        return jobApplication;
+    }
+
+    private JobApplicationDto toJobApplicationDto(ResultSet resultSet, int rowNum) throws SQLException {
+
+        return JobApplicationDto.builder()
+            .id(resultSet.getObject("id", UUID.class))
+            .status(JobApplication.JobApplicationStatus.valueOf(resultSet.getString("application_status")))
+            .userId(resultSet.getObject("application_owner_id", UUID.class))
+            .jobId(resultSet.getObject("application_job_id", UUID.class))
+            .build();
+    }
+}
+
+/**
+ * Creates one connection pool per job shard and brings each shard's schema up to date with the migrations in
+ * db/job-shards. The pools are not beans, so the application data source stays the only {@link DataSource} bean; they
+ * report the hikaricp metrics of their own.
+ */
+@Configuration
+@ConditionalOnProperty(name = "petsitter.jobs.sharding.enabled", havingValue = "true")
+@Slf4j
+class JobShardingConfig {
+
+    @Bean
+    JobShards jobShards(@Value("${petsitter.jobs.sharding.urls}") List<String> urls,
+                        @Value("${petsitter.jobs.sharding.username}") String username,
+                        @Value("${petsitter.jobs.sharding.password}") String password,
+                        @Value("${petsitter.jobs.sharding.maximum-pool-size}") int maximumPoolSize,
+                        ObjectProvider<MeterRegistry> meterRegistry) {
+
+        var dataSources = new ArrayList<DataSource>(urls.size());
+
+        for (int i = 0; i < urls.size(); i++) {
+
+            var dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(urls.get(i))
+                .username(username)
+                .password(password)
+                .build();
+
+            dataSource.setPoolName("job-shard-" + i);
+            dataSource.setMaximumPoolSize(maximumPoolSize);
+
+            meterRegistry.ifAvailable(dataSource::setMetricRegistry);
+
+            Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/job-shards")
+                .load()
+                .migrate();
+
+            dataSources.add(dataSource);
+        }
+
+        log.info("Jobs sharded across {} databases", dataSources.size());
+
+        return new JobShards(dataSources, dataSources.size() * maximumPoolSize);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.petsitter.jobs;
+
+import com.example.petsitter.common.exception.PreconditionFailedException;
+import org.springframework.lang.Nullable;
+
+/**
+ * A job or job application with the version it was read or written at. The version is sent as the entity tag of the
+ * representation and expected back in the If-Match header of a conditional modification.
+ */
+record Versioned<T>(T dto, short version) {
+
+    String eTag() {
+        return "\"%d\"".formatted(version);
+    }
+
+    /**
+     * @return the version the If-Match header names, null if there is no header or it is *, which any version matches
+     * @throws PreconditionFailedException if the header names no version, since no entity tag can match it then
+     */
+    @Nullable
+    static Short versionOf(@Nullable String ifMatch) {
+
+        if (ifMatch == null || ifMatch.strip().equals("*")) {
+            return null;
+        }
+
+        var eTag = ifMatch.strip();
+
+        if (eTag.length() > 2 && eTag.startsWith("\"") && eTag.endsWith("\"")) {
+
+            try {
+                return Short.valueOf(eTag.substring(1, eTag.length() - 1));
+            } catch (NumberFormatException e) {
+                // not an entity tag of ours
+            }
+        }
+
+        throw new PreconditionFailedException("If-Match %s does not match the current version".formatted(ifMatch));
+    }
+}
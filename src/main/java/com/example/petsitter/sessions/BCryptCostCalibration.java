@@ -0,0 +1,119 @@
+package com.example.petsitter.sessions;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Picks the bcrypt cost for new password hashes. Unless a fixed cost is configured, each cost from the minimum
+ * upwards is timed on this machine and the highest cost whose median hash latency fits the latency budget is chosen.
+ */
+@Component
+@Slf4j
+class BCryptCostCalibration {
+
+    private static final String CALIBRATION_PASSWORD = "1Calibration!";
+
+    private final int cost;
+
+    private final SortedMap<Integer, Duration> latencyByCost;
+
+    BCryptCostCalibration(MeterRegistry meterRegistry,
+                          @Value("${petsitter.password-hashing.bcrypt.cost}") int fixedCost,
+                          @Value("${petsitter.password-hashing.bcrypt.min-cost}") int minCost,
+                          @Value("${petsitter.password-hashing.bcrypt.max-cost}") int maxCost,
+                          @Value("${petsitter.password-hashing.bcrypt.latency-budget}") Duration latencyBudget,
+                          @Value("${petsitter.password-hashing.bcrypt.samples}") int samples) {
+
+        if (fixedCost > 0) {
+
+            this.cost = fixedCost;
+            this.latencyByCost = Collections.emptySortedMap();
+        }
+        else {
+
+            this.latencyByCost = measure(minCost, maxCost, latencyBudget, samples);
+            this.cost = select(latencyByCost, minCost, latencyBudget);
+
+            latencyByCost.forEach((measuredCost, latency) -> log.info("bcrypt cost {}: {} ms per hash", measuredCost,
+                latency.toNanos() / 1_000_000.0));
+
+            latencyByCost.forEach((measuredCost, latency) ->
+                Gauge.builder("petsitter.password.hash.calibration.latency", latency, d -> d.toNanos() / 1e9)
+                    .tag("cost", String.valueOf(measuredCost))
+                    .baseUnit("seconds")
+                    .register(meterRegistry));
+        }
+
+        log.info("bcrypt cost {} selected for latency budget {}", cost, latencyBudget);
+
+        Gauge.builder("petsitter.password.hash.cost", () -> cost).register(meterRegistry);
+    }
+
+    int getCost() {
+        return cost;
+    }
+
+    SortedMap<Integer, Duration> getLatencyByCost() {
+        return latencyByCost;
+    }
+
+    /**
+     * Median latency of hashing at each cost from minCost upwards, stopping after the first cost over budget since
+     * each further cost doubles the work.
+     */
+    static SortedMap<Integer, Duration> measure(int minCost, int maxCost, Duration latencyBudget, int samples) {
+
+        var latencyByCost = new TreeMap<Integer, Duration>();
+
+        // warm up so the first measured cost is not charged for class loading and compilation
+        new BCryptPasswordEncoder(minCost).encode(CALIBRATION_PASSWORD);
+
+        for (int cost = minCost; cost <= maxCost; cost++) {
+
+            var encoder = new BCryptPasswordEncoder(cost);
+
+            var latencies = new long[samples];
+
+            for (int i = 0; i < samples; i++) {
+
+                var start = System.nanoTime();
+
+                encoder.encode(CALIBRATION_PASSWORD);
+
+                latencies[i] = System.nanoTime() - start;
+            }
+
+            Arrays.sort(latencies);
+
+            var median = Duration.ofNanos(latencies[samples / 2]);
+
+            latencyByCost.put(cost, median);
+
+            if (median.compareTo(latencyBudget) > 0) {
+                break;
+            }
+        }
+
+        return latencyByCost;
+    }
+
+    static int select(SortedMap<Integer, Duration> latencyByCost, int minCost, Duration latencyBudget) {
+
+        return latencyByCost.entrySet().stream()
+            .filter(entry -> entry.getValue().compareTo(latencyBudget) <= 0)
+            .mapToInt(Map.Entry::getKey)
+            .max()
+            .orElse(minCost);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.petsitter.sessions;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+class BulkheadPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    private final PasswordHashingBulkhead passwordHashingBulkhead;
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+
+        return passwordHashingBulkhead.encode(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+
+        return passwordHashingBulkhead.matches(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * @see PasswordHashingBulkhead#tryEncodeInBackground
+     */
+    boolean tryEncodeInBackground(CharSequence rawPassword, Consumer<String> encodedPasswordConsumer) {
+
+        return passwordHashingBulkhead.tryEncodeInBackground(() -> delegate.encode(rawPassword),
+            encodedPasswordConsumer);
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.petsitter.sessions;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.petsitter.common.CommonConfig.MEDIA_TYPE_APPLICATION_PROBLEM_JSON;
+
+/**
+ * Rejects login attempts exceeding the per client or per email rate before any credential lookup or password hashing
+ * takes place. Login requests whose email cannot be inspected, because the body is too large or has no email, are
+ * rejected as well, so no attempt bypasses the per email rate.
+ */
+@RequiredArgsConstructor
+class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private static final RequestMatcher LOGIN_REQUEST_MATCHER =
+        AntPathRequestMatcher.antMatcher(HttpMethod.POST, "/sessions");
+
+    // enough for any valid session request
+    private static final int MAX_BODY_BYTES = 4096;
+
+    private final LoginRateLimiter loginRateLimiter;
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !loginRateLimiter.isEnabled() || !LOGIN_REQUEST_MATCHER.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+
+        var clientWaitNanos = loginRateLimiter.tryAcquireForClient(request.getRemoteAddr());
+
+        if (clientWaitNanos > 0) {
+
+            rejectTooManyRequests(request, response, clientWaitNanos, "Too many login attempts from this client");
+
+            return;
+        }
+
+        if (request.getContentLengthLong() > MAX_BODY_BYTES) {
+
+            reject(request, response, HttpStatus.PAYLOAD_TOO_LARGE, "/errors/payload-too-large",
+                "Session request body too large");
+
+            return;
+        }
+
+        // one byte more than allowed tells a body without a content length that is too large
+        var body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+
+        if (body.length > MAX_BODY_BYTES) {
+
+            reject(request, response, HttpStatus.PAYLOAD_TOO_LARGE, "/errors/payload-too-large",
+                "Session request body too large");
+
+            return;
+        }
+
+        var emailAddress = emailAddress(body);
+
+        if (emailAddress == null) {
+
+            reject(request, response, HttpStatus.BAD_REQUEST, "/errors/bad-request", "Session request without email");
+
+            return;
+        }
+
+        var emailWaitNanos = loginRateLimiter.tryAcquireForEmail(emailAddress);
+
+        if (emailWaitNanos > 0) {
+
+            rejectTooManyRequests(request, response, emailWaitNanos, "Too many login attempts for this user");
+
+            return;
+        }
+
+        filterChain.doFilter(new InspectedBodyRequest(request, body), response);
+    }
+
+    private String emailAddress(byte[] body) {
+
+        try {
+
+            var email = objectMapper.readTree(body).get("email");
+
+            return email != null && email.isTextual() ? email.textValue() : null;
+        }
+        catch (JsonProcessingException e) {
+            return null;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void rejectTooManyRequests(HttpServletRequest request, HttpServletResponse response, long waitNanos,
+                                       String detail) throws IOException {
+
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+            String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos))));
+
+        reject(request, response, HttpStatus.TOO_MANY_REQUESTS, "/errors/too-many-requests", detail);
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String type,
+                        String detail) throws IOException {
+
+        var problemDetail = ProblemDetail.forStatusAndDetail(status, detail);
+
+        problemDetail.setType(ServletUriComponentsBuilder.fromContextPath(request).path(type).build().toUri());
+
+        problemDetail.setProperty("timestamp", LocalDateTime.now());
+
+        response.setStatus(status.value());
+        response.setContentType(MEDIA_TYPE_APPLICATION_PROBLEM_JSON);
+
+        objectMapper.writeValue(response.getOutputStream(), problemDetail);
+    }
+
+    /**
+     * Replays the inspected request body, followed by the end of the request body itself.
+     */
+    private static class InspectedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] inspectedBody;
+
+        private ServletInputStream servletInputStream;
+
+        InspectedBodyRequest(HttpServletRequest request, byte[] inspectedBody) {
+            super(request);
+
+            this.inspectedBody = inspectedBody;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+
+            if (servletInputStream == null) {
+                servletInputStream = replayingInputStream();
+            }
+
+            return servletInputStream;
+        }
+
+        private ServletInputStream replayingInputStream() throws IOException {
+
+            var remainder = super.getInputStream();
+
+            return new ServletInputStream() {
+
+                private int position;
+
+                private boolean finished;
+
+                @Override
+                public int read() throws IOException {
+
+                    if (position < inspectedBody.length) {
+                        return inspectedBody[position++] & 0xff;
+                    }
+
+                    var b = remainder.read();
+
+                    finished = b == -1;
+
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+
+                    Objects.checkFromIndexSize(off, len, b.length);
+
+                    if (len == 0) {
+                        return 0;
+                    }
+
+                    if (position < inspectedBody.length) {
+
+                        var n = Math.min(len, inspectedBody.length - position);
+
+                        System.arraycopy(inspectedBody, position, b, off, n);
+                        position += n;
+
+                        return n;
+                    }
+
+                    var n = remainder.read(b, off, len);
+
+                    finished = n == -1;
+
+                    return n;
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return position == inspectedBody.length && (finished || remainder.isFinished());
+                }
+
+                @Override
+                public boolean isReady() {
+                    return position < inspectedBody.length || remainder.isReady();
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    remainder.setReadListener(readListener);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+
+            var characterEncoding = getCharacterEncoding();
+
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                characterEncoding != null ? characterEncoding : StandardCharsets.UTF_8.name()));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.petsitter.sessions;
+
+import com.example.petsitter.common.Email;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+class LoginRateLimiter {
+
+    private static final int STRIPES = 64;
+
+    private final boolean enabled;
+
+    private final StripedTokenBuckets emailBuckets;
+    private final StripedTokenBuckets clientBuckets;
+
+    private final Counter emailRejectedCounter;
+    private final Counter clientRejectedCounter;
+
+    LoginRateLimiter(MeterRegistry meterRegistry,
+                     @Value("${petsitter.login-rate-limit.enabled}") boolean enabled,
+                     @Value("${petsitter.login-rate-limit.email.capacity}") int emailCapacity,
+                     @Value("${petsitter.login-rate-limit.email.refill-period}") Duration emailRefillPeriod,
+                     @Value("${petsitter.login-rate-limit.client.capacity}") int clientCapacity,
+                     @Value("${petsitter.login-rate-limit.client.refill-period}") Duration clientRefillPeriod,
+                     @Value("${petsitter.login-rate-limit.idle-timeout}") Duration idleTimeout,
+                     @Value("${petsitter.login-rate-limit.wheel-tick}") Duration wheelTick) {
+
+        this.enabled = enabled;
+
+        var wheelSlots = (int) Math.max(2, idleTimeout.toNanos() / wheelTick.toNanos());
+
+        this.emailBuckets = new StripedTokenBuckets(STRIPES, emailCapacity, emailRefillPeriod, idleTimeout,
+            wheelSlots, System::nanoTime);
+
+        this.clientBuckets = new StripedTokenBuckets(STRIPES, clientCapacity, clientRefillPeriod, idleTimeout,
+            wheelSlots, System::nanoTime);
+
+        this.emailRejectedCounter = Counter.builder("petsitter.login.rate-limited").tag("key", "email")
+            .register(meterRegistry);
+
+        this.clientRejectedCounter = Counter.builder("petsitter.login.rate-limited").tag("key", "client")
+            .register(meterRegistry);
+
+        Gauge.builder("petsitter.login.rate-limit.buckets", emailBuckets, StripedTokenBuckets::size)
+            .tag("key", "email")
+            .register(meterRegistry);
+
+        Gauge.builder("petsitter.login.rate-limit.buckets", clientBuckets, StripedTokenBuckets::size)
+            .tag("key", "client")
+            .register(meterRegistry);
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return 0 if the login attempt may proceed, otherwise the nanoseconds until the client may retry
+     */
+    long tryAcquireForClient(String clientAddress) {
+
+        var waitNanos = clientBuckets.tryAcquire(clientAddress);
+
+        if (waitNanos > 0) {
+            clientRejectedCounter.increment();
+        }
+
+        return waitNanos;
+    }
+
+    /**
+     * @return 0 if the login attempt may proceed, otherwise the nanoseconds until the email may retry
+     */
+    long tryAcquireForEmail(String emailAddress) {
+
+        var waitNanos = emailBuckets.tryAcquire(Email.normalize(emailAddress));
+
+        if (waitNanos > 0) {
+            emailRejectedCounter.increment();
+        }
+
+        return waitNanos;
+    }
+
+    @Scheduled(fixedDelayString = "${petsitter.login-rate-limit.wheel-tick}")
+    void expireIdleBuckets() {
+
+        emailBuckets.advance();
+        clientBuckets.advance();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.petsitter.sessions;
+
+import com.example.petsitter.common.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounded executor isolating CPU bound password hashing from request handling. Hashing runs on at most one thread per
+ * core; once the queue is full further requests are rejected immediately with a {@link ServiceUnavailableException}
+ * rather than queueing on request threads.
+ */
+@Component
+@Slf4j
+class PasswordHashingBulkhead implements DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+
+    private final Duration retryAfter;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+    PasswordHashingBulkhead(MeterRegistry meterRegistry,
+                            @Value("${petsitter.password-hashing.threads}") int threads,
+                            @Value("${petsitter.password-hashing.queue-capacity}") int queueCapacity,
+                            @Value("${petsitter.password-hashing.retry-after}") Duration retryAfter) {
+
+        var poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        var threadFactory = new CustomizableThreadFactory("password-hashing-");
+        threadFactory.setDaemon(true);
+
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+
+        this.retryAfter = retryAfter;
+
+        this.encodeTimer = Timer.builder("petsitter.password.hash")
+            .tag("operation", "encode")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+
+        this.matchesTimer = Timer.builder("petsitter.password.hash")
+            .tag("operation", "matches")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+
+        this.rejectedCounter = Counter.builder("petsitter.password.hash.rejected").register(meterRegistry);
+
+        Gauge.builder("petsitter.password.hash.queue.depth", executor, e -> e.getQueue().size())
+            .register(meterRegistry);
+
+        Gauge.builder("petsitter.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+            .register(meterRegistry);
+    }
+
+    String encode(Supplier<String> encoding) {
+        return execute(encodeTimer, encoding);
+    }
+
+    boolean matches(Supplier<Boolean> matching) {
+        return execute(matchesTimer, matching);
+    }
+
+    /**
+     * Encodes on the hashing executor without waiting for the result, for work such as rehashing that can be skipped
+     * when hashing capacity is exhausted.
+     *
+     * @return false if the executor queue is full and the encoding was skipped
+     */
+    boolean tryEncodeInBackground(Supplier<String> encoding, Consumer<String> encodedConsumer) {
+
+        try {
+
+            executor.execute(() -> {
+
+                try {
+                    encodedConsumer.accept(encodeTimer.record(encoding));
+                }
+                catch (RuntimeException e) {
+                    log.warn("Background password encoding failed", e);
+                }
+            });
+
+            return true;
+        }
+        catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private <T> T execute(Timer timer, Supplier<T> hashing) {
+
+        Future<T> future;
+
+        try {
+            future = executor.submit(() -> timer.record(hashing));
+        }
+        catch (RejectedExecutionException e) {
+
+            rejectedCounter.increment();
+
+            throw new ServiceUnavailableException("Password hashing capacity exceeded, retry later", retryAfter);
+        }
+
+        try {
+            return future.get();
+        }
+        catch (InterruptedException e) {
+
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException("Interrupted waiting for password hashing", e);
+        }
+        catch (ExecutionException e) {
+
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
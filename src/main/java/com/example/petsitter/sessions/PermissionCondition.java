@@ -0,0 +1,245 @@
+package com.example.petsitter.sessions;
+
+import com.example.petsitter.jobs.JobApplication;
+import com.example.petsitter.jobs.JobApplicationDto;
+import com.example.petsitter.jobs.JobDto;
+import com.example.petsitter.users.UserDto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.example.petsitter.jobs.JobApplication.JobApplicationStatus.*;
+import static com.example.petsitter.sessions.Permission.Attribute.*;
+import static com.example.petsitter.sessions.Permission.Decision.DENIED;
+import static com.example.petsitter.users.User.UserRole.ADMIN;
+
+/**
+ * Named conditions referenced by the permission policy. A condition either decides the permission or returns null, in
+ * which case evaluation continues with the next rule of the policy.
+ */
+enum PermissionCondition {
+
+    GRANT((attributes, session) -> Permission.IS_GRANTED),
+
+
+    REQUIRE_USER_DTO((attributes, session) ->
+        attributes.get(USER_DTO_ATT) instanceof UserDto ? null : Permission.IS_DENIED),
+
+    REQUIRE_USER_ID((attributes, session) ->
+        attributes.get(USER_ID_ATT) instanceof UUID ? null : Permission.IS_DENIED),
+
+    REQUIRE_USER_ID_AND_USER_DTO((attributes, session) ->
+        attributes.get(USER_ID_ATT) instanceof UUID &&
+        attributes.get(USER_DTO_ATT) instanceof UserDto ? null : Permission.IS_DENIED),
+
+    DENY_USER_DTO_WITH_ID((attributes, session) -> {
+
+        var userDtoId = ((UserDto) attributes.get(USER_DTO_ATT)).getId();
+
+        return userDtoId != null ? new Permission(DENIED, "User with ID %s".formatted(userDtoId)) : null;
+    }),
+
+    DENY_USER_DTO_WITH_ADMIN_ROLE((attributes, session) -> {
+
+        var userDtoRoles = ((UserDto) attributes.get(USER_DTO_ATT)).getRoles();
+
+        return userDtoRoles != null && userDtoRoles.contains(ADMIN) ?
+            new Permission(DENIED, "User with %s role".formatted(ADMIN)) : null;
+    }),
+
+    DENY_USER_DTO_ID_MISMATCH((attributes, session) -> {
+
+        var userId = attributes.get(USER_ID_ATT);
+        var userDtoId = ((UserDto) attributes.get(USER_DTO_ATT)).getId();
+
+        return userDtoId != null && !userDtoId.equals(userId) ?
+            new Permission(DENIED, "User ID %s".formatted(userId)) : null;
+    }),
+
+    DENY_USER_DTO_WITH_ADMIN_ROLE_FOR_USER((attributes, session) -> {
+
+        var userDtoRoles = ((UserDto) attributes.get(USER_DTO_ATT)).getRoles();
+
+        return userDtoRoles != null && userDtoRoles.contains(ADMIN) ?
+            new Permission(DENIED, "User %s with %s role".formatted(attributes.get(USER_ID_ATT), ADMIN)) : null;
+    }),
+
+    GRANT_IF_SESSION_USER((attributes, session) ->
+        session.userId().equals(attributes.get(USER_ID_ATT)) ? Permission.IS_GRANTED : null),
+
+
+    REQUIRE_JOB_OWNER_ID((attributes, session) ->
+        attributes.get(JOB_OWNER_ID_ATT) instanceof UUID ? null : Permission.IS_DENIED),
+
+    REQUIRE_JOB_OWNER_ID_AND_JOB_DTO((attributes, session) ->
+        attributes.get(JOB_OWNER_ID_ATT) instanceof UUID &&
+        attributes.get(JOB_DTO_ATT) instanceof JobDto ? null : Permission.IS_DENIED),
+
+    REQUIRE_JOB_ID_AND_JOB_OWNER_ID_AND_JOB_DTO((attributes, session) ->
+        attributes.get(JOB_ID_ATT) instanceof UUID &&
+        attributes.get(JOB_OWNER_ID_ATT) instanceof UUID &&
+        attributes.get(JOB_DTO_ATT) instanceof JobDto ? null : Permission.IS_DENIED),
+
+    DENY_JOB_DTO_WITH_ID((attributes, session) -> {
+
+        var jobDtoId = ((JobDto) attributes.get(JOB_DTO_ATT)).getId();
+
+        return jobDtoId != null ? new Permission(DENIED, "Job with ID %s".formatted(jobDtoId)) : null;
+    }),
+
+    DENY_JOB_DTO_WITHOUT_CREATOR_USER_ID((attributes, session) ->
+        ((JobDto) attributes.get(JOB_DTO_ATT)).getCreatorUserId() == null ?
+            new Permission(DENIED, "creating Job as administrator, creator user ID (Pet Owner) must be specified") :
+            null),
+
+    DENY_JOB_DTO_ID_MISMATCH((attributes, session) -> {
+
+        var jobId = attributes.get(JOB_ID_ATT);
+        var jobDtoId = ((JobDto) attributes.get(JOB_DTO_ATT)).getId();
+
+        return jobDtoId != null && !jobDtoId.equals(jobId) ?
+            new Permission(DENIED, "Job ID %s".formatted(jobId)) : null;
+    }),
+
+    DENY_JOB_DTO_CREATOR_USER_ID_MISMATCH((attributes, session) -> {
+
+        var jobDtoCreatorUserId = ((JobDto) attributes.get(JOB_DTO_ATT)).getCreatorUserId();
+
+        return jobDtoCreatorUserId != null && !jobDtoCreatorUserId.equals(attributes.get(JOB_OWNER_ID_ATT)) ?
+            new Permission(DENIED, "Job creator user ID, Job %s".formatted(attributes.get(JOB_ID_ATT))) : null;
+    }),
+
+    GRANT_IF_JOB_OWNER((attributes, session) ->
+        session.userId().equals(attributes.get(JOB_OWNER_ID_ATT)) ? Permission.IS_GRANTED : null),
+
+
+    REQUIRE_JOB_APPLICATION_OWNER_ID_OR_JOB_OWNER_ID((attributes, session) ->
+        attributes.get(JOB_APPLICATION_OWNER_ID_ATT) instanceof UUID ||
+        attributes.get(JOB_OWNER_ID_ATT) instanceof UUID ? null : Permission.IS_DENIED),
+
+    REQUIRE_JOB_APPLICATION_OWNER_ID_AND_JOB_APPLICATION_DTO((attributes, session) ->
+        attributes.get(JOB_APPLICATION_OWNER_ID_ATT) instanceof UUID &&
+        attributes.get(JOB_APPLICATION_DTO_ATT) instanceof JobApplicationDto ? null : Permission.IS_DENIED),
+
+    REQUIRE_JOB_APPLICATION_AND_JOB_APPLICATION_DTO((attributes, session) ->
+        attributes.get(JOB_APPLICATION_ATT) instanceof JobApplication &&
+        attributes.get(JOB_APPLICATION_DTO_ATT) instanceof JobApplicationDto ? null : Permission.IS_DENIED),
+
+    DENY_JOB_APPLICATION_DTO_WITH_ID((attributes, session) -> {
+
+        var jobApplicationDtoId = ((JobApplicationDto) attributes.get(JOB_APPLICATION_DTO_ATT)).getId();
+
+        return jobApplicationDtoId != null ?
+            new Permission(DENIED, "Job Application with ID %s".formatted(jobApplicationDtoId)) : null;
+    }),
+
+    DENY_JOB_APPLICATION_DTO_WITHOUT_STATUS((attributes, session) ->
+        ((JobApplicationDto) attributes.get(JOB_APPLICATION_DTO_ATT)).getStatus() == null ?
+            new Permission(DENIED, "Job Application status must be specified") : null),
+
+    DENY_JOB_APPLICATION_DTO_WITHOUT_USER_ID((attributes, session) ->
+        ((JobApplicationDto) attributes.get(JOB_APPLICATION_DTO_ATT)).getUserId() == null ?
+            new Permission(DENIED,
+                "creating Job Application as administrator, user ID (Pet Sitter) must be specified") : null),
+
+    GRANT_IF_JOB_APPLICATION_OWNER((attributes, session) ->
+        session.userId().equals(attributes.get(JOB_APPLICATION_OWNER_ID_ATT)) ? Permission.IS_GRANTED : null),
+
+    GRANT_IF_JOB_APPLICATION_OWNER_AND_PENDING((attributes, session) ->
+        session.userId().equals(attributes.get(JOB_APPLICATION_OWNER_ID_ATT)) &&
+        ((JobApplicationDto) attributes.get(JOB_APPLICATION_DTO_ATT)).getStatus() == PENDING ?
+            Permission.IS_GRANTED : null),
+
+    DENY_IF_JOB_APPLICATION_OWNER_AND_NOT_PENDING((attributes, session) ->
+        session.userId().equals(attributes.get(JOB_APPLICATION_OWNER_ID_ATT)) &&
+        ((JobApplicationDto) attributes.get(JOB_APPLICATION_DTO_ATT)).getStatus() != PENDING ?
+            new Permission(DENIED, "Job Application status must equal %s".formatted(PENDING)) : null),
+
+    DENY_JOB_APPLICATION_DTO_ID_MISMATCH((attributes, session) -> {
+
+        var jobApplicationId = ((JobApplication) attributes.get(JOB_APPLICATION_ATT)).getId();
+        var jobApplicationDtoId = ((JobApplicationDto) attributes.get(JOB_APPLICATION_DTO_ATT)).getId();
+
+        return jobApplicationDtoId != null && !jobApplicationDtoId.equals(jobApplicationId) ?
+            new Permission(DENIED, "Job Application ID %s".formatted(jobApplicationId)) : null;
+    }),
+
+    DENY_JOB_APPLICATION_DTO_USER_ID_MISMATCH((attributes, session) -> {
+
+        var jobApplication = (JobApplication) attributes.get(JOB_APPLICATION_ATT);
+        var jobApplicationDtoUserId = ((JobApplicationDto) attributes.get(JOB_APPLICATION_DTO_ATT)).getUserId();
+
+        return jobApplicationDtoUserId != null &&
+               !jobApplicationDtoUserId.equals(jobApplication.getApplicationOwner().getId()) ?
+
+            new Permission(DENIED, "Job Application user ID. Job Application %s".formatted(jobApplication.getId())) :
+            null;
+    }),
+
+    DENY_JOB_APPLICATION_DTO_JOB_ID_MISMATCH((attributes, session) -> {
+
+        var jobApplication = (JobApplication) attributes.get(JOB_APPLICATION_ATT);
+        var jobApplicationDtoJobId = ((JobApplicationDto) attributes.get(JOB_APPLICATION_DTO_ATT)).getJobId();
+
+        return jobApplicationDtoJobId != null &&
+               !jobApplicationDtoJobId.equals(jobApplication.getApplicationJob().getId()) ?
+
+            new Permission(DENIED, "Job Application Job ID. Job Application %s".formatted(jobApplication.getId())) :
+            null;
+    }),
+
+    GRANT_IF_APPLICANT_WITH_PET_SITTER_STATUS((attributes, session) ->
+        isApplicant(attributes, session) &&
+        Statuses.PET_SITTER.contains(((JobApplicationDto) attributes.get(JOB_APPLICATION_DTO_ATT)).getStatus()) ?
+            Permission.IS_GRANTED : null),
+
+    GRANT_IF_APPLICATION_JOB_OWNER_WITH_PET_OWNER_STATUS((attributes, session) ->
+        isApplicationJobOwner(attributes, session) &&
+        Statuses.PET_OWNER.contains(((JobApplicationDto) attributes.get(JOB_APPLICATION_DTO_ATT)).getStatus()) ?
+            Permission.IS_GRANTED : null),
+
+    DENY_IF_APPLICANT_WITH_INVALID_STATUS((attributes, session) ->
+        isApplicant(attributes, session) ?
+            new Permission(DENIED, "modifying Job Application as Pet Sitter, status must be in %s"
+                .formatted(Statuses.PET_SITTER)) : null),
+
+    DENY_IF_APPLICATION_JOB_OWNER_WITH_INVALID_STATUS((attributes, session) ->
+        isApplicationJobOwner(attributes, session) ?
+            new Permission(DENIED, "modifying Job Application as Pet Owner, status must be in %s"
+                .formatted(Statuses.PET_OWNER)) : null);
+
+    private final Rule rule;
+
+    PermissionCondition(Rule rule) {
+        this.rule = rule;
+    }
+
+    Permission evaluate(Map<Permission.Attribute, Object> attributes, Session session) {
+        return rule.evaluate(attributes, session);
+    }
+
+    private static boolean isApplicant(Map<Permission.Attribute, Object> attributes, Session session) {
+
+        return session.userId().equals(
+            ((JobApplication) attributes.get(JOB_APPLICATION_ATT)).getApplicationOwner().getId());
+    }
+
+    private static boolean isApplicationJobOwner(Map<Permission.Attribute, Object> attributes, Session session) {
+
+        return session.userId().equals(
+            ((JobApplication) attributes.get(JOB_APPLICATION_ATT)).getApplicationJob().getJobOwner().getId());
+    }
+
+    @FunctionalInterface
+    private interface Rule {
+
+        Permission evaluate(Map<Permission.Attribute, Object> attributes, Session session);
+    }
+
+    private static class Statuses {
+
+        static final List<JobApplication.JobApplicationStatus> PET_SITTER = List.of(PENDING, WITHDRAWN);
+        static final List<JobApplication.JobApplicationStatus> PET_OWNER = List.of(ACCEPTED, PENDING, REJECTED);
+    }
+}
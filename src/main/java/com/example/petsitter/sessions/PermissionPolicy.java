@@ -0,0 +1,196 @@
+package com.example.petsitter.sessions;
+
+import com.example.petsitter.users.User.UserRole;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Permission policy compiled into a flat decision table indexed by resource, action and session role mask. Each entry
+ * holds the ordered conditions of the policy that apply to that role mask. The first condition to decide wins, if no
+ * condition decides the permission is denied.
+ */
+final class PermissionPolicy {
+
+    static final String DEFAULT_LOCATION = "permission-policy.yaml";
+
+    static final String ANONYMOUS = "ANONYMOUS";
+
+    private static final UserRole[] ROLES = UserRole.values();
+
+    private static final int ANONYMOUS_MASK = 1 << ROLES.length;
+    private static final int MASK_COUNT = ANONYMOUS_MASK + 1;
+
+    private static final int ACTION_COUNT = Permission.Action.values().length;
+
+    private static final PermissionCondition[] NO_CONDITIONS = {};
+
+    private final PermissionCondition[][] table;
+
+    private PermissionPolicy(PermissionCondition[][] table) {
+        this.table = table;
+    }
+
+    Permission evaluate(Permission.Action action, Permission.Resource resource,
+                        Map<Permission.Attribute, Object> attributes, Session session) {
+
+        var mask = session != null ? roleMask(session.roles()) : ANONYMOUS_MASK;
+
+        for (var condition : table[index(resource, action, mask)]) {
+
+            var permission = condition.evaluate(attributes, session);
+
+            if (permission != null) {
+                return permission;
+            }
+        }
+
+        return Permission.IS_DENIED;
+    }
+
+    static PermissionPolicy loadDefault() {
+
+        try (var inputStream = PermissionPolicy.class.getClassLoader().getResourceAsStream(DEFAULT_LOCATION)) {
+
+            if (inputStream == null) {
+                throw new IllegalStateException("Cannot find permission policy %s".formatted(DEFAULT_LOCATION));
+            }
+
+            return load(inputStream);
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Cannot read permission policy %s".formatted(DEFAULT_LOCATION), e);
+        }
+    }
+
+    static PermissionPolicy load(InputStream inputStream) {
+
+        Object document = new Yaml().load(inputStream);
+
+        if (!(document instanceof Map<?, ?> resources)) {
+            throw new IllegalArgumentException("Permission policy must map resources to actions");
+        }
+
+        var table = new PermissionCondition[Permission.Resource.values().length * ACTION_COUNT * MASK_COUNT][];
+
+        for (var resourceEntry : resources.entrySet()) {
+
+            var resource = Permission.Resource.valueOf(String.valueOf(resourceEntry.getKey()));
+
+            if (!(resourceEntry.getValue() instanceof Map<?, ?> actions)) {
+                throw new IllegalArgumentException("Permission policy resource %s must map actions to rules"
+                    .formatted(resource));
+            }
+
+            for (var actionEntry : actions.entrySet()) {
+
+                var action = Permission.Action.valueOf(String.valueOf(actionEntry.getKey()));
+
+                if (!(actionEntry.getValue() instanceof List<?> rules)) {
+                    throw new IllegalArgumentException("Permission policy %s.%s must be a list of rules"
+                        .formatted(resource, action));
+                }
+
+                compile(table, resource, action, rules.stream().map(PolicyRule::of).toList());
+            }
+        }
+
+        for (int i = 0; i < table.length; i++) {
+
+            if (table[i] == null) {
+                table[i] = NO_CONDITIONS;
+            }
+        }
+
+        return new PermissionPolicy(table);
+    }
+
+    private static void compile(PermissionCondition[][] table, Permission.Resource resource,
+                                Permission.Action action, List<PolicyRule> rules) {
+
+        for (int mask = 0; mask < MASK_COUNT; mask++) {
+
+            var conditions = new ArrayList<PermissionCondition>();
+
+            for (var rule : rules) {
+
+                if (rule.appliesTo(mask)) {
+                    conditions.add(rule.condition());
+                }
+            }
+
+            table[index(resource, action, mask)] = conditions.toArray(NO_CONDITIONS);
+        }
+    }
+
+    private static int index(Permission.Resource resource, Permission.Action action, int mask) {
+        return (resource.ordinal() * ACTION_COUNT + action.ordinal()) * MASK_COUNT + mask;
+    }
+
+    private static int roleMask(Set<UserRole> roles) {
+
+        var mask = 0;
+
+        for (var role : ROLES) {
+
+            if (roles.contains(role)) {
+                mask |= 1 << role.ordinal();
+            }
+        }
+
+        return mask;
+    }
+
+    /**
+     * A rule applies to a session holding any of its roles. A rule without roles applies to every session, but not to
+     * anonymous requests.
+     */
+    private record PolicyRule(int roleMask, boolean anonymous, PermissionCondition condition) {
+
+        static PolicyRule of(Object rule) {
+
+            if (!(rule instanceof Map<?, ?> ruleMap) || !(ruleMap.get("condition") instanceof String condition)) {
+                throw new IllegalArgumentException("Permission policy rule %s must specify a condition"
+                    .formatted(rule));
+            }
+
+            var roleMask = 0;
+            var anonymous = false;
+
+            if (ruleMap.get("roles") instanceof List<?> roles) {
+
+                for (var role : roles) {
+
+                    if (ANONYMOUS.equals(role)) {
+                        anonymous = true;
+                    }
+                    else {
+                        roleMask |= 1 << UserRole.valueOf(String.valueOf(role)).ordinal();
+                    }
+                }
+            }
+            else if (ruleMap.get("roles") != null) {
+                throw new IllegalArgumentException("Permission policy rule %s roles must be a list".formatted(rule));
+            }
+            else {
+                roleMask = -1;
+            }
+
+            return new PolicyRule(roleMask, anonymous, PermissionCondition.valueOf(condition));
+        }
+
+        boolean appliesTo(int mask) {
+
+            if (mask == ANONYMOUS_MASK) {
+                return anonymous;
+            }
+
+            return roleMask == -1 || (roleMask & mask) != 0;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.petsitter.sessions;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+
+@Configuration
+@EnableScheduling
+@Slf4j
+class PermissionPolicyConfig {
+
+    private final Resource policyResource;
+
+    private long policyLastModified;
+
+    PermissionPolicyConfig(@Value("${petsitter.permissions.policy-location}") Resource policyResource)
+        throws IOException {
+
+        this.policyResource = policyResource;
+
+        try (var inputStream = policyResource.getInputStream()) {
+            Permissions.setPolicy(PermissionPolicy.load(inputStream));
+        }
+
+        policyLastModified = lastModified();
+    }
+
+    @Scheduled(fixedDelayString = "${petsitter.permissions.reload-interval-ms}",
+        initialDelayString = "${petsitter.permissions.reload-interval-ms}")
+    synchronized void reloadPolicyIfModified() {
+
+        var lastModified = lastModified();
+
+        if (lastModified == policyLastModified) {
+            return;
+        }
+
+        try (var inputStream = policyResource.getInputStream()) {
+
+            Permissions.setPolicy(PermissionPolicy.load(inputStream));
+
+            log.info("Reloaded permission policy {}", policyResource);
+        }
+        catch (IOException | RuntimeException e) {
+
+            // keep evaluating the current policy until the policy file is corrected
+            log.error("Cannot reload permission policy {}, current policy retained", policyResource, e);
+        }
+
+        policyLastModified = lastModified;
+    }
+
+    private long lastModified() {
+
+        try {
+            return policyResource.lastModified();
+        }
+        catch (IOException e) {
+            return policyLastModified;
+        }
+    }
+}
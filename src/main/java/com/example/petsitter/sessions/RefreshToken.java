@@ -0,0 +1,47 @@
+package com.example.petsitter.sessions;
+
+import com.example.petsitter.users.User;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Server side record of an opaque refresh token. Only the SHA-256 hash of the token is stored. Every token issued by
+ * rotation shares the family id of the token issued at login, so reuse of a rotated token can revoke the family.
+ */
+@Entity
+@Table(name = "Refresh_Tokens", indexes = {
+    @Index(name = "refresh_tokens_family_id_idx", columnList = "family_id"),
+    @Index(name = "refresh_tokens_user_id_idx", columnList = "user_id")
+})
+@Data
+class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Setter(AccessLevel.NONE)
+    private UUID id;
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 43)
+    @NotNull
+    private String tokenHash;
+
+    @Column(name = "family_id", nullable = false)
+    @NotNull
+    private UUID familyId;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "expires_at", nullable = false)
+    @NotNull
+    private Instant expiresAt;
+
+    private boolean used;
+}
@@ -0,0 +1,102 @@
+package com.example.petsitter.sessions;
+
+import com.example.petsitter.users.UserInfrastructureService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.RepositoryDefinition;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+class RefreshTokenRepository {
+
+    private final JpaRefreshTokenRepository jpaRefreshTokenRepository;
+
+    private final UserInfrastructureService userInfrastructureService;
+
+    void deleteByFamilyId(UUID familyId) {
+
+        jpaRefreshTokenRepository.deleteByFamilyId(familyId);
+    }
+
+    void deleteByUserId(UUID userId) {
+
+        jpaRefreshTokenRepository.deleteByUserId(userId);
+    }
+
+    int deleteExpired(Instant now) {
+
+        return jpaRefreshTokenRepository.deleteByExpiresAtBefore(now);
+    }
+
+    Optional<RefreshToken> findWithUserAndRolesByTokenHash(String tokenHash) {
+
+        return jpaRefreshTokenRepository.findWithUserAndRolesByTokenHash(tokenHash);
+    }
+
+    /**
+     * @return true if the token was unused and is now marked used, false if it had already been used
+     */
+    boolean markUsed(UUID id) {
+
+        return jpaRefreshTokenRepository.markUsedById(id) == 1;
+    }
+
+    void save(UUID userId, UUID familyId, String tokenHash, Instant expiresAt) {
+
+        var refreshToken = new RefreshToken();
+
+        refreshToken.setUser(userInfrastructureService.getReferenceById(userId));
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setTokenHash(tokenHash);
+        refreshToken.setExpiresAt(expiresAt);
+
+        jpaRefreshTokenRepository.save(refreshToken);
+    }
+}
+
+@RepositoryDefinition(domainClass = RefreshToken.class, idClass = UUID.class)
+interface JpaRefreshTokenRepository {
+
+    @Modifying
+    @Query("""
+        DELETE FROM RefreshToken rt
+         WHERE rt.familyId = :familyId
+        """)
+    void deleteByFamilyId(@Param("familyId") UUID familyId);
+
+    @Modifying
+    @Query("""
+        DELETE FROM RefreshToken rt
+         WHERE rt.user.id = :userId
+        """)
+    void deleteByUserId(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query("""
+        DELETE FROM RefreshToken rt
+         WHERE rt.expiresAt < :now
+        """)
+    int deleteByExpiresAtBefore(@Param("now") Instant now);
+
+    @EntityGraph(type = EntityGraph.EntityGraphType.LOAD, attributePaths = {"user", "user.roles"})
+    Optional<RefreshToken> findWithUserAndRolesByTokenHash(String tokenHash);
+
+    @Modifying
+    @Query("""
+        UPDATE RefreshToken rt
+           SET rt.used = true
+         WHERE rt.id = :id
+           AND rt.used = false
+        """)
+    int markUsedById(@Param("id") UUID id);
+
+    RefreshToken save(RefreshToken refreshToken);
+}
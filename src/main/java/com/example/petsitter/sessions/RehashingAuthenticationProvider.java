@@ -0,0 +1,54 @@
+package com.example.petsitter.sessions;
+
+import com.example.petsitter.users.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+/**
+ * Authenticates like {@link DaoAuthenticationProvider}, but a stored hash whose encoding is out of date (e.g. a bcrypt
+ * cost below the calibrated cost) is re-encoded from the presented password in the background instead of making the
+ * login wait for a second hash.
+ */
+@Slf4j
+class RehashingAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final BulkheadPasswordEncoder passwordEncoder;
+
+    private final UserService userService;
+
+    RehashingAuthenticationProvider(UserDetailsService userDetailsService, BulkheadPasswordEncoder passwordEncoder,
+                                    UserService userService) {
+
+        super(passwordEncoder);
+
+        setUserDetailsService(userDetailsService);
+
+        this.passwordEncoder = passwordEncoder;
+        this.userService = userService;
+    }
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication,
+                                                         UserDetails user) {
+
+        if (user instanceof SessionConfig.SecurityInfrastructureUser securityInfrastructureUser &&
+            authentication.getCredentials() != null &&
+            passwordEncoder.upgradeEncoding(user.getPassword())) {
+
+            var userId = securityInfrastructureUser.getId();
+            var encodedPassword = user.getPassword();
+
+            var submitted = passwordEncoder.tryEncodeInBackground(authentication.getCredentials().toString(),
+                rehashedPassword -> userService.updatePasswordIfUnchanged(userId, encodedPassword, rehashedPassword));
+
+            if (!submitted) {
+                log.debug("Hashing capacity exhausted, rehash of password for user {} deferred", userId);
+            }
+        }
+
+        return super.createSuccessAuthentication(principal, authentication, user);
+    }
+}
@@ -3,16 +3,18 @@ package com.example.petsitter.sessions;
 import com.example.petsitter.common.Email;
 import com.example.petsitter.users.UserDto;
 import com.example.petsitter.users.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
-import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -25,8 +27,9 @@ import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
@@ -34,6 +37,7 @@ import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.oauth2.server.resource.web.BearerTokenAuthenticationEntryPoint;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.oauth2.server.resource.web.access.BearerTokenAccessDeniedHandler;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.stereotype.Service;
@@ -44,8 +48,10 @@ import java.security.NoSuchAlgorithmException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import static com.example.petsitter.users.User.UserRole.ADMIN;
 import static org.springframework.boot.autoconfigure.security.servlet.PathRequest.toH2Console;
 
 @Configuration
@@ -69,19 +75,25 @@ class SessionConfig {
     }
 
     @Bean
-    SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationConfiguration authenticationConfiguration)
+    SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationConfiguration authenticationConfiguration,
+                                            LoginRateLimiter loginRateLimiter, ObjectMapper objectMapper)
         throws Exception {
 
         http
             .authorizeHttpRequests(authorize -> authorize
                 .requestMatchers(toH2Console()).permitAll()
+                .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
+                .requestMatchers(EndpointRequest.to("demodata")).hasAuthority(ADMIN.name())
                 .requestMatchers(HttpMethod.GET, "/api-docs.yaml", "/api-docs/**", "/swagger-ui/**").permitAll()
-                .requestMatchers(HttpMethod.POST, "/users", "/sessions").permitAll()
+                .requestMatchers(HttpMethod.POST, "/users", "/sessions", "/sessions/refresh").permitAll()
+                .requestMatchers(HttpMethod.GET, "/users/email-availability").permitAll()
                 .anyRequest().authenticated()
             )
             .csrf(AbstractHttpConfigurer::disable)
             .headers(headers -> headers.frameOptions(HeadersConfigurer.FrameOptionsConfig::sameOrigin))
             .oauth2ResourceServer(oauth2 -> oauth2.jwt(Customizer.withDefaults()))
+            .addFilterBefore(new LoginRateLimitFilter(loginRateLimiter, objectMapper),
+                BearerTokenAuthenticationFilter.class)
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .exceptionHandling(exceptions -> exceptions
                 .authenticationEntryPoint(new BearerTokenAuthenticationEntryPoint())
@@ -105,18 +117,37 @@ class SessionConfig {
     @Bean
     AuthenticationManager authenticationManager(
         UserDetailsService userDetailsService,
-        PasswordEncoder passwordEncoder) {
+        BulkheadPasswordEncoder passwordEncoder,
+        UserService userService) {
 
-        DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
-        authenticationProvider.setUserDetailsService(userDetailsService);
-        authenticationProvider.setPasswordEncoder(passwordEncoder);
+        return new ProviderManager(
+            new RehashingAuthenticationProvider(userDetailsService, passwordEncoder, userService));
+    }
+
+    @Bean
+    @Primary
+    BulkheadPasswordEncoder passwordEncoder(DelegatingPasswordEncoder delegatingPasswordEncoder,
+                                            PasswordHashingBulkhead passwordHashingBulkhead) {
 
-        return new ProviderManager(authenticationProvider);
+        return new BulkheadPasswordEncoder(delegatingPasswordEncoder, passwordHashingBulkhead);
     }
 
+    /**
+     * Hashes on the calling thread. Request handling uses the primary encoder, which hashes on the bulkhead; this one
+     * is for batch work that brings its own executor, such as bulk user import.
+     */
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    DelegatingPasswordEncoder delegatingPasswordEncoder(BCryptCostCalibration bCryptCostCalibration) {
+
+        var bCryptId = "bcrypt";
+
+        var passwordEncoder = new DelegatingPasswordEncoder(bCryptId,
+            Map.of(bCryptId, new BCryptPasswordEncoder(bCryptCostCalibration.getCost())));
+
+        // hashes in any other supported encoding still match, and are upgraded to bcrypt on login
+        passwordEncoder.setDefaultPasswordEncoderForMatches(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+
+        return passwordEncoder;
     }
 
     @Service
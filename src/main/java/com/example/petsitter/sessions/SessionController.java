@@ -16,8 +16,10 @@ import jakarta.validation.constraints.Size;
 import lombok.Builder;
 import lombok.RequiredArgsConstructor;
 import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -27,10 +29,18 @@ import org.springframework.security.oauth2.jwt.JwsHeader;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Base64;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -44,6 +54,8 @@ class SessionController {
 
     private final JwtEncoder jwtEncoder;
 
+    private final SessionServiceInternal sessionServiceInternal;
+
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(summary = "Start Session (Login)")
@@ -62,7 +74,8 @@ class SessionController {
             """
             {
               "user_id": "3fa85f64-5717-4562-b3fc-2c963f66afa6",
-              "auth_header": "Bearer eyJhbGciOiJIUzI1NiJ9.eyJp..."
+              "auth_header": "Bearer eyJhbGciOiJIUzI1NiJ9.eyJp...",
+              "refresh_token": "mF7s0kqPZ0r4bq1Y3n0Qm0Xb8o9oJx2oQ7o9mB3oD1c"
             }
             """
         )})
@@ -85,14 +98,53 @@ class SessionController {
             throw new RuntimeException("Unable to create Security Infrastructure User");
         }
 
-        var userId = user.getId();
-
-        var now = Instant.now();
-
         var scope = authentication.getAuthorities().stream()
             .map(GrantedAuthority::getAuthority)
             .collect(Collectors.joining(" "));
 
+        return new SessionResponseDto(user.getId(), authHeader(user.getId(), scope),
+            sessionServiceInternal.createRefreshToken(user.getId()));
+    }
+
+    @PostMapping(path = "/refresh", consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Refresh Session",
+        description = "Exchanges a refresh token for a new session. Each refresh token can be used once; reusing one " +
+            "revokes every refresh token issued since the login it descends from.")
+    @SecurityRequirements
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(examples = {
+        @ExampleObject(value =
+            """
+            {
+              "refresh_token": "mF7s0kqPZ0r4bq1Y3n0Qm0Xb8o9oJx2oQ7o9mB3oD1c"
+            }
+            """)})
+    )
+    @ApiResponse(responseCode = "201", description = "Session", content = @Content(
+        schema = @Schema(implementation = SessionResponseDto.class), examples = {@ExampleObject(value =
+            """
+            {
+              "user_id": "3fa85f64-5717-4562-b3fc-2c963f66afa6",
+              "auth_header": "Bearer eyJhbGciOiJIUzI1NiJ9.eyJp...",
+              "refresh_token": "Yq2xv6Vb1tQ9kPz8cL0sJd4hN7wR3eU5mA6fG2iK8oB"
+            }
+            """
+        )})
+    )
+    @ApiProblemResponse(responseCode = "401", description = "Unauthorized")
+    SessionResponseDto refreshSession(@Valid @RequestBody RefreshSessionRequestDto refreshSessionRequestDto) {
+
+        var refreshedSession = sessionServiceInternal.refreshSession(refreshSessionRequestDto.getRefreshToken());
+
+        return new SessionResponseDto(refreshedSession.userId(),
+            authHeader(refreshedSession.userId(), refreshedSession.scope()), refreshedSession.refreshToken());
+    }
+
+    private String authHeader(UUID userId, String scope) {
+
+        var now = Instant.now();
+
         var jwtClaimsSet = JwtClaimsSet.builder()
             .issuer("self")
             .issuedAt(now)
@@ -103,8 +155,118 @@ class SessionController {
 
         var jwsHeader = JwsHeader.with(MacAlgorithm.HS256).build();
 
-        return new SessionResponseDto(userId, "Bearer %s"
-            .formatted(jwtEncoder.encode(JwtEncoderParameters.from(jwsHeader, jwtClaimsSet)).getTokenValue()));
+        return "Bearer %s"
+            .formatted(jwtEncoder.encode(JwtEncoderParameters.from(jwsHeader, jwtClaimsSet)).getTokenValue());
+    }
+}
+
+interface SessionServiceInternal {
+
+    String createRefreshToken(UUID userId);
+
+    RefreshedSession refreshSession(String refreshToken);
+
+    record RefreshedSession(UUID userId, String scope, String refreshToken) {}
+}
+
+@Service
+@Transactional(readOnly = true)
+@Slf4j
+class SessionServiceInternalImpl implements SessionServiceInternal {
+
+    private static final int REFRESH_TOKEN_BYTES = 32;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final Duration refreshTokenTimeToLive;
+
+    SessionServiceInternalImpl(RefreshTokenRepository refreshTokenRepository,
+                               @org.springframework.beans.factory.annotation.Value(
+                                   "${petsitter.refresh-tokens.time-to-live}") Duration refreshTokenTimeToLive) {
+
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokenTimeToLive = refreshTokenTimeToLive;
+    }
+
+    @Override
+    @Transactional
+    public String createRefreshToken(UUID userId) {
+
+        var refreshToken = generateRefreshToken();
+
+        refreshTokenRepository.save(userId, UUID.randomUUID(), hash(refreshToken),
+            Instant.now().plus(refreshTokenTimeToLive));
+
+        return refreshToken;
+    }
+
+    @Override
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public RefreshedSession refreshSession(String refreshToken) {
+
+        var storedRefreshToken = refreshTokenRepository.findWithUserAndRolesByTokenHash(hash(refreshToken))
+            .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+
+        var now = Instant.now();
+
+        if (!storedRefreshToken.getExpiresAt().isAfter(now)) {
+            throw new BadCredentialsException("Expired refresh token");
+        }
+
+        if (!refreshTokenRepository.markUsed(storedRefreshToken.getId())) {
+
+            refreshTokenRepository.deleteByFamilyId(storedRefreshToken.getFamilyId());
+
+            throw new BadCredentialsException("Reused refresh token, session revoked");
+        }
+
+        var user = storedRefreshToken.getUser();
+
+        var scope = user.getRoles().stream()
+            .map(Enum::name)
+            .collect(Collectors.joining(" "));
+
+        var rotatedRefreshToken = generateRefreshToken();
+
+        refreshTokenRepository.save(user.getId(), storedRefreshToken.getFamilyId(), hash(rotatedRefreshToken),
+            now.plus(refreshTokenTimeToLive));
+
+        return new RefreshedSession(user.getId(), scope, rotatedRefreshToken);
+    }
+
+    @Scheduled(fixedDelayString = "${petsitter.refresh-tokens.purge-interval}")
+    @Transactional
+    public void purgeExpiredRefreshTokens() {
+
+        var purged = refreshTokenRepository.deleteExpired(Instant.now());
+
+        if (purged > 0) {
+            log.debug("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    private String generateRefreshToken() {
+
+        var bytes = new byte[REFRESH_TOKEN_BYTES];
+
+        secureRandom.nextBytes(bytes);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String hash(String refreshToken) {
+
+        try {
+
+            var digest = MessageDigest.getInstance("SHA-256").digest(refreshToken.getBytes(StandardCharsets.UTF_8));
+
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
     }
 }
 
@@ -123,10 +285,23 @@ class SessionRequestDto {
     String password;
 }
 
+@Value
+@Builder
+@Schema(name = "RefreshSessionRequest")
+class RefreshSessionRequestDto {
+
+    @NotBlank
+    @Size(max = 64)
+    String refreshToken;
+}
+
 @Schema(name = "Session")
 record SessionResponseDto(
 
     @Schema(accessMode = Schema.AccessMode.READ_ONLY)
     UUID userId,
 
-    @Schema(accessMode = Schema.AccessMode.READ_ONLY, description = "apiKey (Bearer token)") String authHeader) {}
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY, description = "apiKey (Bearer token)") String authHeader,
+
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY, description = "Single use token for POST /sessions/refresh")
+    String refreshToken) {}
@@ -1,18 +1,23 @@
 package com.example.petsitter.sessions;
 
 import com.example.petsitter.users.User.UserRole;
+import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
+@RequiredArgsConstructor
 public class SessionService {
 
+    private final RefreshTokenRepository refreshTokenRepository;
+
     public Optional<Session> getCurrentSession() {
 
         if ( !(SecurityContextHolder.getContext().getAuthentication() instanceof
@@ -39,4 +44,10 @@ public class SessionService {
 
         return Optional.of(UUID.fromString(jwtAuthenticationToken.getName()));
     }
+
+    @Transactional
+    public void revokeRefreshTokensByUserId(UUID userId) {
+
+        refreshTokenRepository.deleteByUserId(userId);
+    }
 }
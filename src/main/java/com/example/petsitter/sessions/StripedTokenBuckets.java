@@ -0,0 +1,205 @@
+package com.example.petsitter.sessions;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by string, partitioned into lock stripes so concurrent requests for different keys rarely
+ * contend. Idle buckets are expired by a timing wheel per stripe: each bucket key sits in the wheel slot due at its
+ * expected expiry, and advancing the wheel only visits the keys of the current slot.
+ */
+class StripedTokenBuckets {
+
+    private final Stripe[] stripes;
+
+    private final int capacity;
+    private final double tokensPerNano;
+
+    private final long idleTimeoutNanos;
+    private final long tickNanos;
+
+    private final LongSupplier nanoClock;
+
+    StripedTokenBuckets(int stripeCount, int capacity, Duration refillPeriod, Duration idleTimeout, int wheelSlots,
+                        LongSupplier nanoClock) {
+
+        if (Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a power of two");
+        }
+
+        this.capacity = capacity;
+        this.tokensPerNano = (double) capacity / refillPeriod.toNanos();
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.tickNanos = Math.max(1, idleTimeoutNanos / wheelSlots);
+        this.nanoClock = nanoClock;
+
+        this.stripes = new Stripe[stripeCount];
+
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(wheelSlots);
+        }
+    }
+
+    /**
+     * Takes a token from the bucket for key.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until a token is available
+     */
+    long tryAcquire(String key) {
+
+        var stripe = stripeFor(key);
+
+        stripe.lock.lock();
+
+        try {
+
+            var now = nanoClock.getAsLong();
+
+            var bucket = stripe.buckets.get(key);
+
+            if (bucket == null) {
+
+                bucket = new TokenBucket(capacity, now);
+
+                stripe.buckets.put(key, bucket);
+                stripe.schedule(key, idleTimeoutNanos / tickNanos);
+            }
+
+            bucket.refill(now, tokensPerNano, capacity);
+
+            bucket.lastAccessNanos = now;
+
+            if (bucket.tokens >= 1) {
+
+                bucket.tokens -= 1;
+
+                return 0;
+            }
+
+            return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+        }
+        finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Advances the timing wheel of every stripe by one slot, removing buckets idle for longer than the idle timeout
+     * and rescheduling the others.
+     */
+    void advance() {
+
+        for (var stripe : stripes) {
+
+            stripe.lock.lock();
+
+            try {
+
+                var now = nanoClock.getAsLong();
+
+                stripe.cursor = (stripe.cursor + 1) % stripe.wheel.length;
+
+                var due = stripe.wheel[stripe.cursor];
+
+                if (due.isEmpty()) {
+                    continue;
+                }
+
+                stripe.wheel[stripe.cursor] = new ArrayList<>();
+
+                for (var key : due) {
+
+                    var bucket = stripe.buckets.get(key);
+
+                    var remainingNanos = bucket.lastAccessNanos + idleTimeoutNanos - now;
+
+                    if (remainingNanos <= 0) {
+                        stripe.buckets.remove(key);
+                    }
+                    else {
+                        stripe.schedule(key, Math.max(1, (remainingNanos + tickNanos - 1) / tickNanos));
+                    }
+                }
+            }
+            finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    int size() {
+
+        var size = 0;
+
+        for (var stripe : stripes) {
+
+            stripe.lock.lock();
+
+            try {
+                size += stripe.buckets.size();
+            }
+            finally {
+                stripe.lock.unlock();
+            }
+        }
+
+        return size;
+    }
+
+    private Stripe stripeFor(String key) {
+
+        var hash = key.hashCode();
+
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static class Stripe {
+
+        final ReentrantLock lock = new ReentrantLock();
+
+        final HashMap<String, TokenBucket> buckets = new HashMap<>();
+
+        final List<String>[] wheel;
+
+        int cursor;
+
+        @SuppressWarnings("unchecked")
+        Stripe(int wheelSlots) {
+
+            wheel = new List[wheelSlots];
+
+            for (int i = 0; i < wheelSlots; i++) {
+                wheel[i] = new ArrayList<>();
+            }
+        }
+
+        void schedule(String key, long ticks) {
+            wheel[(int) ((cursor + Math.min(ticks, wheel.length - 1)) % wheel.length)].add(key);
+        }
+    }
+
+    private static class TokenBucket {
+
+        double tokens;
+
+        long lastRefillNanos;
+        long lastAccessNanos;
+
+        TokenBucket(int capacity, long now) {
+
+            this.tokens = capacity;
+            this.lastRefillNanos = now;
+            this.lastAccessNanos = now;
+        }
+
+        void refill(long now, double tokensPerNano, int capacity) {
+
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+            lastRefillNanos = now;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.petsitter.users;
+
+import com.example.petsitter.common.journal.EventJournal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counting Bloom filter over the normalized email addresses of registered users. A negative answer means the address
+ * is definitely not registered; a positive answer has to be confirmed against the database.
+ * <p>
+ * Counters are four bits wide, packed sixteen to a word. A counter that reaches fifteen saturates and is never
+ * decremented again, so removals cannot cause false negatives. Additions are ignored until loading starts, as the
+ * load reads every user, and until the filter is loaded every address is a possible member and removals are ignored.
+ * <p>
+ * With a journal, additions and removals are also appended to it as the hash of the address, and the counters are
+ * snapshotted periodically, so a restart restores the filter from the snapshot and the later events instead of reading
+ * every user. Additions are applied before and removals after they are journaled, and snapshots are taken while
+ * appends wait: any event is then either in the snapshot or replayed, at worst both for an addition. Replay can only
+ * over-count, which costs false positives, never false negatives.
+ */
+@Component
+class EmailBloomFilter {
+
+    private static final int COUNTER_BITS = 4;
+    private static final int COUNTERS_PER_WORD = Long.SIZE / COUNTER_BITS;
+    private static final long COUNTER_MAX = (1L << COUNTER_BITS) - 1;
+
+    private static final byte ADDED = 1;
+    private static final byte REMOVED = 2;
+
+    private final AtomicLongArray words;
+
+    private final int counters;
+
+    private final int hashFunctions;
+
+    private volatile boolean loading;
+
+    private volatile boolean loaded;
+
+    @Nullable
+    private final EventJournal journal;
+
+    private final Counter definitelyAbsentCounter;
+    private final Counter confirmedPresentCounter;
+    private final Counter falsePositiveCounter;
+
+    @Autowired
+    EmailBloomFilter(MeterRegistry meterRegistry,
+                     @Value("${petsitter.users.email-filter.expected-insertions}") int expectedInsertions,
+                     @Value("${petsitter.users.email-filter.false-positive-probability}")
+                     double falsePositiveProbability,
+                     @Value("${petsitter.users.email-filter.journal.directory}") String journalDirectory,
+                     @Value("${petsitter.users.email-filter.journal.segment-size}") DataSize journalSegmentSize) {
+
+        this(meterRegistry, expectedInsertions, falsePositiveProbability, journalDirectory.isBlank() ? null :
+            new EventJournal(Path.of(journalDirectory), Math.toIntExact(journalSegmentSize.toBytes())));
+    }
+
+    EmailBloomFilter(MeterRegistry meterRegistry, int expectedInsertions, double falsePositiveProbability) {
+        this(meterRegistry, expectedInsertions, falsePositiveProbability, null);
+    }
+
+    /**
+     * Restores the filter from the journal if it holds a snapshot of a filter of the same size.
+     */
+    EmailBloomFilter(MeterRegistry meterRegistry, int expectedInsertions, double falsePositiveProbability,
+                     @Nullable EventJournal journal) {
+
+        var optimalCounters = Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) /
+            (Math.log(2) * Math.log(2)));
+
+        this.counters = (int) Math.min(Math.max(optimalCounters, COUNTERS_PER_WORD),
+            Integer.MAX_VALUE - COUNTERS_PER_WORD);
+        this.hashFunctions = Math.max(1, (int) Math.round((double) counters / expectedInsertions * Math.log(2)));
+        this.words = new AtomicLongArray((counters + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD);
+
+        this.definitelyAbsentCounter = lookupCounter(meterRegistry, "definitely_absent");
+        this.confirmedPresentCounter = lookupCounter(meterRegistry, "confirmed_present");
+        this.falsePositiveCounter = lookupCounter(meterRegistry, "false_positive");
+
+        Gauge.builder("petsitter.users.email.filter.false.positive.rate", this, EmailBloomFilter::falsePositiveRate)
+            .description("Share of lookups for unregistered addresses that the filter could not rule out")
+            .register(meterRegistry);
+
+        this.journal = journal;
+
+        if (journal != null) {
+            journal.readSnapshot().filter(this::restore).ifPresent(snapshot -> {
+
+                journal.replay(this::apply);
+
+                loading = true;
+                loaded = true;
+            });
+        }
+    }
+
+    void add(String emailNormalized) {
+
+        if (!loading) {
+            return;
+        }
+
+        var hash = hash(emailNormalized);
+
+        add(hash);
+
+        if (journal != null) {
+            journal.append(event(ADDED, hash));
+        }
+    }
+
+    void remove(String emailNormalized) {
+
+        if (!loaded) {
+            return;
+        }
+
+        var hash = hash(emailNormalized);
+
+        if (journal != null) {
+            journal.append(event(REMOVED, hash));
+        }
+
+        remove(hash);
+    }
+
+    boolean mightContain(String emailNormalized) {
+
+        if (!loaded) {
+            return true;
+        }
+
+        var hash = hash(emailNormalized);
+
+        for (int i = 0; i < hashFunctions; i++) {
+
+            if (counter(index(hash, i)) == 0) {
+
+                definitelyAbsentCounter.increment();
+
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Records the database answer for an address the filter could not rule out.
+     */
+    void recordProbableHit(boolean registered) {
+        (registered ? confirmedPresentCounter : falsePositiveCounter).increment();
+    }
+
+    void startLoading() {
+        loading = true;
+    }
+
+    void markLoaded() {
+        loaded = true;
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Snapshots the counters into the journal, which then drops the events before the snapshot.
+     */
+    @Scheduled(fixedDelayString = "${petsitter.users.email-filter.journal.snapshot-interval}",
+        initialDelayString = "${petsitter.users.email-filter.journal.snapshot-interval}")
+    void writeSnapshot() {
+
+        if (journal == null || !loaded) {
+            return;
+        }
+
+        journal.writeSnapshot(2 * Integer.BYTES + words.length() * Long.BYTES, snapshot -> {
+
+            snapshot.putInt(counters).putInt(hashFunctions);
+
+            for (int i = 0; i < words.length(); i++) {
+                snapshot.putLong(words.get(i));
+            }
+        });
+    }
+
+    double falsePositiveRate() {
+
+        var falsePositives = falsePositiveCounter.count();
+        var negatives = falsePositives + definitelyAbsentCounter.count();
+
+        return negatives == 0 ? 0 : falsePositives / negatives;
+    }
+
+    private boolean restore(ByteBuffer snapshot) {
+
+        if (snapshot.remaining() != 2 * Integer.BYTES + words.length() * Long.BYTES ||
+            snapshot.getInt(0) != counters || snapshot.getInt(Integer.BYTES) != hashFunctions) {
+
+            return false;
+        }
+
+        for (int i = 0; i < words.length(); i++) {
+            words.set(i, snapshot.getLong(2 * Integer.BYTES + i * Long.BYTES));
+        }
+
+        return true;
+    }
+
+    private void apply(ByteBuffer event) {
+
+        if (event.get(0) == ADDED) {
+            add(event.getLong(1));
+        } else {
+            remove(event.getLong(1));
+        }
+    }
+
+    private void add(long hash) {
+
+        for (int i = 0; i < hashFunctions; i++) {
+            increment(index(hash, i));
+        }
+    }
+
+    private void remove(long hash) {
+
+        for (int i = 0; i < hashFunctions; i++) {
+            decrement(index(hash, i));
+        }
+    }
+
+    private void increment(int index) {
+
+        int wordIndex = index / COUNTERS_PER_WORD;
+        int shift = (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+
+        words.getAndUpdate(wordIndex, word ->
+            ((word >>> shift) & COUNTER_MAX) == COUNTER_MAX ? word : word + (1L << shift));
+    }
+
+    private void decrement(int index) {
+
+        int wordIndex = index / COUNTERS_PER_WORD;
+        int shift = (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+
+        words.getAndUpdate(wordIndex, word -> {
+
+            var counter = (word >>> shift) & COUNTER_MAX;
+
+            return counter == 0 || counter == COUNTER_MAX ? word : word - (1L << shift);
+        });
+    }
+
+    private long counter(int index) {
+        return (words.get(index / COUNTERS_PER_WORD) >>> ((index % COUNTERS_PER_WORD) * COUNTER_BITS)) & COUNTER_MAX;
+    }
+
+    private int index(long hash, int i) {
+
+        // double hashing: the i-th index is h1 + i * h2
+        int combined = (int) hash + i * (int) (hash >>> 32);
+
+        return Math.floorMod(combined, counters);
+    }
+
+    private static long hash(String value) {
+
+        // FNV-1a followed by the MurmurHash3 finalizer to spread the bits of short, similar addresses
+        long hash = 0xcbf29ce484222325L;
+
+        for (int i = 0; i < value.length(); i++) {
+
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+
+    private static ByteBuffer event(byte type, long hash) {
+        return ByteBuffer.allocate(Byte.BYTES + Long.BYTES).put(type).putLong(hash).flip();
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+
+        return Counter.builder("petsitter.users.email.filter.lookups")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.petsitter.users;
 
 import com.example.petsitter.common.audit.AuditMetaData;
+import com.example.petsitter.common.audit.RecordChanges;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -10,17 +11,24 @@ import lombok.AccessLevel;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.util.Set;
 import java.util.UUID;
 
 @Entity
+@DynamicUpdate
+@RecordChanges(maskedFields = "password")
 @EntityListeners(AuditingEntityListener.class)
-@Table(name = "Users")
+@Table(name = "Users", uniqueConstraints = {
+    @UniqueConstraint(name = User.EMAIL_NORMALIZED_UNIQUE_CONSTRAINT, columnNames = "email_normalized")
+})
 @Data
 public class User {
 
+    static final String EMAIL_NORMALIZED_UNIQUE_CONSTRAINT = "users_email_normalized_uk";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     @Setter(AccessLevel.NONE)
@@ -30,6 +38,11 @@ public class User {
     @NotNull
     private String email;
 
+    @Column(name = "email_normalized", nullable = false)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private String emailNormalized;
+
     @NotBlank
     private String password;
 
@@ -55,5 +68,11 @@ public class User {
     @Setter(AccessLevel.NONE)
     private AuditMetaData auditMetaData = new AuditMetaData();
 
+    public void setEmail(String email) {
+
+        this.email = email;
+        this.emailNormalized = email != null ? com.example.petsitter.common.Email.normalize(email) : null;
+    }
+
     public enum UserRole { PET_OWNER, PET_SITTER, ADMIN }
 }
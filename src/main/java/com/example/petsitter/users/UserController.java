@@ -1,5 +1,7 @@
 package com.example.petsitter.users;
 
+import com.example.petsitter.common.Email;
+import com.example.petsitter.common.ItemStream;
 import com.example.petsitter.common.JobApplicationCollectionDto;
 import com.example.petsitter.common.JobCollectionDto;
 import com.example.petsitter.common.exception.*;
@@ -31,11 +33,12 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 import java.util.regex.Pattern;
 
+import static com.example.petsitter.common.CommonConfig.MEDIA_TYPE_APPLICATION_CBOR;
 import static com.example.petsitter.common.CommonConfig.MEDIA_TYPE_APPLICATION_MERGE_PATCH_JSON;
+import static com.example.petsitter.common.CommonConfig.MEDIA_TYPE_APPLICATION_SMILE;
 import static com.example.petsitter.sessions.Permission.Action.*;
 import static com.example.petsitter.sessions.Permission.Attribute.*;
 import static com.example.petsitter.sessions.Permission.Resource.*;
@@ -79,6 +82,28 @@ class UserController {
         return ResponseEntity.created(location).build();
     }
 
+    @GetMapping(path = "/email-availability", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Check Email Availability",
+        description = "Whether an email address can still be registered. Addresses differing only in case are the "
+            + "same address.")
+    @SecurityRequirements
+    @ApiResponse(responseCode = "200", description = "Email Availability", content = @Content(
+        schema = @Schema(implementation = EmailAvailabilityDto.class), examples = {@ExampleObject(value =
+            """
+            {
+              "email": "email@example.com",
+              "available": true
+            }
+            """)})
+    )
+    EmailAvailabilityDto checkEmailAvailability(@Parameter(description = "Email address")
+                                                @RequestParam String email) {
+
+        var emailAddress = new Email(email);
+
+        return new EmailAvailabilityDto(emailAddress, userService.isEmailAvailable(emailAddress));
+    }
+
     @GetMapping(path = "/{uuid}", produces = MediaType.APPLICATION_JSON_VALUE )
     @Operation(summary = "View User")
     @ApiResponse(responseCode = "200", description = "User", content = @Content(
@@ -142,7 +167,8 @@ class UserController {
         userService.deleteUserWithId(uuid);
     }
 
-    @GetMapping(path = "/{uuid}/jobs", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(path = "/{uuid}/jobs", produces = {MediaType.APPLICATION_JSON_VALUE,
+        MEDIA_TYPE_APPLICATION_CBOR, MEDIA_TYPE_APPLICATION_SMILE})
     @Operation(summary = "View Jobs for User")
     @ApiResponse(responseCode = "200", description = "Jobs for User", content = @Content(
         schema = @Schema(implementation = JobCollectionDto.class), examples = {@ExampleObject(value =
@@ -187,7 +213,8 @@ class UserController {
         return new JobCollectionDto(userService.viewJobsForUser(uuid));
     }
 
-    @GetMapping(path = "{uuid}/job-applications", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(path = "{uuid}/job-applications", produces = {MediaType.APPLICATION_JSON_VALUE,
+        MEDIA_TYPE_APPLICATION_CBOR, MEDIA_TYPE_APPLICATION_SMILE})
     @Operation(summary = "View Job Applications for User")
     @ApiResponse(responseCode = "200", description = "Job Applications for User", content = @Content(
         schema = @Schema(implementation = JobApplicationCollectionDto.class), examples = {@ExampleObject(value =
@@ -224,15 +251,17 @@ interface UserServiceInternal {
 
     UUID registerUser(UserDto userDto);
 
+    boolean isEmailAvailable(Email email);
+
     UserDto viewUserWithId(UUID uuid);
 
     UserDto modifyUserWithId(UUID uuid, UserDto userDto);
 
     void deleteUserWithId(UUID uuid);
 
-    Set<JobDto> viewJobsForUser(UUID uuid);
+    ItemStream<JobDto> viewJobsForUser(UUID uuid);
 
-    Set<JobApplicationDto> viewApplicationsForUser(UUID uuid);
+    ItemStream<JobApplicationDto> viewApplicationsForUser(UUID uuid);
 }
 
 @Service
@@ -265,11 +294,6 @@ class UserServiceInternalImpl implements UserServiceInternal {
         if (userDtoEmail == null) {
             invalidArgumentList.add(new InvalidArgument("user", "email", InvalidArgument.NULL_VALUE_MSG));
         }
-        else if (userRepository.existsByEmail(userDtoEmail)) {
-
-            invalidArgumentList.add(new InvalidArgument("user", "email",
-                "username %s already exists".formatted(userDtoEmail.getAddress())));
-        }
 
         var userDtoPassword = userDto.getPassword();
 
@@ -299,7 +323,14 @@ class UserServiceInternalImpl implements UserServiceInternal {
             throw new InvalidArgumentException(invalidArgumentList);
         }
 
-        return userRepository.save(userDto).getId();
+        try {
+            return userRepository.save(userDto).getId();
+        }
+        catch (DuplicateEmailException e) {
+
+            throw new InvalidArgumentException("user", "email",
+                "username %s already exists".formatted(userDtoEmail.getAddress()));
+        }
     }
 
     @Override
@@ -341,16 +372,21 @@ class UserServiceInternalImpl implements UserServiceInternal {
                 optionalReason.orElse("User %s".formatted(userId)));
         }
 
-        var userDtoEmail = userDto.getEmail();
-
-        if (userDtoEmail != null && userRepository.existsByEmailAndIdNot(userDtoEmail, userId)) {
+        try {
+            return userRepository.updateUserFromDto(userId, userDto)
+                .orElseThrow(() -> new NotFoundException("User %s".formatted(userId)));
+        }
+        catch (DuplicateEmailException e) {
 
             throw new InvalidArgumentException("user", "email",
-                "username %s already exists".formatted(userDtoEmail.getAddress()));
+                "username %s already exists".formatted(userDto.getEmail().getAddress()));
         }
+    }
 
-        return userRepository.updateUserFromDto(userId, userDto)
-            .orElseThrow(() -> new NotFoundException("User %s".formatted(userId)));
+    @Override
+    public boolean isEmailAvailable(Email email) {
+
+        return !userRepository.existsByEmail(email);
     }
 
     @Override
@@ -373,11 +409,13 @@ class UserServiceInternalImpl implements UserServiceInternal {
 
         jobService.deleteAllJobsAndApplicationsByOwnerId(userId);
 
+        sessionService.revokeRefreshTokensByUserId(userId);
+
         userRepository.deleteById(userId);
     }
 
     @Override
-    public Set<JobDto> viewJobsForUser(UUID userId) {
+    public ItemStream<JobDto> viewJobsForUser(UUID userId) {
 
         var currentSession = sessionService.getCurrentSession()
             .orElseThrow(() -> new UnauthorizedException(UnauthorizedException.VIEW_MSG,
@@ -393,7 +431,7 @@ class UserServiceInternalImpl implements UserServiceInternal {
     }
 
     @Override
-    public Set<JobApplicationDto> viewApplicationsForUser(UUID userId) {
+    public ItemStream<JobApplicationDto> viewApplicationsForUser(UUID userId) {
 
         var currentSession = sessionService.getCurrentSession()
             .orElseThrow(() -> new UnauthorizedException(UnauthorizedException.VIEW_MSG,
@@ -423,3 +461,6 @@ class PasswordValidator {
         return pattern.matcher(password).matches();
     }
 }
+
+record EmailAvailabilityDto(Email email, boolean available) {
+}
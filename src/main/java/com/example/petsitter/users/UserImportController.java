@@ -0,0 +1,590 @@
+package com.example.petsitter.users;
+
+import com.example.petsitter.common.Email;
+import com.example.petsitter.common.exception.ForbiddenException;
+import com.example.petsitter.common.exception.InvalidArgument;
+import com.example.petsitter.common.exception.UnauthorizedException;
+import com.example.petsitter.openapi.ApiProblemResponse;
+import com.example.petsitter.sessions.Session;
+import com.example.petsitter.sessions.SessionService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.example.petsitter.common.CommonConfig.MEDIA_TYPE_TEXT_CSV;
+import static com.example.petsitter.sessions.Permission.Action.CREATE;
+import static com.example.petsitter.sessions.Permission.Attribute.USER_DTO_ATT;
+import static com.example.petsitter.sessions.Permission.Resource.USER;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Users")
+class UserImportController {
+
+    private final UserImportServiceInternal userImportService;
+
+    @PostMapping(path = "/users:import", consumes = MEDIA_TYPE_TEXT_CSV, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Import Users (CSV)",
+        description = "Header row followed by one user per row. Roles are separated by spaces.")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(examples = {
+        @ExampleObject(value =
+            """
+            email,password,full_name,roles
+            owner@example.com,1Upper1Lower1Number,John Smith,PET_OWNER
+            sitter@example.com,1Upper1Lower1Number,"Smith, Jane",PET_OWNER PET_SITTER
+            """)})
+    )
+    @ApiResponse(responseCode = "200", description = "Import Result", content = @Content(
+        schema = @Schema(implementation = UserImportResultDto.class), examples = {@ExampleObject(value =
+            """
+            {
+              "imported": 1,
+              "failed": 1,
+              "errors": [
+                {
+                  "line": 3,
+                  "field": "email",
+                  "detail": "username sitter@example.com already exists"
+                }
+              ]
+            }
+            """)})
+    )
+    @ApiProblemResponse(responseCode = "401", description = "Unauthorized")
+    @ApiProblemResponse(responseCode = "403", description = "Forbidden")
+    UserImportResultDto importUsersFromCsv(InputStream inputStream) throws IOException {
+
+        return userImportService.importUsers(UserImportFormat.CSV, inputStream);
+    }
+
+    @PostMapping(path = "/users:import", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Import Users (NDJSON)", description = "One user object per line.")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(examples = {
+        @ExampleObject(value =
+            """
+            {"email":"owner@example.com","password":"1Upper1Lower1Number","full_name":"John Smith","roles":["PET_OWNER"]}
+            {"email":"sitter@example.com","password":"1Upper1Lower1Number","full_name":"Jane","roles":["PET_SITTER"]}
+            """)})
+    )
+    @ApiResponse(responseCode = "200", description = "Import Result", content = @Content(
+        schema = @Schema(implementation = UserImportResultDto.class))
+    )
+    @ApiProblemResponse(responseCode = "401", description = "Unauthorized")
+    @ApiProblemResponse(responseCode = "403", description = "Forbidden")
+    UserImportResultDto importUsersFromNdjson(InputStream inputStream) throws IOException {
+
+        return userImportService.importUsers(UserImportFormat.NDJSON, inputStream);
+    }
+}
+
+enum UserImportFormat { CSV, NDJSON }
+
+interface UserImportServiceInternal {
+
+    UserImportResultDto importUsers(UserImportFormat format, InputStream inputStream) throws IOException;
+}
+
+/**
+ * Imports users in batches: each batch is validated, checked for existing emails with a single query, has its
+ * passwords hashed in parallel and is inserted with JDBC batch statements in its own transaction. Rows that fail are
+ * reported with their line number and do not prevent the other rows from being imported.
+ */
+@Service
+class UserImportServiceInternalImpl implements UserImportServiceInternal, DisposableBean {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final SessionService sessionService;
+
+    private final UserRepository userRepository;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ForkJoinPool hashingPool;
+
+    private final int batchSize;
+
+    UserImportServiceInternalImpl(SessionService sessionService, UserRepository userRepository,
+                                  DelegatingPasswordEncoder passwordEncoder, Validator validator,
+                                  ObjectMapper objectMapper, TransactionTemplate transactionTemplate,
+                                  @Value("${petsitter.user-import.batch-size}") int batchSize,
+                                  @Value("${petsitter.user-import.hashing-parallelism}") int hashingParallelism) {
+
+        this.sessionService = sessionService;
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+
+        this.hashingPool = new ForkJoinPool(hashingParallelism > 0 ? hashingParallelism :
+            Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public UserImportResultDto importUsers(UserImportFormat format, InputStream inputStream) throws IOException {
+
+        var currentSession = sessionService.getCurrentSession()
+            .orElseThrow(() -> new UnauthorizedException(UnauthorizedException.CREATE_MSG, "Users"));
+
+        var permission = currentSession.getPermission(CREATE, USER, Map.of(USER_DTO_ATT, UserDto.builder().build()));
+
+        if (permission.isDenied()) {
+            throw new ForbiddenException(ForbiddenException.CREATE_MSG, "Users");
+        }
+
+        var result = new ImportResult();
+        var importedEmailAddresses = new HashSet<String>();
+
+        try (var reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+
+            var rowReader = format == UserImportFormat.CSV ? new CsvRowReader(reader) : new NdjsonRowReader(reader);
+
+            var batch = new ArrayList<Row>(batchSize);
+
+            Row row;
+
+            while ((row = rowReader.next()) != null) {
+
+                batch.add(row);
+
+                if (batch.size() == batchSize) {
+
+                    importBatch(batch, currentSession, importedEmailAddresses, result);
+
+                    batch.clear();
+                }
+            }
+
+            importBatch(batch, currentSession, importedEmailAddresses, result);
+        }
+
+        return result.toDto();
+    }
+
+    private void importBatch(List<Row> batch, Session currentSession, Set<String> importedEmailAddresses,
+                             ImportResult result) {
+
+        var validRows = new ArrayList<Row>(batch.size());
+
+        for (var row : batch) {
+
+            var invalidArgument = validate(row, currentSession);
+
+            if (invalidArgument != null) {
+                result.fail(row.line(), invalidArgument);
+            }
+            else if (!importedEmailAddresses.add(Email.normalize(row.userDto().getEmail().getAddress()))) {
+                result.fail(row.line(), new InvalidArgument("user", "email", "duplicate of an earlier row"));
+            }
+            else {
+                validRows.add(row);
+            }
+        }
+
+        if (validRows.isEmpty()) {
+            return;
+        }
+
+        var existingEmailAddresses = userRepository.findExistingNormalizedEmailAddresses(validRows.stream()
+            .map(row -> Email.normalize(row.userDto().getEmail().getAddress()))
+            .toList());
+
+        var newRows = new ArrayList<Row>(validRows.size());
+
+        for (var row : validRows) {
+
+            var emailAddress = row.userDto().getEmail().getAddress();
+
+            if (existingEmailAddresses.contains(Email.normalize(emailAddress))) {
+
+                result.fail(row.line(), new InvalidArgument("user", "email",
+                    "username %s already exists".formatted(emailAddress)));
+            }
+            else {
+                newRows.add(row);
+            }
+        }
+
+        if (newRows.isEmpty()) {
+            return;
+        }
+
+        var encodedPasswords = encodePasswords(newRows);
+
+        var importedUsers = new ArrayList<ImportedUser>(newRows.size());
+
+        for (int i = 0; i < newRows.size(); i++) {
+
+            var userDto = newRows.get(i).userDto();
+
+            importedUsers.add(new ImportedUser(UUID.randomUUID(), userDto.getEmail().getAddress(),
+                encodedPasswords.get(i), userDto.getFullName(), userDto.getRoles()));
+        }
+
+        try {
+
+            transactionTemplate.executeWithoutResult(status ->
+                userRepository.insertAll(importedUsers, currentSession.userId()));
+
+            result.imported += importedUsers.size();
+        }
+        catch (DuplicateKeyException e) {
+
+            // a signup took one of the addresses since the lookup, insert row by row to find which
+            for (int i = 0; i < importedUsers.size(); i++) {
+                insert(newRows.get(i), importedUsers.get(i), currentSession, result);
+            }
+        }
+    }
+
+    private void insert(Row row, ImportedUser importedUser, Session currentSession, ImportResult result) {
+
+        try {
+
+            transactionTemplate.executeWithoutResult(status ->
+                userRepository.insertAll(List.of(importedUser), currentSession.userId()));
+
+            result.imported++;
+        }
+        catch (DuplicateKeyException e) {
+
+            result.fail(row.line(), new InvalidArgument("user", "email",
+                "username %s already exists".formatted(importedUser.email())));
+        }
+    }
+
+    private InvalidArgument validate(Row row, Session currentSession) {
+
+        if (row.invalidArgument() != null) {
+            return row.invalidArgument();
+        }
+
+        var userDto = row.userDto();
+
+        var permission = currentSession.getPermission(CREATE, USER, Map.of(USER_DTO_ATT, userDto));
+
+        if (permission.isDenied()) {
+            return new InvalidArgument("user", permission.getReason().orElse("cannot be created"));
+        }
+
+        if (userDto.getEmail() == null || userDto.getEmail().getAddress() == null) {
+            return new InvalidArgument("user", "email", InvalidArgument.NULL_VALUE_MSG);
+        }
+
+        if (userDto.getPassword() == null) {
+            return new InvalidArgument("user", "password", InvalidArgument.NULL_VALUE_MSG);
+        }
+
+        if (userDto.getFullName() == null) {
+            return new InvalidArgument("user", "full_name", InvalidArgument.NULL_VALUE_MSG);
+        }
+
+        if (userDto.getFullName().isBlank()) {
+            return new InvalidArgument("user", "full_name", InvalidArgument.BLANK_VALUE_MSG);
+        }
+
+        if (userDto.getRoles() == null) {
+            return new InvalidArgument("user", "roles", InvalidArgument.NULL_VALUE_MSG);
+        }
+
+        return validator.validate(userDto).stream()
+            .map(constraintViolation -> new InvalidArgument("user",
+                constraintViolation.getPropertyPath().toString().replace(".address", ""),
+                constraintViolation.getMessage()))
+            .findFirst()
+            .orElse(null);
+    }
+
+    private List<String> encodePasswords(List<Row> rows) {
+
+        try {
+
+            return hashingPool.submit(() -> rows.parallelStream()
+                    .map(row -> passwordEncoder.encode(row.userDto().getPassword()))
+                    .toList())
+                .get();
+        }
+        catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException("Interrupted encoding imported passwords", e);
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("Unable to encode imported passwords", e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        hashingPool.shutdownNow();
+    }
+
+    private record Row(long line, UserDto userDto, InvalidArgument invalidArgument) {}
+
+    private static class ImportResult {
+
+        long imported;
+        long failed;
+
+        final List<UserImportErrorDto> errors = new ArrayList<>();
+
+        void fail(long line, InvalidArgument invalidArgument) {
+
+            failed++;
+
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new UserImportErrorDto(line, invalidArgument.fieldName(), invalidArgument.detail()));
+            }
+        }
+
+        UserImportResultDto toDto() {
+
+            errors.sort(Comparator.comparingLong(UserImportErrorDto::line));
+
+            return new UserImportResultDto(imported, failed, errors);
+        }
+    }
+
+    private interface RowReader {
+
+        /**
+         * @return the next non blank row, or null at the end of the input
+         */
+        Row next() throws IOException;
+    }
+
+    private class NdjsonRowReader implements RowReader {
+
+        private final BufferedReader reader;
+
+        private long line;
+
+        NdjsonRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Row next() throws IOException {
+
+            String text;
+
+            while ((text = reader.readLine()) != null) {
+
+                line++;
+
+                if (text.isBlank()) {
+                    continue;
+                }
+
+                try {
+                    return new Row(line, objectMapper.readValue(text, UserDto.class), null);
+                }
+                catch (JsonProcessingException e) {
+                    return new Row(line, null, new InvalidArgument("user", "invalid JSON: " +
+                        e.getOriginalMessage()));
+                }
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Reads RFC 4180 style CSV with a header row naming the columns email, password, full_name and roles, in any
+     * order. Quoted fields may contain commas and doubled quotes, but not line breaks.
+     */
+    private static class CsvRowReader implements RowReader {
+
+        private final BufferedReader reader;
+
+        private long line;
+
+        private Map<String, Integer> columns;
+
+        CsvRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Row next() throws IOException {
+
+            String text;
+
+            while ((text = reader.readLine()) != null) {
+
+                line++;
+
+                if (text.isBlank()) {
+                    continue;
+                }
+
+                var fields = parse(text);
+
+                if (fields == null) {
+                    return new Row(line, null, new InvalidArgument("user", "unterminated quoted field"));
+                }
+
+                if (columns == null) {
+
+                    columns = new HashMap<>();
+
+                    for (int i = 0; i < fields.size(); i++) {
+                        columns.put(fields.get(i).trim().toLowerCase(Locale.ROOT), i);
+                    }
+
+                    continue;
+                }
+
+                try {
+                    return new Row(line, userDto(fields), null);
+                }
+                catch (IllegalArgumentException e) {
+                    return new Row(line, null, new InvalidArgument("user", "roles", e.getMessage()));
+                }
+            }
+
+            return null;
+        }
+
+        private UserDto userDto(List<String> fields) {
+
+            var email = field(fields, "email");
+            var roles = field(fields, "roles");
+
+            return UserDto.builder()
+                .email(email != null ? new Email(email) : null)
+                .password(field(fields, "password"))
+                .fullName(field(fields, "full_name"))
+                .roles(roles != null ? roles(roles) : null)
+                .build();
+        }
+
+        private String field(List<String> fields, String column) {
+
+            var index = columns.get(column);
+
+            if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+                return null;
+            }
+
+            return fields.get(index);
+        }
+
+        private static Set<User.UserRole> roles(String roles) {
+
+            var userRoles = EnumSet.noneOf(User.UserRole.class);
+
+            for (var role : roles.trim().split("\\s+")) {
+
+                try {
+                    userRoles.add(User.UserRole.valueOf(role));
+                }
+                catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("unknown role %s".formatted(role));
+                }
+            }
+
+            return userRoles;
+        }
+
+        private static List<String> parse(String text) {
+
+            var fields = new ArrayList<String>();
+            var field = new StringBuilder();
+
+            var quoted = false;
+
+            for (int i = 0; i < text.length(); i++) {
+
+                var c = text.charAt(i);
+
+                if (quoted) {
+
+                    if (c != '"') {
+                        field.append(c);
+                    }
+                    else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+
+                        field.append('"');
+                        i++;
+                    }
+                    else {
+                        quoted = false;
+                    }
+                }
+                else if (c == '"') {
+                    quoted = true;
+                }
+                else if (c == ',') {
+
+                    fields.add(field.toString());
+                    field.setLength(0);
+                }
+                else {
+                    field.append(c);
+                }
+            }
+
+            if (quoted) {
+                return null;
+            }
+
+            fields.add(field.toString());
+
+            return fields;
+        }
+    }
+}
+
+record ImportedUser(UUID id, String email, String encodedPassword, String fullName, Set<User.UserRole> roles) {}
+
+@Schema(name = "UserImportResult")
+record UserImportResultDto(
+
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY)
+    long imported,
+
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY)
+    long failed,
+
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY, description = "The first 1000 rows that failed")
+    List<UserImportErrorDto> errors) {}
+
+@Schema(name = "UserImportError")
+record UserImportErrorDto(long line, String field, String detail) {}
@@ -1,8 +1,10 @@
 package com.example.petsitter.users;
 
+import com.example.petsitter.common.Email;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.UUID;
 
 @Service
@@ -11,8 +13,19 @@ public class UserInfrastructureService {
 
     private final UserRepository userRepository;
 
+    private final EmailBloomFilter emailBloomFilter;
+
     public User getReferenceById(UUID id) {
 
         return userRepository.getReferenceById(id);
     }
+
+    /**
+     * Adds the email addresses of users inserted outside the user repository, e.g. by JDBC batches, to the filter
+     * behind email availability checks.
+     */
+    public void addToEmailFilter(Collection<String> emails) {
+
+        emails.forEach(email -> emailBloomFilter.add(Email.normalize(email)));
+    }
 }
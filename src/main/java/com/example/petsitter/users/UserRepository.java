@@ -1,21 +1,41 @@
 package com.example.petsitter.users;
 
 import com.example.petsitter.common.Email;
+import jakarta.persistence.QueryHint;
 import lombok.RequiredArgsConstructor;
 import org.mapstruct.*;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.RepositoryDefinition;
+import org.springframework.data.repository.query.Param;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 @RequiredArgsConstructor
@@ -25,19 +45,62 @@ class UserRepository {
 
     private final UserMapper userMapper;
 
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EmailBloomFilter emailBloomFilter;
+
+    /**
+     * Loads the email filter once startup, including any data initialization, has finished, unless it was restored
+     * from its journal. Until then every lookup falls through to the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void loadEmailBloomFilter() {
+
+        if (emailBloomFilter.isLoaded()) {
+            return;
+        }
+
+        // users added from here on may be read by the load as well, which only over-counts them
+        emailBloomFilter.startLoading();
+
+        transactionTemplate.executeWithoutResult(status -> {
+
+            try (var emailsNormalized = jpaUserRepository.streamAllEmailNormalized()) {
+                emailsNormalized.forEach(emailBloomFilter::add);
+            }
+        });
+
+        emailBloomFilter.markLoaded();
+        emailBloomFilter.writeSnapshot();
+    }
+
     void deleteById(UUID id) {
 
+        var emailNormalized = jpaUserRepository.findEmailNormalizedById(id);
+
         jpaUserRepository.deleteById(id);
+
+        emailNormalized.ifPresent(this::removeFromEmailBloomFilterAfterCommit);
     }
 
+    /**
+     * Answers from the email filter when it rules the address out, otherwise from the database.
+     */
     boolean existsByEmail(Email email) {
 
-        return jpaUserRepository.existsByEmail(email.getAddress());
-    }
+        var emailNormalized = Email.normalize(email.getAddress());
+
+        if (!emailBloomFilter.mightContain(emailNormalized)) {
+            return false;
+        }
+
+        var exists = jpaUserRepository.existsByEmailNormalized(emailNormalized);
 
-    boolean existsByEmailAndIdNot(Email email, UUID id) {
+        emailBloomFilter.recordProbableHit(exists);
 
-        return jpaUserRepository.existsByEmailAndIdNot(email.getAddress(), id);
+        return exists;
     }
 
     boolean existsById(UUID id) {
@@ -50,9 +113,17 @@ class UserRepository {
         return jpaUserRepository.existsByIdAndRolesIn(userId, Set.of(role));
     }
 
+    /**
+     * @return the normalized form of each of the normalized email addresses already registered
+     */
+    Set<String> findExistingNormalizedEmailAddresses(Collection<String> normalizedEmailAddresses) {
+
+        return jpaUserRepository.findEmailNormalizedByEmailNormalizedIn(normalizedEmailAddresses);
+    }
+
     Optional<UserDto> findDtoWithPasswordAndRolesByEmailAddress(String emailAddress) {
 
-        return jpaUserRepository.findWithRolesByEmail(emailAddress)
+        return jpaUserRepository.findWithRolesByEmailNormalized(Email.normalize(emailAddress))
             .map(userMapper::toUserDtoWithPassword);
     }
 
@@ -67,16 +138,139 @@ class UserRepository {
         return jpaUserRepository.getReferenceById(id);
     }
 
+    /**
+     * Inserts users with JDBC batches, bypassing the persistence context. Users must be validated and their passwords
+     * encoded by the caller.
+     */
+    void insertAll(List<ImportedUser> importedUsers, UUID createdBy) {
+
+        var now = LocalDateTime.now();
+
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO users (id, email, email_normalized, password, full_name, version,
+                                   created_by, created_date, last_modified_by, last_modified_date)
+                     VALUES (?,?,?,?,?,?,?,?,?,?)""",
+            importedUsers, importedUsers.size(), (preparedStatement, importedUser) -> {
+
+                preparedStatement.setObject(1, importedUser.id());
+                preparedStatement.setString(2, importedUser.email());
+                preparedStatement.setString(3, Email.normalize(importedUser.email()));
+                preparedStatement.setString(4, importedUser.encodedPassword());
+                preparedStatement.setString(5, importedUser.fullName());
+                preparedStatement.setShort(6, (short) 0);
+                preparedStatement.setObject(7, createdBy);
+                preparedStatement.setObject(8, now);
+                preparedStatement.setObject(9, createdBy);
+                preparedStatement.setObject(10, now);
+            });
+
+        var userRoles = importedUsers.stream()
+            .flatMap(importedUser -> importedUser.roles().stream()
+                .map(role -> Map.entry(importedUser.id(), role)))
+            .toList();
+
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO user_roles (user_id, roles)
+                     VALUES (?,?)""",
+            userRoles, userRoles.size(), (preparedStatement, userRole) -> {
+
+                preparedStatement.setObject(1, userRole.getKey());
+                preparedStatement.setString(2, userRole.getValue().name());
+            });
+
+        importedUsers.forEach(importedUser -> emailBloomFilter.add(Email.normalize(importedUser.email())));
+    }
+
+    /**
+     * @throws DuplicateEmailException if a user with the same normalized email address exists
+     */
     UserDto save(UserDto userDto) {
 
-        return userMapper.toUserDto(jpaUserRepository.save(userMapper.toUserEncodePassword(userDto)));
+        User user;
+
+        try {
+            user = jpaUserRepository.saveAndFlush(userMapper.toUserEncodePassword(userDto));
+        }
+        catch (DataIntegrityViolationException e) {
+            throw duplicateEmailExceptionOrRethrow(e);
+        }
+
+        emailBloomFilter.add(Email.normalize(user.getEmail()));
+
+        return userMapper.toUserDto(user);
+    }
+
+    boolean updatePasswordIfUnchanged(UUID id, String currentEncodedPassword, String newEncodedPassword) {
+
+        return jpaUserRepository.updatePasswordByIdAndPassword(id, currentEncodedPassword, newEncodedPassword) == 1;
     }
 
     Optional<UserDto> updateUserFromDto(UUID id, UserDto userDto) {
 
-        return jpaUserRepository.findWithRolesById(id)
-            .map(user -> userMapper.updateUserFromDtoEncodePassword(user, userDto))
-            .map(userMapper::toUserDto);
+        var optionalUser = jpaUserRepository.findWithRolesById(id);
+
+        if (optionalUser.isEmpty()) {
+            return Optional.empty();
+        }
+
+        var user = optionalUser.get();
+
+        var previousEmailNormalized = Email.normalize(user.getEmail());
+
+        userMapper.updateUserFromDtoEncodePassword(user, userDto);
+
+        var emailNormalized = Email.normalize(user.getEmail());
+
+        if (!emailNormalized.equals(previousEmailNormalized)) {
+
+            try {
+                jpaUserRepository.flush();
+            }
+            catch (DataIntegrityViolationException e) {
+                throw duplicateEmailExceptionOrRethrow(e);
+            }
+
+            emailBloomFilter.add(emailNormalized);
+
+            removeFromEmailBloomFilterAfterCommit(previousEmailNormalized);
+        }
+
+        return Optional.of(userMapper.toUserDto(user));
+    }
+
+    static boolean isDuplicateEmail(DataIntegrityViolationException dataIntegrityViolationException) {
+
+        return dataIntegrityViolationException.getCause() instanceof ConstraintViolationException
+            constraintViolationException &&
+            constraintViolationException.getConstraintName() != null &&
+            constraintViolationException.getConstraintName().toLowerCase(Locale.ROOT)
+                .contains(User.EMAIL_NORMALIZED_UNIQUE_CONSTRAINT);
+    }
+
+    private static RuntimeException duplicateEmailExceptionOrRethrow(DataIntegrityViolationException e) {
+        return isDuplicateEmail(e) ? new DuplicateEmailException(e) : e;
+    }
+
+    /**
+     * Removing an address that is still registered would make the filter report it as available, so removal waits
+     * until the transaction that freed the address has committed.
+     */
+    private void removeFromEmailBloomFilterAfterCommit(String emailNormalized) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+
+            emailBloomFilter.remove(emailNormalized);
+
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                emailBloomFilter.remove(emailNormalized);
+            }
+        });
     }
 }
 
@@ -85,23 +279,65 @@ interface JpaUserRepository {
 
     void deleteById(UUID id);
 
-    boolean existsByEmail(String email);
+    boolean existsByEmailNormalized(String emailNormalized);
 
-    boolean existsByEmailAndIdNot(String email, UUID id);
+    @Query("""
+        SELECT u.emailNormalized
+          FROM User u
+         WHERE u.id = :id
+        """)
+    Optional<String> findEmailNormalizedById(@Param("id") UUID id);
+
+    @Query("""
+        SELECT u.emailNormalized
+          FROM User u
+        """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamAllEmailNormalized();
 
     boolean existsById(UUID id);
 
     boolean existsByIdAndRolesIn(UUID userId, Set<User.UserRole> role);
 
+    @Query("""
+        SELECT u.emailNormalized
+          FROM User u
+         WHERE u.emailNormalized IN :emailsNormalized
+        """)
+    Set<String> findEmailNormalizedByEmailNormalizedIn(
+        @Param("emailsNormalized") Collection<String> emailsNormalized);
+
     @EntityGraph(type = EntityGraph.EntityGraphType.LOAD, attributePaths = {"roles"})
-    Optional<User> findWithRolesByEmail(String email);
+    Optional<User> findWithRolesByEmailNormalized(String emailNormalized);
 
     @EntityGraph(type = EntityGraph.EntityGraphType.LOAD, attributePaths = {"roles"})
     Optional<User> findWithRolesById(UUID id);
 
     User getReferenceById(UUID id);
 
-    User save(User user);
+    User saveAndFlush(User user);
+
+    void flush();
+
+    @Modifying
+    @Query("""
+        UPDATE User u
+           SET u.password = :newPassword
+         WHERE u.id = :id
+           AND u.password = :currentPassword
+        """)
+    int updatePasswordByIdAndPassword(@Param("id") UUID id, @Param("currentPassword") String currentPassword,
+                                      @Param("newPassword") String newPassword);
+}
+
+/**
+ * Thrown when saving a user would violate the unique normalized email address constraint.
+ */
+class DuplicateEmailException extends RuntimeException {
+
+    DuplicateEmailException(Throwable cause) {
+        super(cause);
+    }
 }
 
 @Mapper(uses = UserMapper.PasswordEncoderMapper.class)
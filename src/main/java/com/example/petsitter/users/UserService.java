@@ -8,4 +8,10 @@ public interface UserService {
     boolean existsByIdAndRole(UUID id, User.UserRole role);
 
     Optional<UserDto> findDtoWithPasswordAndRolesByEmailAddress(String email);
+
+    /**
+     * Replaces the stored password hash only if it is still currentEncodedPassword, so a rehash cannot overwrite a
+     * password changed in the meantime.
+     */
+    void updatePasswordIfUnchanged(UUID id, String currentEncodedPassword, String newEncodedPassword);
 }
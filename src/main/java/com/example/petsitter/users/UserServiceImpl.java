@@ -25,4 +25,11 @@ public class UserServiceImpl implements UserService {
 
         return userRepository.findDtoWithPasswordAndRolesByEmailAddress(email);
     }
+
+    @Override
+    @Transactional
+    public void updatePasswordIfUnchanged(UUID id, String currentEncodedPassword, String newEncodedPassword) {
+
+        userRepository.updatePasswordIfUnchanged(id, currentEncodedPassword, newEncodedPassword);
+    }
 }
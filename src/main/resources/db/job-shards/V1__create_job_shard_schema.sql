@@ -0,0 +1,43 @@
+-- Schema of each job shard when petsitter.jobs.sharding is enabled. The tables match jobs and job_applications in
+-- db/migration, except that users live in the application database, so there are no foreign keys to users.
+
+CREATE TABLE jobs (
+    id                 UUID         NOT NULL,
+    job_owner_id       UUID         NOT NULL,
+    start_time         TIMESTAMP(6) NOT NULL,
+    end_time           TIMESTAMP(6) NOT NULL,
+    activity           VARCHAR(500) NOT NULL,
+    name               VARCHAR(30)  NOT NULL,
+    age                INTEGER      NOT NULL,
+    breed              VARCHAR(30)  NOT NULL,
+    size               VARCHAR(30)  NOT NULL,
+    version            SMALLINT     NOT NULL,
+    created_by         UUID,
+    created_date       TIMESTAMP(6),
+    last_modified_by   UUID,
+    last_modified_date TIMESTAMP(6),
+    CONSTRAINT jobs_pk PRIMARY KEY (id),
+    CONSTRAINT jobs_age_ck CHECK (age BETWEEN 0 AND 50)
+);
+
+CREATE INDEX jobs_job_owner_id_idx ON jobs (job_owner_id);
+
+CREATE TABLE job_applications (
+    id                   UUID                                                 NOT NULL,
+    application_status   ENUM ('PENDING', 'ACCEPTED', 'REJECTED', 'WITHDRAWN') NOT NULL,
+    application_owner_id UUID                                                 NOT NULL,
+    application_job_id   UUID                                                 NOT NULL,
+    version              SMALLINT                                             NOT NULL,
+    created_by           UUID,
+    created_date         TIMESTAMP(6),
+    last_modified_by     UUID,
+    last_modified_date   TIMESTAMP(6),
+    CONSTRAINT job_applications_pk PRIMARY KEY (id),
+    CONSTRAINT job_applications_job_fk FOREIGN KEY (application_job_id) REFERENCES jobs (id)
+);
+
+CREATE INDEX job_applications_job_owner_dto_idx
+    ON job_applications (application_job_id, application_owner_id, application_status, id);
+
+CREATE INDEX job_applications_owner_job_dto_idx
+    ON job_applications (application_owner_id, application_job_id, application_status, id);
@@ -0,0 +1,79 @@
+-- Schema of the production profile. Column types follow the Hibernate mapping so that ddl-auto: validate accepts
+-- them; keep entities and migrations in step.
+
+CREATE TABLE users (
+    id                 UUID         NOT NULL,
+    email              VARCHAR(255) NOT NULL,
+    email_normalized   VARCHAR(255) NOT NULL,
+    password           VARCHAR(255) NOT NULL,
+    full_name          VARCHAR(50)  NOT NULL,
+    version            SMALLINT     NOT NULL,
+    created_by         UUID,
+    created_date       TIMESTAMP(6),
+    last_modified_by   UUID,
+    last_modified_date TIMESTAMP(6),
+    CONSTRAINT users_pk PRIMARY KEY (id),
+    CONSTRAINT users_email_normalized_uk UNIQUE (email_normalized)
+);
+
+CREATE TABLE user_roles (
+    user_id UUID                                     NOT NULL,
+    roles   ENUM ('PET_OWNER', 'PET_SITTER', 'ADMIN') NOT NULL,
+    CONSTRAINT user_roles_pk PRIMARY KEY (user_id, roles),
+    CONSTRAINT user_roles_user_fk FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE jobs (
+    id                 UUID         NOT NULL,
+    job_owner_id       UUID         NOT NULL,
+    start_time         TIMESTAMP(6) NOT NULL,
+    end_time           TIMESTAMP(6) NOT NULL,
+    activity           VARCHAR(500) NOT NULL,
+    name               VARCHAR(30)  NOT NULL,
+    age                INTEGER      NOT NULL,
+    breed              VARCHAR(30)  NOT NULL,
+    size               VARCHAR(30)  NOT NULL,
+    version            SMALLINT     NOT NULL,
+    created_by         UUID,
+    created_date       TIMESTAMP(6),
+    last_modified_by   UUID,
+    last_modified_date TIMESTAMP(6),
+    CONSTRAINT jobs_pk PRIMARY KEY (id),
+    CONSTRAINT jobs_job_owner_fk FOREIGN KEY (job_owner_id) REFERENCES users (id),
+    CONSTRAINT jobs_age_ck CHECK (age BETWEEN 0 AND 50)
+);
+
+CREATE INDEX jobs_job_owner_id_idx ON jobs (job_owner_id);
+
+CREATE TABLE job_applications (
+    id                   UUID                                                 NOT NULL,
+    application_status   ENUM ('PENDING', 'ACCEPTED', 'REJECTED', 'WITHDRAWN') NOT NULL,
+    application_owner_id UUID                                                 NOT NULL,
+    application_job_id   UUID                                                 NOT NULL,
+    version              SMALLINT                                             NOT NULL,
+    created_by           UUID,
+    created_date         TIMESTAMP(6),
+    last_modified_by     UUID,
+    last_modified_date   TIMESTAMP(6),
+    CONSTRAINT job_applications_pk PRIMARY KEY (id),
+    CONSTRAINT job_applications_owner_fk FOREIGN KEY (application_owner_id) REFERENCES users (id),
+    CONSTRAINT job_applications_job_fk FOREIGN KEY (application_job_id) REFERENCES jobs (id)
+);
+
+CREATE INDEX job_applications_application_owner_id_idx ON job_applications (application_owner_id);
+CREATE INDEX job_applications_application_job_id_idx ON job_applications (application_job_id);
+
+CREATE TABLE refresh_tokens (
+    id         UUID                        NOT NULL,
+    token_hash VARCHAR(43)                 NOT NULL,
+    family_id  UUID                        NOT NULL,
+    user_id    UUID                        NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    used       BOOLEAN                     NOT NULL,
+    CONSTRAINT refresh_tokens_pk PRIMARY KEY (id),
+    CONSTRAINT refresh_tokens_token_hash_uk UNIQUE (token_hash),
+    CONSTRAINT refresh_tokens_user_fk FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE INDEX refresh_tokens_family_id_idx ON refresh_tokens (family_id);
+CREATE INDEX refresh_tokens_user_id_idx ON refresh_tokens (user_id);
@@ -0,0 +1,12 @@
+-- Job applications are read by job, by owner and by (job, owner). The two composite indexes serve all three lookups
+-- and cover the JobApplicationDto projection (id, status, owner, job), so those queries never read the table rows.
+-- They replace the single column foreign key indexes, whose columns they lead with.
+
+DROP INDEX job_applications_application_owner_id_idx;
+DROP INDEX job_applications_application_job_id_idx;
+
+CREATE INDEX job_applications_job_owner_dto_idx
+    ON job_applications (application_job_id, application_owner_id, application_status, id);
+
+CREATE INDEX job_applications_owner_job_dto_idx
+    ON job_applications (application_owner_id, application_job_id, application_status, id);
@@ -0,0 +1,17 @@
+-- Append-only history of the field changes of jobs, job applications and users, written in batches after the
+-- changing transaction commits. Entities are referenced by id only, without foreign keys, so history rows outlive the
+-- rows they describe and never slow down their deletion.
+
+CREATE TABLE change_history (
+    id           UUID         NOT NULL,
+    entity_type  VARCHAR(50)  NOT NULL,
+    entity_id    UUID         NOT NULL,
+    field_name   VARCHAR(100) NOT NULL,
+    old_value    VARCHAR(500),
+    new_value    VARCHAR(500),
+    changed_by   UUID,
+    changed_date TIMESTAMP(6) NOT NULL,
+    CONSTRAINT change_history_pk PRIMARY KEY (id)
+);
+
+CREATE INDEX change_history_entity_id_idx ON change_history (entity_id, changed_date);
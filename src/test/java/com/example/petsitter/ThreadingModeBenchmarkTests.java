@@ -0,0 +1,195 @@
+package com.example.petsitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares throughput and tail latency of request handling on platform threads and on virtual threads by starting the
+ * application once in each mode and driving GET /jobs and POST /sessions from a fixed number of closed-loop clients.
+ * More clients than Tomcat's 200 platform request threads are used so the platform mode queues.
+ * <p>
+ * Excluded from the regular build; run with {@code mvn -Pjava21,benchmark test}.
+ */
+@Tag("benchmark")
+class ThreadingModeBenchmarkTests {
+
+    private static final int CLIENTS = 400;
+
+    private static final Duration WARM_UP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(20);
+
+    private static final String LOGIN_BODY = """
+        {"email": "pet-owner@example.com", "password": "password"}""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void compareVirtualAndPlatformThreads() throws Exception {
+
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need Java 21");
+
+        var results = new LinkedHashMap<String, Result>();
+
+        for (var virtualThreads : new boolean[]{false, true}) {
+
+            var mode = virtualThreads ? "virtual" : "platform";
+
+            try (var context = new SpringApplicationBuilder(PetSitterApplication.class)
+                .properties(
+                    "server.port=0",
+                    "management.server.port=0",
+                    "spring.datasource.url=jdbc:h2:mem:benchmark-" + mode,
+                    "spring.threads.virtual.enabled=" + virtualThreads,
+                    "petsitter.datasource.connection-limit.enabled=" + virtualThreads,
+                    "petsitter.login-rate-limit.enabled=false",
+                    "petsitter.password-hashing.bcrypt.cost=10")
+                .run()) {
+
+                var baseUri = URI.create("http://localhost:" +
+                    context.getEnvironment().getRequiredProperty("local.server.port"));
+
+                var httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+                var authHeader = objectMapper.readTree(httpClient.send(login(baseUri),
+                    HttpResponse.BodyHandlers.ofString()).body()).get("auth_header").asText();
+
+                results.put(mode + " GET /jobs", run(httpClient, () -> HttpRequest.newBuilder(baseUri.resolve("/jobs"))
+                    .header("Authorization", authHeader)
+                    .GET()
+                    .build()));
+
+                results.put(mode + " POST /sessions", run(httpClient, () -> login(baseUri)));
+            }
+        }
+
+        System.out.printf("%n%-24s %12s %10s %10s %10s %8s%n", "mode / endpoint", "requests/s", "p50 ms", "p99 ms",
+            "max ms", "errors");
+
+        results.forEach((name, result) -> System.out.printf("%-24s %12.1f %10.2f %10.2f %10.2f %8d%n", name,
+            result.throughput(), result.percentileMillis(50), result.percentileMillis(99),
+            result.percentileMillis(100), result.errors()));
+
+        assertTrue(results.values().stream().allMatch(result -> result.latencies().length > 0));
+    }
+
+    private static HttpRequest login(URI baseUri) {
+
+        return HttpRequest.newBuilder(baseUri.resolve("/sessions"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(LOGIN_BODY))
+            .build();
+    }
+
+    private static Result run(HttpClient httpClient, Supplier<HttpRequest> request) throws Exception {
+
+        var executor = Executors.newFixedThreadPool(CLIENTS);
+
+        try {
+            var start = System.nanoTime();
+            var measurementStart = start + WARM_UP.toNanos();
+            var end = measurementStart + MEASUREMENT.toNanos();
+
+            var clients = new ArrayList<Future<Client>>(CLIENTS);
+
+            for (int i = 0; i < CLIENTS; i++) {
+
+                clients.add(executor.submit(() -> {
+
+                    var client = new Client();
+
+                    long now;
+
+                    while ((now = System.nanoTime()) < end) {
+
+                        int status;
+
+                        try {
+                            status = httpClient.send(request.get(), HttpResponse.BodyHandlers.discarding())
+                                .statusCode();
+                        }
+                        catch (Exception e) {
+                            status = -1;
+                        }
+
+                        var latency = System.nanoTime() - now;
+
+                        if (now >= measurementStart) {
+                            client.record(latency, status >= 200 && status < 300);
+                        }
+                    }
+
+                    return client;
+                }));
+            }
+
+            var latencies = new ArrayList<long[]>(CLIENTS);
+            long errors = 0;
+
+            for (var client : clients) {
+
+                var result = client.get();
+
+                latencies.add(Arrays.copyOf(result.latencies, result.count));
+                errors += result.errors;
+            }
+
+            var merged = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+
+            return new Result(merged, errors, merged.length / (double) MEASUREMENT.toSeconds());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class Client {
+
+        long[] latencies = new long[1024];
+        int count;
+        long errors;
+
+        void record(long latency, boolean success) {
+
+            if (!success) {
+                errors++;
+            }
+
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+
+            latencies[count++] = latency;
+        }
+    }
+
+    private record Result(long[] latencies, long errors, double throughput) {
+
+        double percentileMillis(double percentile) {
+
+            if (latencies.length == 0) {
+                return 0;
+            }
+
+            var index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+
+            return latencies[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
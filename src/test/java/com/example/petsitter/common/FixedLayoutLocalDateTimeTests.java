@@ -0,0 +1,77 @@
+package com.example.petsitter.common;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import static com.example.petsitter.common.CommonConfig.DATE_TIME_FORMATTER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Compares the fixed layout serializers with Jackson's formatter-based ones, which they replace.
+ */
+class FixedLayoutLocalDateTimeTests {
+
+    private final ObjectMapper formatterObjectMapper = new ObjectMapper().registerModule(new SimpleModule()
+        .addSerializer(new LocalDateTimeSerializer(DATE_TIME_FORMATTER))
+        .addDeserializer(LocalDateTime.class, new LocalDateTimeDeserializer(DATE_TIME_FORMATTER)));
+
+    private final ObjectMapper fixedLayoutObjectMapper = new ObjectMapper().registerModule(new SimpleModule()
+        .addSerializer(new FixedLayoutLocalDateTimeSerializer())
+        .addDeserializer(LocalDateTime.class, new FixedLayoutLocalDateTimeDeserializer()));
+
+    @Test
+    void writesAndReadsAsFormatter() throws JsonProcessingException {
+
+        var random = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+
+            var dateTime = LocalDateTime.of(1 + random.nextInt(9999), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                random.nextInt(24), random.nextInt(60), random.nextInt(60));
+
+            var json = fixedLayoutObjectMapper.writeValueAsString(dateTime);
+
+            assertEquals(formatterObjectMapper.writeValueAsString(dateTime), json);
+            assertEquals(formatterObjectMapper.readValue(json, LocalDateTime.class),
+                fixedLayoutObjectMapper.readValue(json, LocalDateTime.class));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"\"2030-04-31 10:00\"", "\"2028-02-30 10:00\"", "\" 2030-12-02 12:00 \"",
+        "\"2030-12-02 24:00\""})
+    void readsOtherLayoutsAsFormatter(String json) throws JsonProcessingException {
+
+        assertEquals(formatterObjectMapper.readValue(json, LocalDateTime.class),
+            fixedLayoutObjectMapper.readValue(json, LocalDateTime.class));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"\"2030-13-02 12:00\"", "\"0000-12-02 12:00\"", "\"2030-12-02T12:00\"",
+        "\"2030-1a-02 12:00\""})
+    void rejectsInvalidDateTimesAsFormatter(String json) {
+
+        assertThrows(InvalidFormatException.class, () -> formatterObjectMapper.readValue(json, LocalDateTime.class));
+        assertThrows(InvalidFormatException.class, () -> fixedLayoutObjectMapper.readValue(json, LocalDateTime.class));
+    }
+
+    @Test
+    void writesYearsBeyondFourDigitsAsFormatter() throws JsonProcessingException {
+
+        var dateTime = LocalDateTime.of(12345, 12, 2, 12, 0);
+
+        assertEquals(formatterObjectMapper.writeValueAsString(dateTime),
+            fixedLayoutObjectMapper.writeValueAsString(dateTime));
+    }
+}
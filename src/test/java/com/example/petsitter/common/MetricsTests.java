@@ -0,0 +1,152 @@
+package com.example.petsitter.common;
+
+import com.example.petsitter.jobs.JobDto;
+import com.example.petsitter.jobs.JobService;
+import com.example.petsitter.jobs.JobTestConfig;
+import com.example.petsitter.jobs.JobTestUtils;
+import com.example.petsitter.sessions.Permissions;
+import com.example.petsitter.users.UserDto;
+import com.example.petsitter.users.UserService;
+import com.example.petsitter.users.UserTestConfig;
+import com.example.petsitter.users.UserTestUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.petsitter.sessions.Permission.Action.CREATE;
+import static com.example.petsitter.sessions.Permission.Attribute.USER_DTO_ATT;
+import static com.example.petsitter.sessions.Permission.Resource.USER;
+import static com.example.petsitter.users.User.UserRole.PET_OWNER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@Import({JobTestConfig.class, UserTestConfig.class})
+@RequiredArgsConstructor
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+@Transactional
+class MetricsTests {
+
+    private final MeterRegistry meterRegistry;
+
+    private final UserService userService;
+
+    private final JobService jobService;
+
+    private final JobTestUtils jobTestUtils;
+
+    private final UserTestUtils userTestUtils;
+
+    @Test
+    void whenRepositoryMethodCalledThenInvocationTimed() {
+
+        var countBefore = repositoryInvocationCount();
+
+        userService.existsByIdAndRole(UUID.randomUUID(), PET_OWNER);
+
+        assertEquals(countBefore + 1, repositoryInvocationCount());
+    }
+
+    @Test
+    void whenRepositoryItemStreamIteratedThenIterationTimedWithoutCallerTime() {
+
+        var jobOwnerId = userTestUtils.save(userDto("metrics-job-owner@example.com")).getId();
+        var startTime = LocalDateTime.now().plusWeeks(1).withNano(0).withSecond(0).withMinute(0);
+
+        jobTestUtils.save(
+            JobDto.builder()
+                .creatorUserId(jobOwnerId)
+                .startTime(startTime)
+                .endTime(startTime.plusHours(2))
+                .activity("Walk")
+                .dog(JobDto.DogDto.builder()
+                    .name("Rambo")
+                    .age(3)
+                    .breed("Bichon Frisé")
+                    .size("6kg")
+                    .build())
+                .build());
+
+        var countBefore = jobsByOwnerTimer().count();
+        var totalTimeBefore = jobsByOwnerTimer().totalTime(TimeUnit.MILLISECONDS);
+
+        var jobDtos = jobService.findAllDtoByJobOwnerId(jobOwnerId);
+
+        // the query has not run yet
+        assertEquals(countBefore, jobsByOwnerTimer().count());
+
+        jobDtos.forEach(jobDto -> sleep(500));
+
+        assertEquals(countBefore + 1, jobsByOwnerTimer().count());
+        assertTrue(jobsByOwnerTimer().totalTime(TimeUnit.MILLISECONDS) - totalTimeBefore < 500);
+    }
+
+    @Test
+    void whenPermissionEvaluatedThenEvaluationTimedByDecision() {
+
+        var userDto = userDto("metrics@example.com");
+
+        var grantedBefore = permissionEvaluationCount("GRANTED");
+        var deniedBefore = permissionEvaluationCount("DENIED");
+
+        var permission = Permissions.getPermission(CREATE, USER, Map.of(USER_DTO_ATT, userDto));
+
+        assertEquals(grantedBefore + (permission.isDenied() ? 0 : 1), permissionEvaluationCount("GRANTED"));
+        assertEquals(deniedBefore + (permission.isDenied() ? 1 : 0), permissionEvaluationCount("DENIED"));
+    }
+
+    private static UserDto userDto(String email) {
+
+        return UserDto.builder()
+            .email(new Email(email))
+            .password("1Password!")
+            .fullName("Full Name")
+            .roles(Set.of(PET_OWNER))
+            .build();
+    }
+
+    private static void sleep(long millis) {
+
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Timer jobsByOwnerTimer() {
+
+        return meterRegistry.timer("petsitter.repository.invocations",
+            "repository", "SingleDatabaseJobRepository", "method", "findAllDtoByJobOwnerId", "exception", "none");
+    }
+
+    private long repositoryInvocationCount() {
+
+        var timer = meterRegistry.find("petsitter.repository.invocations")
+            .tags("repository", "UserRepository", "method", "existsByIdAndRole", "exception", "none")
+            .timer();
+
+        return timer == null ? 0 : timer.count();
+    }
+
+    private long permissionEvaluationCount(String decision) {
+
+        return meterRegistry.get("petsitter.permission.evaluations")
+            .tags("action", CREATE.name(), "resource", USER.name(), "decision", decision)
+            .timer()
+            .count();
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.petsitter.common;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestConstructor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against two separate in-memory databases. Each one holds a row naming it, so a query shows which database a
+ * transaction was routed to.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+    "spring.datasource.url=jdbc:h2:mem:routing-primary-db;DB_CLOSE_DELAY=-1",
+    "petsitter.datasource.replica.enabled=true",
+    "petsitter.datasource.replica.url=jdbc:h2:mem:routing-replica-db;DB_CLOSE_DELAY=-1",
+    "petsitter.datasource.replica.read-your-writes-window=1m"
+})
+@ActiveProfiles("test")
+@RequiredArgsConstructor
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+class ReadWriteRoutingDataSourceTests {
+
+    private static final String SELECT_DATABASE_NAME = "SELECT name FROM database_name";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * The pools behind the routing data source, injected by name.
+     */
+    private final HikariDataSource primaryDataSource;
+
+    private final HikariDataSource replicaDataSource;
+
+    @BeforeEach
+    void setupData() {
+
+        createDatabaseNameTable(primaryDataSource, "primary");
+        createDatabaseNameTable(replicaDataSource, "replica");
+    }
+
+    @AfterEach
+    void cleanUp() {
+
+        SecurityContextHolder.clearContext();
+
+        new JdbcTemplate(primaryDataSource).execute("DROP TABLE database_name");
+        new JdbcTemplate(replicaDataSource).execute("DROP TABLE database_name");
+    }
+
+    @Test
+    void whenReadOnlyTransactionThenReplica() {
+
+        assertEquals("replica", readOnly().execute(status -> selectDatabaseName()));
+    }
+
+    @Test
+    void whenReadWriteTransactionThenPrimary() {
+
+        assertEquals("primary", readWrite().execute(status -> selectDatabaseName()));
+    }
+
+    @Test
+    void whenNoTransactionThenPrimary() {
+
+        assertEquals("primary", selectDatabaseName());
+    }
+
+    @Test
+    void givenWriteCommittedBySessionWhenReadOnlyTransactionInSameSessionThenPrimary() {
+
+        SecurityContextHolder.getContext().setAuthentication(
+            new TestingAuthenticationToken("writer", null, "PET_OWNER"));
+
+        readWrite().executeWithoutResult(status ->
+            jdbcTemplate.update("UPDATE database_name SET name = name"));
+
+        assertEquals("primary", readOnly().execute(status -> selectDatabaseName()));
+
+        SecurityContextHolder.getContext().setAuthentication(
+            new TestingAuthenticationToken("reader", null, "PET_OWNER"));
+
+        assertEquals("replica", readOnly().execute(status -> selectDatabaseName()));
+    }
+
+    @Test
+    void givenWriteRolledBackBySessionWhenReadOnlyTransactionInSameSessionThenReplica() {
+
+        SecurityContextHolder.getContext().setAuthentication(
+            new TestingAuthenticationToken("rolled-back-writer", null, "PET_OWNER"));
+
+        readWrite().executeWithoutResult(status -> {
+
+            jdbcTemplate.update("UPDATE database_name SET name = name");
+
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", readOnly().execute(status -> selectDatabaseName()));
+    }
+
+    private String selectDatabaseName() {
+        return jdbcTemplate.queryForObject(SELECT_DATABASE_NAME, String.class);
+    }
+
+    private TransactionTemplate readOnly() {
+
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+
+        transactionTemplate.setReadOnly(true);
+
+        return transactionTemplate;
+    }
+
+    private TransactionTemplate readWrite() {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    private static void createDatabaseNameTable(DataSource dataSource, String name) {
+
+        var jdbcTemplate = new JdbcTemplate(dataSource);
+
+        jdbcTemplate.execute("CREATE TABLE database_name (name VARCHAR(10))");
+        jdbcTemplate.update("INSERT INTO database_name (name) VALUES (?)", name);
+    }
+}
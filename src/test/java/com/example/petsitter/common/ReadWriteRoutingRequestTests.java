@@ -0,0 +1,109 @@
+package com.example.petsitter.common;
+
+import com.example.petsitter.jobs.JobTestConfig;
+import com.example.petsitter.users.UserDto;
+import com.example.petsitter.users.UserTestConfig;
+import com.example.petsitter.users.UserTestUtils;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestConstructor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+
+import static com.example.petsitter.sessions.SessionTestConfig.PET_OWNER_EMAIL;
+import static com.example.petsitter.users.User.UserRole.PET_OWNER;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sends requests that read in a read-only transaction and then write, against separate primary and replica
+ * databases. The replica starts as a copy of the primary, as if replication had caught up.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:request-routing-primary-db;DB_CLOSE_DELAY=-1",
+    "petsitter.datasource.replica.enabled=true",
+    "petsitter.datasource.replica.url=jdbc:h2:mem:request-routing-replica-db;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import({JobTestConfig.class, UserTestConfig.class})
+@RequiredArgsConstructor
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+class ReadWriteRoutingRequestTests {
+
+    private static final String COUNT_REFRESH_TOKENS = "SELECT COUNT(*) FROM refresh_tokens";
+
+    private final MockMvc mockMvc;
+
+    private final UserTestUtils userTestUtils;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The pools behind the routing data source, injected by name.
+     */
+    private final HikariDataSource primaryDataSource;
+
+    private final HikariDataSource replicaDataSource;
+
+    @BeforeEach
+    void setupData() {
+
+        transactionTemplate.executeWithoutResult(status -> userTestUtils.save(
+            UserDto.builder()
+                .email(PET_OWNER_EMAIL)
+                .password("1Password!")
+                .fullName("Full Name")
+                .roles(Set.of(PET_OWNER))
+                .build()));
+
+        var replica = new JdbcTemplate(replicaDataSource);
+
+        new JdbcTemplate(primaryDataSource).queryForList("SCRIPT", String.class).forEach(replica::execute);
+    }
+
+    @AfterEach
+    void cleanUp() {
+
+        var primary = new JdbcTemplate(primaryDataSource);
+
+        primary.update("DELETE FROM refresh_tokens");
+        primary.update("DELETE FROM user_roles");
+        primary.update("DELETE FROM users");
+
+        new JdbcTemplate(replicaDataSource).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void whenCreateSessionThenRefreshTokenWrittenToPrimary() throws Exception {
+
+        mockMvc.perform(post("/sessions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                      "email": "%s",
+                      "password": "1Password!"
+                    }
+                    """.formatted(PET_OWNER_EMAIL.getAddress())))
+            .andExpect(status().isCreated());
+
+        assertAll(
+            () -> assertEquals(1, new JdbcTemplate(primaryDataSource).queryForObject(COUNT_REFRESH_TOKENS,
+                Integer.class)),
+            () -> assertEquals(0, new JdbcTemplate(replicaDataSource).queryForObject(COUNT_REFRESH_TOKENS,
+                Integer.class))
+        );
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.petsitter.common;
+
+import com.example.petsitter.common.StatementRecorder.RecordedStatement;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Asserts on the cost of the statements recorded for a unit of work, typically a single request: at most a budgeted
+ * number of statements, and no N+1 pattern, that is no statement executed more than once.
+ */
+public class StatementBudget {
+
+    public static void assertWithinBudget(String unitOfWork, int maxStatements,
+                                          List<RecordedStatement> recordedStatements) {
+
+        if (recordedStatements.size() > maxStatements) {
+
+            fail("%s executed %d statements, budget %d:%n%s".formatted(unitOfWork, recordedStatements.size(),
+                maxStatements, describe(recordedStatements)));
+        }
+
+        assertNoRepeatedStatements(unitOfWork, recordedStatements);
+    }
+
+    /**
+     * Fails if the same statement is executed more than once, as when an association is loaded or a row deleted one
+     * at a time. Hibernate renders a statement identically each time, so equal SQL means the same statement.
+     */
+    public static void assertNoRepeatedStatements(String unitOfWork, List<RecordedStatement> recordedStatements) {
+
+        var repeatedStatements = recordedStatements.stream()
+            .collect(Collectors.groupingBy(RecordedStatement::sql, Collectors.counting()))
+            .entrySet().stream()
+            .filter(sqlAndCount -> sqlAndCount.getValue() > 1)
+            .map(sqlAndCount -> "%dx %s".formatted(sqlAndCount.getValue(), sqlAndCount.getKey()))
+            .toList();
+
+        if (!repeatedStatements.isEmpty()) {
+
+            fail("%s repeated statements, possible N+1:%n%s".formatted(unitOfWork,
+                String.join(System.lineSeparator(), repeatedStatements)));
+        }
+    }
+
+    private static String describe(List<RecordedStatement> recordedStatements) {
+
+        return recordedStatements.stream()
+            .map(recordedStatement -> recordedStatement.sql() + " " + recordedStatement.parameters())
+            .collect(Collectors.joining(System.lineSeparator()));
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.petsitter.common;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Records the SQL statements, with their parameters, that the current thread executes through the wrapped data source,
+ * and explains them against the unwrapped data source.
+ */
+public class StatementRecorder {
+
+    private static final Set<String> EXECUTE_METHODS =
+        Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "addBatch");
+
+    private final ThreadLocal<List<RecordedStatement>> recordedStatements = new ThreadLocal<>();
+
+    private DataSource targetDataSource;
+
+    public record RecordedStatement(String sql, List<Object> parameters) {
+
+        public boolean isQuery() {
+            return sql.stripLeading().regionMatches(true, 0, "select", 0, 6);
+        }
+    }
+
+    public DataSource wrap(DataSource dataSource) {
+
+        this.targetDataSource = dataSource;
+
+        return new DelegatingDataSource(dataSource) {
+
+            @Override
+            public Connection getConnection() throws SQLException {
+                return recording(super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return recording(super.getConnection(username, password));
+            }
+        };
+    }
+
+    /**
+     * @return the statements executed by the current thread while running the runnable
+     */
+    public List<RecordedStatement> record(Runnable runnable) {
+
+        var statements = new ArrayList<RecordedStatement>();
+
+        recordedStatements.set(statements);
+
+        try {
+            runnable.run();
+        }
+        finally {
+            recordedStatements.remove();
+        }
+
+        return Collections.unmodifiableList(statements);
+    }
+
+    /**
+     * @return the H2 query plan of the statement, bound to the parameters it was executed with
+     */
+    public String explain(RecordedStatement recordedStatement) {
+
+        try (var connection = targetDataSource.getConnection();
+             var preparedStatement = connection.prepareStatement("EXPLAIN " + recordedStatement.sql())) {
+
+            for (int i = 0; i < recordedStatement.parameters().size(); i++) {
+                preparedStatement.setObject(i + 1, recordedStatement.parameters().get(i));
+            }
+
+            var plan = new StringBuilder();
+
+            try (var resultSet = preparedStatement.executeQuery()) {
+
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1));
+                }
+            }
+
+            return plan.toString();
+        }
+        catch (SQLException e) {
+            throw new IllegalStateException("Cannot explain " + recordedStatement.sql(), e);
+        }
+    }
+
+    /**
+     * @return the statement and plan of each statement whose plan reads a table without an index
+     */
+    public List<String> tableScans(List<RecordedStatement> recordedStatements) {
+
+        return recordedStatements.stream()
+            .map(recordedStatement -> recordedStatement.sql() + System.lineSeparator() + explain(recordedStatement))
+            .filter(sqlAndPlan -> sqlAndPlan.contains(".tableScan"))
+            .toList();
+    }
+
+    private Connection recording(Connection connection) {
+
+        return proxy(Connection.class, connection, (method, args) -> {
+
+            var result = invoke(connection, method, args);
+
+            if (result instanceof PreparedStatement preparedStatement &&
+                args != null && args[0] instanceof String sql) {
+
+                return recording(preparedStatement, sql);
+            }
+
+            if (result instanceof Statement statement && !(result instanceof PreparedStatement)) {
+                return recording(statement);
+            }
+
+            return result;
+        });
+    }
+
+    private PreparedStatement recording(PreparedStatement preparedStatement, String sql) {
+
+        var parameters = new TreeMap<Integer, Object>();
+
+        return proxy(PreparedStatement.class, preparedStatement, (method, args) -> {
+
+            if (method.getName().startsWith("set") && args != null && args.length >= 2 &&
+                args[0] instanceof Integer index) {
+
+                parameters.put(index, method.getName().equals("setNull") ? null : args[1]);
+            }
+            else if (method.getName().equals("clearParameters")) {
+                parameters.clear();
+            }
+            else if (EXECUTE_METHODS.contains(method.getName()) && (args == null || args.length == 0)) {
+                record(new RecordedStatement(sql, new ArrayList<>(parameters.values())));
+            }
+
+            return invoke(preparedStatement, method, args);
+        });
+    }
+
+    private Statement recording(Statement statement) {
+
+        return proxy(Statement.class, statement, (method, args) -> {
+
+            if (EXECUTE_METHODS.contains(method.getName()) && args != null && args[0] instanceof String sql) {
+                record(new RecordedStatement(sql, List.of()));
+            }
+
+            return invoke(statement, method, args);
+        });
+    }
+
+    private void record(RecordedStatement recordedStatement) {
+
+        var statements = recordedStatements.get();
+
+        if (statements != null) {
+            statements.add(recordedStatement);
+        }
+    }
+
+    private interface Interceptor {
+
+        Object intercept(Method method, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Interceptor interceptor) {
+
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+
+            if (method.getName().equals("equals") && args != null && args.length == 1) {
+                return proxy == args[0];
+            }
+
+            if (method.getName().equals("hashCode") && args == null) {
+                return System.identityHashCode(proxy);
+            }
+
+            if (method.getName().equals("unwrap") || method.getName().equals("isWrapperFor")) {
+                return invoke(target, method, args);
+            }
+
+            return interceptor.intercept(method, args);
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+
+        try {
+            return method.invoke(target, args);
+        }
+        catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
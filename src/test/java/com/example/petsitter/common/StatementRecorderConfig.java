@@ -0,0 +1,28 @@
+package com.example.petsitter.common;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+@TestConfiguration
+public class StatementRecorderConfig {
+
+    @Bean
+    static StatementRecorder statementRecorder() {
+        return new StatementRecorder();
+    }
+
+    @Bean
+    static BeanPostProcessor statementRecordingDataSourcePostProcessor(StatementRecorder statementRecorder) {
+
+        return new BeanPostProcessor() {
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? statementRecorder.wrap(dataSource) : bean;
+            }
+        };
+    }
+}
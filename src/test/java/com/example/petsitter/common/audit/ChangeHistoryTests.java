@@ -0,0 +1,358 @@
+package com.example.petsitter.common.audit;
+
+import com.example.petsitter.common.Email;
+import com.example.petsitter.jobs.Job;
+import com.example.petsitter.jobs.JobApplication;
+import com.example.petsitter.jobs.JobApplicationDto;
+import com.example.petsitter.jobs.JobDto;
+import com.example.petsitter.jobs.JobTestConfig;
+import com.example.petsitter.jobs.JobTestUtils;
+import com.example.petsitter.users.User;
+import com.example.petsitter.users.UserDto;
+import com.example.petsitter.users.UserTestConfig;
+import com.example.petsitter.users.UserTestUtils;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.NestedTestConfiguration;
+import org.springframework.test.context.TestConstructor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.example.petsitter.common.CommonConfig.MEDIA_TYPE_APPLICATION_MERGE_PATCH_JSON;
+import static com.example.petsitter.users.User.UserRole.PET_OWNER;
+import static com.example.petsitter.users.User.UserRole.PET_SITTER;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Commits its changes, since history is only recorded after a commit, to a database of its own.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    properties = "spring.datasource.url=jdbc:h2:mem:change-history-db")
+@ActiveProfiles("test")
+@RequiredArgsConstructor
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+class ChangeHistoryTests {
+
+    private static final String SELECT_CHANGES = """
+        SELECT field_name, old_value, new_value FROM change_history WHERE entity_type = ? AND entity_id = ?""";
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ChangeHistoryWriter changeHistoryWriter;
+
+    private final ChangeHistory changeHistory;
+
+    @SpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void whenModifyJobThenChangedFieldsRecordedWithOldAndNewValues() {
+
+        var jobOwnerId = saveUser("history-owner@example.com");
+        var otherJobOwnerId = saveUser("history-other-owner@example.com");
+        var jobId = saveJob(jobOwnerId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+
+            var job = entityManager.find(Job.class, jobId);
+
+            job.setActivity("Walk, Exercise");
+            job.setJobOwner(entityManager.getReference(User.class, otherJobOwnerId));
+        });
+
+        changeHistoryWriter.flush();
+
+        assertEquals(Map.of(
+            "activity", new Change("Walk", "Walk, Exercise"),
+            "jobOwner", new Change(jobOwnerId.toString(), otherJobOwnerId.toString())
+        ), changes(jdbcTemplate, "Job", jobId));
+    }
+
+    @Test
+    void whenModifyUserPasswordThenChangeRecordedWithoutValues() {
+
+        var userId = saveUser("history-password@example.com");
+
+        transactionTemplate.executeWithoutResult(status ->
+            entityManager.find(User.class, userId).setPassword("{noop}2Password!"));
+
+        changeHistoryWriter.flush();
+
+        assertEquals(Map.of("password", new Change("***", "***")), changes(jdbcTemplate, "User", userId));
+    }
+
+    @Test
+    void whenModificationRolledBackThenNoChangeRecorded() {
+
+        var jobId = saveJob(saveUser("history-rollback@example.com"));
+
+        transactionTemplate.executeWithoutResult(status -> {
+
+            entityManager.find(Job.class, jobId).setActivity("Walk, Exercise");
+            entityManager.flush();
+
+            status.setRollbackOnly();
+        });
+
+        changeHistoryWriter.flush();
+
+        assertTrue(changes(jdbcTemplate, "Job", jobId).isEmpty());
+    }
+
+    @Test
+    void whenChangesRecordedAfterCommitThenOnlyFieldsWithNewValuesRecorded() {
+
+        var jobId = UUID.randomUUID();
+
+        transactionTemplate.executeWithoutResult(status ->
+            changeHistory.recordAfterCommit(Job.class, jobId, Map.of("activity", "Walk", "dog.age", 3),
+                Map.of("activity", "Walk, Exercise", "dog.age", 3), null, LocalDateTime.now()));
+
+        changeHistoryWriter.flush();
+
+        assertEquals(Map.of("activity", new Change("Walk", "Walk, Exercise")), changes(jdbcTemplate, "Job", jobId));
+    }
+
+    @Test
+    void givenDatabaseUnavailableOnceWhenChangesRecordedThenInsertedByLaterAttempt() {
+
+        var jobId = UUID.randomUUID();
+
+        doThrow(new DataAccessResourceFailureException("Connection refused")).doCallRealMethod()
+            .when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+
+        changeHistory.recordAfterCommit(Job.class, jobId, Map.of("activity", "Walk"),
+            Map.of("activity", "Walk, Exercise"), null, LocalDateTime.now());
+
+        // either the background thread or the first flush fails, and the second flush at the latest inserts again
+        changeHistoryWriter.flush();
+        changeHistoryWriter.flush();
+
+        assertAll(
+            () -> verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyCollection(), anyInt(), any()),
+            () -> assertEquals(Map.of("activity", new Change("Walk", "Walk, Exercise")),
+                changes(jdbcTemplate, "Job", jobId))
+        );
+    }
+
+    /**
+     * Modifies jobs and job applications stored on job shards, whose updates bypass Hibernate. Users are rolled back
+     * with the test transaction, the shards commit on their own.
+     */
+    @Nested
+    @NestedTestConfiguration(NestedTestConfiguration.EnclosingConfiguration.OVERRIDE)
+    @SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sharded-change-history-db",
+        "petsitter.jobs.sharding.enabled=true",
+        "petsitter.jobs.sharding.urls=" +
+            "jdbc:h2:mem:change-history-shard-0;DB_CLOSE_DELAY=-1," +
+            "jdbc:h2:mem:change-history-shard-1;DB_CLOSE_DELAY=-1"
+    })
+    @AutoConfigureMockMvc
+    @ActiveProfiles("test")
+    @Import({JobTestConfig.class, UserTestConfig.class})
+    @Transactional
+    class ShardedTests {
+
+        @Autowired
+        MockMvc mockMvc;
+
+        @Autowired
+        JdbcTemplate jdbcTemplate;
+
+        @Autowired
+        ChangeHistoryWriter changeHistoryWriter;
+
+        @Autowired
+        JobTestUtils jobTestUtils;
+
+        @Autowired
+        UserTestUtils userTestUtils;
+
+        UserDto petOwnerDto;
+        JobDto jobDto;
+        JobApplicationDto jobApplicationDto;
+
+        @BeforeEach
+        void setupData() {
+
+            petOwnerDto = saveUser("sharded-history-owner@example.com", PET_OWNER);
+
+            var petSitterDto = saveUser("sharded-history-sitter@example.com", PET_SITTER);
+
+            var startTime = LocalDateTime.now().plusWeeks(1).withNano(0).withSecond(0).withMinute(0);
+
+            jobDto = jobTestUtils.save(
+                JobDto.builder()
+                    .creatorUserId(petOwnerDto.getId())
+                    .startTime(startTime)
+                    .endTime(startTime.plusHours(2))
+                    .activity("Walk")
+                    .dog(JobDto.DogDto.builder()
+                        .name("Rambo")
+                        .age(3)
+                        .breed("Bichon Frisé")
+                        .size("6kg")
+                        .build())
+                    .build());
+
+            jobApplicationDto = jobTestUtils.saveJobApplication(
+                JobApplicationDto.builder()
+                    .status(JobApplication.JobApplicationStatus.PENDING)
+                    .userId(petSitterDto.getId())
+                    .jobId(jobDto.getId())
+                    .build());
+        }
+
+        @Test
+        void whenModifyJobThenChangedFieldsRecorded() throws Exception {
+
+            mockMvc.perform(modify(patch("/jobs/{id}", jobDto.getId()), """
+                    {
+                      "activity": "Walk, Exercise"
+                    }
+                    """))
+                .andExpect(status().isOk());
+
+            changeHistoryWriter.flush();
+
+            assertEquals(Map.of("activity", new Change("Walk", "Walk, Exercise")),
+                changes(jdbcTemplate, "Job", jobDto.getId()));
+        }
+
+        @Test
+        void whenModifyJobIfVersionThenChangedFieldsRecorded() throws Exception {
+
+            mockMvc.perform(modify(patch("/jobs/{id}", jobDto.getId()), """
+                    {
+                      "dog": {
+                        "age": 4
+                      }
+                    }
+                    """).header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isOk());
+
+            changeHistoryWriter.flush();
+
+            assertEquals(Map.of("dog.age", new Change("3", "4")), changes(jdbcTemplate, "Job", jobDto.getId()));
+        }
+
+        @Test
+        void whenModifyJobApplicationThenChangedFieldsRecorded() throws Exception {
+
+            mockMvc.perform(modify(patch("/job-applications/{id}", jobApplicationDto.getId()), """
+                    {
+                      "status": "ACCEPTED"
+                    }
+                    """))
+                .andExpect(status().isOk());
+
+            changeHistoryWriter.flush();
+
+            assertEquals(Map.of("applicationStatus", new Change("PENDING", "ACCEPTED")),
+                changes(jdbcTemplate, "JobApplication", jobApplicationDto.getId()));
+        }
+
+        private MockHttpServletRequestBuilder modify(MockHttpServletRequestBuilder request, String content) {
+
+            return request
+                .with(session(petOwnerDto, PET_OWNER))
+                .contentType(MEDIA_TYPE_APPLICATION_MERGE_PATCH_JSON)
+                .content(content);
+        }
+
+        private UserDto saveUser(String email, User.UserRole role) {
+
+            return userTestUtils.save(
+                UserDto.builder()
+                    .email(new Email(email))
+                    .password("1Password!")
+                    .fullName("Full Name")
+                    .roles(Set.of(role))
+                    .build());
+        }
+
+        private static SecurityMockMvcRequestPostProcessors.JwtRequestPostProcessor session(UserDto userDto,
+                                                                                            User.UserRole role) {
+
+            return jwt()
+                .jwt(jwt -> jwt.subject(userDto.getId().toString()))
+                .authorities(new SimpleGrantedAuthority(role.name()));
+        }
+    }
+
+    private UUID saveUser(String email) {
+
+        return transactionTemplate.execute(status -> {
+
+            var user = new User();
+            user.setEmail(email);
+            user.setPassword("{noop}1Password!");
+            user.setFullName("Full Name");
+            user.setRoles(Set.of(PET_OWNER));
+
+            entityManager.persist(user);
+
+            return user.getId();
+        });
+    }
+
+    /**
+     * Inserts the job with JDBC, since its dog is not accessible outside the jobs package.
+     */
+    private UUID saveJob(UUID jobOwnerId) {
+
+        var jobId = UUID.randomUUID();
+        var startTime = LocalDateTime.of(2030, 12, 2, 12, 0);
+
+        jdbcTemplate.update("""
+            INSERT INTO jobs (id, job_owner_id, start_time, end_time, activity, name, age, breed, size, version)
+            VALUES (?, ?, ?, ?, 'Walk', 'Rambo', 3, 'Bichon Frisé', '6kg', 0)""",
+            jobId, jobOwnerId, startTime, startTime.plusHours(2));
+
+        return jobId;
+    }
+
+    private static Map<String, Change> changes(JdbcTemplate jdbcTemplate, String entityType, UUID entityId) {
+
+        return jdbcTemplate.query(SELECT_CHANGES, (resultSet, rowNum) -> Map.entry(resultSet.getString("field_name"),
+                new Change(resultSet.getString("old_value"), resultSet.getString("new_value"))),
+                entityType, entityId)
+            .stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    private record Change(String oldValue, String newValue) {}
+}
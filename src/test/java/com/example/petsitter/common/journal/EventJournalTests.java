@@ -0,0 +1,92 @@
+package com.example.petsitter.common.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventJournalTests {
+
+    private static final int SEGMENT_SIZE = 64;
+
+    @Test
+    void whenAppendedAcrossSegmentsThenReplayedInOrderAfterReopen(@TempDir Path directory) throws IOException {
+
+        var journal = new EventJournal(directory, SEGMENT_SIZE);
+
+        IntStream.range(0, 20).forEach(i -> journal.append(event(i)));
+
+        assertTrue(segmentFiles(directory).size() > 1);
+        assertEquals(IntStream.range(0, 20).boxed().toList(), replay(new EventJournal(directory, SEGMENT_SIZE)));
+    }
+
+    @Test
+    void whenSnapshotWrittenThenOnlyLaterEventsReplayedAndEarlierSegmentsDeleted(@TempDir Path directory)
+        throws IOException {
+
+        var journal = new EventJournal(directory, SEGMENT_SIZE);
+
+        IntStream.range(0, 20).forEach(i -> journal.append(event(i)));
+
+        journal.writeSnapshot(Integer.BYTES, snapshot -> snapshot.putInt(20));
+
+        assertEquals(1, segmentFiles(directory).size());
+
+        journal.append(event(20));
+
+        var reopenedJournal = new EventJournal(directory, SEGMENT_SIZE);
+
+        assertEquals(20, reopenedJournal.readSnapshot().orElseThrow().getInt(0));
+        assertEquals(List.of(20), replay(reopenedJournal));
+    }
+
+    @Test
+    void whenLastRecordTornThenJournalEndsBeforeIt(@TempDir Path directory) throws IOException {
+
+        var journal = new EventJournal(directory, SEGMENT_SIZE);
+
+        journal.append(event(1));
+        journal.append(event(2));
+
+        // corrupts the payload of the second record, which follows a length, a checksum and a payload of 4 bytes each
+        try (var channel = FileChannel.open(segmentFiles(directory).get(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) 0xff}), 3 * Integer.BYTES + 2 * Integer.BYTES);
+        }
+
+        var reopenedJournal = new EventJournal(directory, SEGMENT_SIZE);
+
+        reopenedJournal.append(event(3));
+
+        assertEquals(List.of(1, 3), replay(reopenedJournal));
+    }
+
+    private static ByteBuffer event(int value) {
+        return ByteBuffer.allocate(Integer.BYTES).putInt(value).flip();
+    }
+
+    private static List<Integer> replay(EventJournal journal) {
+
+        var values = new ArrayList<Integer>();
+
+        journal.replay(event -> values.add(event.getInt(0)));
+
+        return values;
+    }
+
+    private static List<Path> segmentFiles(Path directory) throws IOException {
+
+        try (var files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".segment")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.petsitter.jobs;
+
+import com.example.petsitter.common.Email;
+import com.example.petsitter.users.User;
+import com.example.petsitter.users.UserDto;
+import com.example.petsitter.users.UserTestConfig;
+import com.example.petsitter.users.UserTestUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestConstructor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.example.petsitter.common.CommonConfig.*;
+import static com.example.petsitter.jobs.JobApplication.JobApplicationStatus.PENDING;
+import static com.example.petsitter.jobs.JobTests.*;
+import static com.example.petsitter.sessions.SessionTestConfig.*;
+import static com.example.petsitter.users.User.UserRole.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Requests the collection endpoints as JSON, CBOR and Smile and decodes the binary responses with the object mappers of
+ * the application's converters. Items are streamed in id order.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import({JobTestConfig.class, UserTestConfig.class})
+@RequiredArgsConstructor
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+@Transactional
+class JobCollectionFormatTests {
+
+    private final MockMvc mockMvc;
+
+    private final ObjectMapper objectMapper;
+
+    private final MappingJackson2CborHttpMessageConverter cborHttpMessageConverter;
+
+    private final MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter;
+
+    private final JobTestUtils jobTestUtils;
+
+    private final UserTestUtils userTestUtils;
+
+    private UserDto petOwnerDto;
+    private UserDto petSitterDto;
+    private UserDto adminDto;
+    private Set<UUID> jobIds;
+    private UUID jobApplicationId;
+
+    @BeforeEach
+    void setupData() {
+
+        petOwnerDto = saveUser(PET_OWNER_EMAIL, PET_OWNER);
+        petSitterDto = saveUser(PET_SITTER_EMAIL, PET_SITTER);
+        adminDto = saveUser(ADMIN_EMAIL, ADMIN);
+
+        jobIds = new HashSet<>();
+
+        for (int i = 0; i < 2; i++) {
+
+            var jobDto = jobTestUtils.save(
+                JobDto.builder()
+                    .creatorUserId(petOwnerDto.getId())
+                    .startTime(START_TIME)
+                    .endTime(END_TIME)
+                    .activity(ACTIVITY)
+                    .dog(DOG_DTO)
+                    .build());
+
+            jobIds.add(jobDto.getId());
+
+            jobApplicationId = jobTestUtils.saveJobApplication(
+                JobApplicationDto.builder()
+                    .status(PENDING)
+                    .userId(petSitterDto.getId())
+                    .jobId(jobDto.getId())
+                    .build()).getId();
+        }
+    }
+
+    @Test
+    void whenViewAllJobsAsCborThenUuidsAreBinary() throws Exception {
+
+        assertJobCollection(viewAllJobs(MEDIA_TYPE_APPLICATION_CBOR), cborHttpMessageConverter.getObjectMapper());
+    }
+
+    @Test
+    void whenViewAllJobsAsSmileThenUuidsAreBinary() throws Exception {
+
+        assertJobCollection(viewAllJobs(MEDIA_TYPE_APPLICATION_SMILE), smileHttpMessageConverter.getObjectMapper());
+    }
+
+    @Test
+    void whenViewAllJobsAsCborOrSmileThenSmallerThanJson() throws Exception {
+
+        var jsonLength = viewAllJobs(MediaType.APPLICATION_JSON_VALUE).length;
+
+        assertTrue(viewAllJobs(MEDIA_TYPE_APPLICATION_CBOR).length < jsonLength);
+        assertTrue(viewAllJobs(MEDIA_TYPE_APPLICATION_SMILE).length < jsonLength);
+    }
+
+    @Test
+    void whenViewAllJobsAsJsonThenItemsOrderedById() throws Exception {
+
+        var items = objectMapper.readTree(viewAllJobs(MediaType.APPLICATION_JSON_VALUE)).get("items");
+
+        var itemIds = new ArrayList<String>();
+        items.forEach(item -> itemIds.add(item.get("id").asText()));
+
+        // the database orders UUIDs as unsigned numbers, which their hexadecimal strings sort like
+        assertEquals(jobIds.stream().map(UUID::toString).sorted().toList(), itemIds);
+    }
+
+    @Test
+    void whenViewApplicationsForUserAsCborThenUuidsAreBinary() throws Exception {
+
+        var content = mockMvc.perform(get("/users/{id}/job-applications", petSitterDto.getId())
+                .with(session(petSitterDto, PET_SITTER))
+                .accept(MEDIA_TYPE_APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MEDIA_TYPE_APPLICATION_CBOR))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        var items = cborHttpMessageConverter.getObjectMapper().readTree(content).get("items");
+
+        assertEquals(2, items.size());
+
+        var jobApplicationIds = new HashSet<UUID>();
+
+        for (var item : items) {
+
+            jobApplicationIds.add(uuid(item.get("id")));
+
+            assertEquals(petSitterDto.getId(), uuid(item.get("user_id")));
+            assertTrue(jobIds.contains(uuid(item.get("job_id"))));
+            assertEquals(PENDING.name(), item.get("status").asText());
+        }
+
+        assertTrue(jobApplicationIds.contains(jobApplicationId));
+    }
+
+    private byte[] viewAllJobs(String mediaType) throws Exception {
+
+        return mockMvc.perform(get("/jobs")
+                .with(session(adminDto, ADMIN))
+                .accept(mediaType))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(mediaType))
+            .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    private void assertJobCollection(byte[] content, ObjectMapper binaryObjectMapper) throws IOException {
+
+        var items = binaryObjectMapper.readTree(content).get("items");
+
+        assertEquals(2, items.size());
+
+        var itemIds = new HashSet<UUID>();
+
+        for (var item : items) {
+
+            itemIds.add(uuid(item.get("id")));
+
+            assertEquals(petOwnerDto.getId(), uuid(item.get("creator_user_id")));
+            assertEquals(START_TIME.format(DATE_TIME_FORMATTER), item.get("start_time").asText());
+            assertEquals(END_TIME.format(DATE_TIME_FORMATTER), item.get("end_time").asText());
+            assertEquals(ACTIVITY, item.get("activity").asText());
+        }
+
+        assertEquals(jobIds, itemIds);
+    }
+
+    private static UUID uuid(JsonNode node) throws IOException {
+
+        assertTrue(node.isBinary(), () -> "Binary UUID expected, got " + node.getNodeType());
+
+        var bytes = ByteBuffer.wrap(node.binaryValue());
+
+        assertEquals(16, bytes.remaining());
+
+        return new UUID(bytes.getLong(), bytes.getLong());
+    }
+
+    private static SecurityMockMvcRequestPostProcessors.JwtRequestPostProcessor session(UserDto userDto,
+                                                                                        User.UserRole role) {
+
+        return jwt()
+            .jwt(jwt -> jwt.subject(userDto.getId().toString()))
+            .authorities(new SimpleGrantedAuthority(role.name()));
+    }
+
+    private UserDto saveUser(Email email, User.UserRole role) {
+
+        return userTestUtils.save(
+            UserDto.builder()
+                .email(email)
+                .password("1Password!")
+                .fullName("Full Name")
+                .roles(Set.of(role))
+                .build());
+    }
+}
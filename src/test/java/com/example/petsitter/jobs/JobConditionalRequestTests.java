@@ -0,0 +1,228 @@
+package com.example.petsitter.jobs;
+
+import com.example.petsitter.common.Email;
+import com.example.petsitter.users.User;
+import com.example.petsitter.users.UserDto;
+import com.example.petsitter.users.UserTestConfig;
+import com.example.petsitter.users.UserTestUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestConstructor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+
+import static com.example.petsitter.common.CommonConfig.MEDIA_TYPE_APPLICATION_MERGE_PATCH_JSON;
+import static com.example.petsitter.jobs.JobApplication.JobApplicationStatus.ACCEPTED;
+import static com.example.petsitter.jobs.JobApplication.JobApplicationStatus.PENDING;
+import static com.example.petsitter.jobs.JobTests.*;
+import static com.example.petsitter.sessions.SessionTestConfig.*;
+import static com.example.petsitter.users.User.UserRole.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Modifies jobs and job applications with the ETag of the version a patch is based on in the If-Match header.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:job-conditional-request-db")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import({JobTestConfig.class, UserTestConfig.class})
+@RequiredArgsConstructor
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+@Transactional
+class JobConditionalRequestTests {
+
+    private final MockMvc mockMvc;
+
+    private final ObjectMapper objectMapper;
+
+    private final JobTestUtils jobTestUtils;
+
+    private final UserTestUtils userTestUtils;
+
+    private UserDto petOwnerDto;
+    private JobDto jobDto;
+    private JobApplicationDto jobApplicationDto;
+
+    @BeforeEach
+    void setupData() {
+
+        petOwnerDto = saveUser(PET_OWNER_EMAIL, PET_OWNER);
+
+        var petSitterDto = saveUser(PET_SITTER_EMAIL, PET_SITTER);
+
+        jobDto = jobTestUtils.save(
+            JobDto.builder()
+                .creatorUserId(petOwnerDto.getId())
+                .startTime(START_TIME)
+                .endTime(END_TIME)
+                .activity(ACTIVITY)
+                .dog(DOG_DTO)
+                .build());
+
+        jobApplicationDto = jobTestUtils.saveJobApplication(
+            JobApplicationDto.builder()
+                .status(PENDING)
+                .userId(petSitterDto.getId())
+                .jobId(jobDto.getId())
+                .build());
+    }
+
+    @Test
+    void whenViewJobThenETagIsVersion() throws Exception {
+
+        mockMvc.perform(get("/jobs/{id}", jobDto.getId())
+                .with(session(petOwnerDto, PET_OWNER)))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+    }
+
+    @Test
+    void givenCurrentETagWhenModifyJobThenPatchedFieldsSetAndNextETagReturned() throws Exception {
+
+        var content = modifyJob("\"0\"", """
+            {
+              "activity": "Walk, Exercise",
+              "dog": {
+                "age": 6
+              }
+            }
+            """)
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andReturn().getResponse().getContentAsString();
+
+        var expectedJobDto = jobDto.toBuilder()
+            .activity("Walk, Exercise")
+            .dog(JobDto.DogDto.builder()
+                .name(DOG_DTO.getName())
+                .age(6)
+                .breed(DOG_DTO.getBreed())
+                .size(DOG_DTO.getSize())
+                .build())
+            .build();
+
+        assertEquals(expectedJobDto, objectMapper.readValue(content, JobDto.class));
+
+        var viewedContent = mockMvc.perform(get("/jobs/{id}", jobDto.getId())
+                .with(session(petOwnerDto, PET_OWNER)))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andReturn().getResponse().getContentAsString();
+
+        assertEquals(expectedJobDto, objectMapper.readValue(viewedContent, JobDto.class));
+    }
+
+    @Test
+    void givenStaleETagWhenModifyJobThenPreconditionFailedAndJobUnchanged() throws Exception {
+
+        modifyJob("\"0\"", """
+            {
+              "activity": "Walk, Exercise"
+            }
+            """).andExpect(status().isOk());
+
+        modifyJob("\"0\"", """
+            {
+              "activity": "House sit"
+            }
+            """).andExpect(status().isPreconditionFailed());
+
+        var content = mockMvc.perform(get("/jobs/{id}", jobDto.getId())
+                .with(session(petOwnerDto, PET_OWNER)))
+            .andReturn().getResponse().getContentAsString();
+
+        assertEquals("Walk, Exercise", objectMapper.readValue(content, JobDto.class).getActivity());
+    }
+
+    @Test
+    void givenWeakETagWhenModifyJobThenPreconditionFailed() throws Exception {
+
+        modifyJob("W/\"0\"", """
+            {
+              "activity": "Walk, Exercise"
+            }
+            """).andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void givenNoETagWhenModifyJobThenModified() throws Exception {
+
+        modifyJob(null, """
+            {
+              "activity": "Walk, Exercise"
+            }
+            """).andExpect(status().isOk());
+    }
+
+    @Test
+    void givenStaleETagWhenModifyJobApplicationThenPreconditionFailed() throws Exception {
+
+        modifyJobApplication("\"1\"").andExpect(status().isPreconditionFailed());
+
+        modifyJobApplication("\"0\"")
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    }
+
+    private ResultActions modifyJob(String ifMatch, String content) throws Exception {
+
+        var request = patch("/jobs/{id}", jobDto.getId())
+            .with(session(petOwnerDto, PET_OWNER))
+            .contentType(MEDIA_TYPE_APPLICATION_MERGE_PATCH_JSON)
+            .content(content);
+
+        if (ifMatch != null) {
+            request.header(HttpHeaders.IF_MATCH, ifMatch);
+        }
+
+        return mockMvc.perform(request);
+    }
+
+    private ResultActions modifyJobApplication(String ifMatch) throws Exception {
+
+        return mockMvc.perform(patch("/job-applications/{id}", jobApplicationDto.getId())
+            .with(session(petOwnerDto, PET_OWNER))
+            .header(HttpHeaders.IF_MATCH, ifMatch)
+            .contentType(MEDIA_TYPE_APPLICATION_MERGE_PATCH_JSON)
+            .content("""
+                {
+                  "status": "%s"
+                }
+                """.formatted(ACCEPTED)));
+    }
+
+    private static SecurityMockMvcRequestPostProcessors.JwtRequestPostProcessor session(UserDto userDto,
+                                                                                        User.UserRole role) {
+
+        return jwt()
+            .jwt(jwt -> jwt.subject(userDto.getId().toString()))
+            .authorities(new SimpleGrantedAuthority(role.name()));
+    }
+
+    private UserDto saveUser(Email email, User.UserRole role) {
+
+        return userTestUtils.save(
+            UserDto.builder()
+                .email(email)
+                .password("1Password!")
+                .fullName("Full Name")
+                .roles(Set.of(role))
+                .build());
+    }
+}
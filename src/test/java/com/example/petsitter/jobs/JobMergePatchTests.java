@@ -0,0 +1,150 @@
+package com.example.petsitter.jobs;
+
+import com.example.petsitter.common.StatementRecorder;
+import com.example.petsitter.common.StatementRecorderConfig;
+import com.example.petsitter.common.exception.InvalidArgument;
+import com.example.petsitter.users.User;
+import com.example.petsitter.users.UserDto;
+import com.example.petsitter.users.UserTestConfig;
+import com.example.petsitter.users.UserTestUtils;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestConstructor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+
+import static com.example.petsitter.common.CommonConfig.MEDIA_TYPE_APPLICATION_MERGE_PATCH_JSON;
+import static com.example.petsitter.jobs.JobTests.*;
+import static com.example.petsitter.sessions.SessionTestConfig.PET_OWNER_EMAIL;
+import static com.example.petsitter.users.User.UserRole.PET_OWNER;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sends JSON Merge Patch bodies to the job endpoints and checks which members are rejected and which columns the
+ * resulting UPDATE writes.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:job-merge-patch-db")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import({JobTestConfig.class, UserTestConfig.class, StatementRecorderConfig.class})
+@RequiredArgsConstructor
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+@Transactional
+class JobMergePatchTests {
+
+    private final MockMvc mockMvc;
+
+    private final JobTestUtils jobTestUtils;
+
+    private final UserTestUtils userTestUtils;
+
+    private final StatementRecorder statementRecorder;
+
+    private final EntityManager entityManager;
+
+    private UserDto petOwnerDto;
+    private JobDto jobDto;
+
+    @BeforeEach
+    void setupData() {
+
+        petOwnerDto = userTestUtils.save(
+            UserDto.builder()
+                .email(PET_OWNER_EMAIL)
+                .password("1Password!")
+                .fullName("Full Name")
+                .roles(Set.of(PET_OWNER))
+                .build());
+
+        jobDto = jobTestUtils.save(
+            JobDto.builder()
+                .creatorUserId(petOwnerDto.getId())
+                .startTime(START_TIME)
+                .endTime(END_TIME)
+                .activity(ACTIVITY)
+                .dog(DOG_DTO)
+                .build());
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void givenExplicitNullMembersWhenModifyJobThenBadRequestForEachMember() throws Exception {
+
+        mockMvc.perform(patch("/jobs/{id}", jobDto.getId())
+                .with(session(petOwnerDto))
+                .contentType(MEDIA_TYPE_APPLICATION_MERGE_PATCH_JSON)
+                .content("""
+                    {
+                      "activity": null,
+                      "dog": {
+                        "name": "Lola",
+                        "age": null
+                      }
+                    }
+                    """))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$['job.activity']").value(InvalidArgument.NULL_VALUE_MSG))
+            .andExpect(jsonPath("$['job.dog.age']").value(InvalidArgument.NULL_VALUE_MSG))
+            .andExpect(jsonPath("$['job.dog.name']").doesNotExist());
+    }
+
+    @Test
+    void whenModifyJobThenUpdateWritesOnlyChangedColumns() {
+
+        var recordedStatements = statementRecorder.record(() -> {
+
+            try {
+                mockMvc.perform(patch("/jobs/{id}", jobDto.getId())
+                        .with(session(petOwnerDto))
+                        .contentType(MEDIA_TYPE_APPLICATION_MERGE_PATCH_JSON)
+                        .content("""
+                            {
+                              "activity": "Walk, Exercise"
+                            }
+                            """))
+                    .andExpect(status().isOk());
+            }
+            catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+
+            entityManager.flush();
+        });
+
+        var update = recordedStatements.stream()
+            .map(StatementRecorder.RecordedStatement::sql)
+            .filter(sql -> sql.stripLeading().regionMatches(true, 0, "update jobs", 0, 11))
+            .findFirst()
+            .orElseThrow()
+            .toLowerCase();
+
+        assertTrue(update.contains("activity"), update);
+
+        for (var unchangedColumn : new String[] {"job_owner_id", "start_time", "end_time", "name", "breed", "size"}) {
+            assertFalse(update.contains(unchangedColumn), update);
+        }
+    }
+
+    private static SecurityMockMvcRequestPostProcessors.JwtRequestPostProcessor session(UserDto userDto) {
+
+        return jwt()
+            .jwt(jwt -> jwt.subject(userDto.getId().toString()))
+            .authorities(new SimpleGrantedAuthority(User.UserRole.PET_OWNER.name()));
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.petsitter.jobs;
+
+import com.example.petsitter.common.StatementRecorder;
+import com.example.petsitter.common.StatementRecorderConfig;
+import com.example.petsitter.users.UserDto;
+import com.example.petsitter.users.UserTestConfig;
+import com.example.petsitter.users.UserTestUtils;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.example.petsitter.jobs.JobApplication.JobApplicationStatus.PENDING;
+import static com.example.petsitter.jobs.JobTests.*;
+import static com.example.petsitter.sessions.SessionTestConfig.*;
+import static com.example.petsitter.users.User.UserRole.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Explains the statements behind each job repository query against the migrated schema and fails if any of them reads
+ * a table without an index. Listing every job (findAllDto) scans by design and is not covered.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+    "spring.datasource.url=jdbc:h2:mem:job-query-plan-db",
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("test")
+@Import({JobTestConfig.class, UserTestConfig.class, StatementRecorderConfig.class})
+@RequiredArgsConstructor
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+@Transactional
+class JobQueryPlanTests {
+
+    private final JobRepository jobRepository;
+
+    private final JobTestUtils jobTestUtils;
+
+    private final UserTestUtils userTestUtils;
+
+    private final StatementRecorder statementRecorder;
+
+    private final EntityManager entityManager;
+
+    private UserDto petOwnerDto;
+    private UserDto petSitterDto;
+    private JobDto jobDto;
+    private JobApplicationDto jobApplicationDto;
+
+    @BeforeEach
+    void setupData() {
+
+        petOwnerDto = userTestUtils.save(
+            UserDto.builder()
+                .email(PET_OWNER_EMAIL)
+                .password("1Password!")
+                .fullName("Full Name")
+                .roles(Set.of(PET_OWNER))
+                .build());
+
+        petSitterDto = userTestUtils.save(
+            UserDto.builder()
+                .email(PET_SITTER_EMAIL)
+                .password("1Password!")
+                .fullName("Full Name")
+                .roles(Set.of(PET_SITTER))
+                .build());
+
+        jobDto = jobTestUtils.save(
+            JobDto.builder()
+                .creatorUserId(petOwnerDto.getId())
+                .startTime(START_TIME)
+                .endTime(END_TIME)
+                .activity(ACTIVITY)
+                .dog(DOG_DTO)
+                .build());
+
+        jobApplicationDto = jobTestUtils.saveJobApplication(
+            JobApplicationDto.builder()
+                .status(PENDING)
+                .userId(petSitterDto.getId())
+                .jobId(jobDto.getId())
+                .build());
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void whenApplicationExistsByJobIdAndOwnerIdThenNoTableScan() {
+
+        assertNoTableScans(() ->
+            jobRepository.applicationExistsByJobIdAndOwnerId(jobDto.getId(), petSitterDto.getId()));
+    }
+
+    @Test
+    void whenDeleteAllJobsAndApplicationsByOwnerIdThenNoTableScan() {
+        assertNoTableScans(() -> jobRepository.deleteAllJobsAndApplicationsByOwnerId(petOwnerDto.getId()));
+    }
+
+    @Test
+    void whenDeleteByIdThenNoTableScan() {
+        assertNoTableScans(() -> jobRepository.deleteById(jobDto.getId()));
+    }
+
+    @Test
+    void whenExistsByIdThenNoTableScan() {
+        assertNoTableScans(() -> jobRepository.existsById(jobDto.getId()));
+    }
+
+    @Test
+    void whenFindAllApplicationsDtoByApplicationOwnerIdThenNoTableScan() {
+        assertNoTableScans(() ->
+            jobRepository.findAllApplicationsDtoByApplicationOwnerId(petSitterDto.getId()).toList());
+    }
+
+    @Test
+    void whenFindAllApplicationsDtoByJobIdThenNoTableScan() {
+        assertNoTableScans(() -> jobRepository.findAllApplicationsDtoByJobId(jobDto.getId()).toList());
+    }
+
+    @Test
+    void whenFindAllDtoByJobOwnerIdThenNoTableScan() {
+        assertNoTableScans(() -> jobRepository.findAllDtoByJobOwnerId(petOwnerDto.getId()).toList());
+    }
+
+    @Test
+    void whenFindApplicationWithOwnerAndJobByIdThenNoTableScan() {
+        assertNoTableScans(() -> jobRepository.findApplicationWithOwnerAndJobById(jobApplicationDto.getId()));
+    }
+
+    @Test
+    void whenFindDtoByIdThenNoTableScan() {
+        assertNoTableScans(() -> jobRepository.findDtoById(jobDto.getId()));
+    }
+
+    @Test
+    void whenFindJobOwnerIdByIdThenNoTableScan() {
+        assertNoTableScans(() -> jobRepository.findJobOwnerIdById(jobDto.getId()));
+    }
+
+    @Test
+    void whenFindWithJobOwnerByIdThenNoTableScan() {
+        assertNoTableScans(() -> jobRepository.findWithJobOwnerById(jobDto.getId()));
+    }
+
+    private void assertNoTableScans(Runnable repositoryCall) {
+
+        var recordedStatements = statementRecorder.record(() -> {
+
+            repositoryCall.run();
+
+            entityManager.flush();
+        });
+
+        assertAll(
+            () -> assertFalse(recordedStatements.isEmpty()),
+            () -> assertEquals(List.of(), statementRecorder.tableScans(recordedStatements))
+        );
+    }
+}
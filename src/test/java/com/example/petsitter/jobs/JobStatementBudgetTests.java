@@ -0,0 +1,261 @@
+package com.example.petsitter.jobs;
+
+import com.example.petsitter.common.Email;
+import com.example.petsitter.common.StatementRecorder;
+import com.example.petsitter.common.StatementRecorder.RecordedStatement;
+import com.example.petsitter.common.StatementRecorderConfig;
+import com.example.petsitter.users.User;
+import com.example.petsitter.users.UserDto;
+import com.example.petsitter.users.UserTestConfig;
+import com.example.petsitter.users.UserTestUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestConstructor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static com.example.petsitter.common.CommonConfig.MEDIA_TYPE_APPLICATION_MERGE_PATCH_JSON;
+import static com.example.petsitter.common.StatementBudget.assertWithinBudget;
+import static com.example.petsitter.jobs.JobApplication.JobApplicationStatus.PENDING;
+import static com.example.petsitter.jobs.JobTests.*;
+import static com.example.petsitter.sessions.SessionTestConfig.*;
+import static com.example.petsitter.users.User.UserRole.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Budgets the statements each job endpoint executes, flush included, and fails on N+1 patterns. Every job has several
+ * applications and every pet owner several jobs, so a per-row load or delete shows up as a repeated statement.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:job-statement-budget-db")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import({JobTestConfig.class, UserTestConfig.class, StatementRecorderConfig.class})
+@RequiredArgsConstructor
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+@Transactional
+class JobStatementBudgetTests {
+
+    private static final int JOBS = 3;
+
+    private final MockMvc mockMvc;
+
+    private final ObjectMapper objectMapper;
+
+    private final JobTestUtils jobTestUtils;
+
+    private final UserTestUtils userTestUtils;
+
+    private final StatementRecorder statementRecorder;
+
+    private final EntityManager entityManager;
+
+    private UserDto petOwnerDto;
+    private UserDto petSitterDto;
+    private UserDto anotherPetSitterDto;
+    private UserDto adminDto;
+    private List<JobDto> jobDtos;
+    private JobApplicationDto jobApplicationDto;
+
+    @BeforeEach
+    void setupData() {
+
+        petOwnerDto = saveUser(PET_OWNER_EMAIL, PET_OWNER);
+        petSitterDto = saveUser(PET_SITTER_EMAIL, PET_SITTER);
+        anotherPetSitterDto = saveUser(new Email("another-pet-sitter@example.com"), PET_SITTER);
+        adminDto = saveUser(ADMIN_EMAIL, ADMIN);
+
+        jobDtos = new ArrayList<>();
+
+        for (int i = 0; i < JOBS; i++) {
+
+            var jobDto = jobTestUtils.save(
+                JobDto.builder()
+                    .creatorUserId(petOwnerDto.getId())
+                    .startTime(START_TIME)
+                    .endTime(END_TIME)
+                    .activity(ACTIVITY)
+                    .dog(DOG_DTO)
+                    .build());
+
+            jobDtos.add(jobDto);
+
+            jobApplicationDto = saveJobApplication(petSitterDto, jobDto);
+            saveJobApplication(anotherPetSitterDto, jobDto);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void whenCreateJobThenWithinBudget() throws Exception {
+
+        var jobDto = JobDto.builder()
+            .startTime(START_TIME)
+            .endTime(END_TIME)
+            .activity(ACTIVITY)
+            .dog(DOG_DTO)
+            .build();
+
+        assertWithinBudget("POST /jobs", 1, perform(post("/jobs")
+            .with(session(petOwnerDto, PET_OWNER))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(jobDto)), status().isCreated()));
+    }
+
+    @Test
+    void whenViewAllJobsThenWithinBudget() {
+
+        assertWithinBudget("GET /jobs", 1, perform(get("/jobs")
+            .with(session(adminDto, ADMIN)), status().isOk()));
+    }
+
+    @Test
+    void whenViewJobThenWithinBudget() {
+
+        assertWithinBudget("GET /jobs/{id}", 1, perform(get("/jobs/{id}", jobDtos.get(0).getId())
+            .with(session(petOwnerDto, PET_OWNER)), status().isOk()));
+    }
+
+    @Test
+    void whenModifyJobThenWithinBudget() {
+
+        assertWithinBudget("PATCH /jobs/{id}", 2, perform(patch("/jobs/{id}", jobDtos.get(0).getId())
+            .with(session(petOwnerDto, PET_OWNER))
+            .contentType(MEDIA_TYPE_APPLICATION_MERGE_PATCH_JSON)
+            .content("""
+                {
+                  "activity": "Walk"
+                }
+                """), status().isOk()));
+    }
+
+    @Test
+    void whenModifyJobIfMatchThenWithinBudget() {
+
+        // reads the job without loading the entity and updates the patched column only
+        assertWithinBudget("PATCH /jobs/{id} If-Match", 2, perform(patch("/jobs/{id}", jobDtos.get(0).getId())
+            .with(session(petOwnerDto, PET_OWNER))
+            .header(HttpHeaders.IF_MATCH, "\"0\"")
+            .contentType(MEDIA_TYPE_APPLICATION_MERGE_PATCH_JSON)
+            .content("""
+                {
+                  "activity": "Walk"
+                }
+                """), status().isOk()));
+    }
+
+    @Test
+    void whenDeleteJobThenWithinBudget() {
+
+        assertWithinBudget("DELETE /jobs/{id}", 4, perform(delete("/jobs/{id}", jobDtos.get(0).getId())
+            .with(session(petOwnerDto, PET_OWNER)), status().isNoContent()));
+    }
+
+    @Test
+    void whenViewApplicationsForJobThenWithinBudget() {
+
+        assertWithinBudget("GET /jobs/{id}/job-applications", 2,
+            perform(get("/jobs/{id}/job-applications", jobDtos.get(0).getId())
+                .with(session(petOwnerDto, PET_OWNER)), status().isOk()));
+    }
+
+    @Test
+    void whenCreateJobApplicationThenWithinBudget() {
+
+        var yetAnotherPetSitterDto = saveUser(new Email("yet-another-pet-sitter@example.com"), PET_SITTER);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        assertWithinBudget("POST /jobs/{id}/job-applications", 3,
+            perform(post("/jobs/{id}/job-applications", jobDtos.get(0).getId())
+                .with(session(yetAnotherPetSitterDto, PET_SITTER))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                      "status": "PENDING"
+                    }
+                    """), status().isCreated()));
+    }
+
+    @Test
+    void whenModifyJobApplicationThenWithinBudget() {
+
+        assertWithinBudget("PATCH /job-applications/{id}", 3,
+            perform(patch("/job-applications/{id}", jobApplicationDto.getId())
+                .with(session(petOwnerDto, PET_OWNER))
+                .contentType(MEDIA_TYPE_APPLICATION_MERGE_PATCH_JSON)
+                .content("""
+                    {
+                      "status": "ACCEPTED"
+                    }
+                    """), status().isOk()));
+    }
+
+    /**
+     * @return the statements executed by the request and by flushing the changes it made
+     */
+    private List<RecordedStatement> perform(MockHttpServletRequestBuilder request, ResultMatcher expectedStatus) {
+
+        return statementRecorder.record(() -> {
+
+            try {
+                mockMvc.perform(request).andExpect(expectedStatus);
+            }
+            catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+
+            entityManager.flush();
+        });
+    }
+
+    private static SecurityMockMvcRequestPostProcessors.JwtRequestPostProcessor session(UserDto userDto,
+                                                                                        User.UserRole role) {
+
+        return jwt()
+            .jwt(jwt -> jwt.subject(userDto.getId().toString()))
+            .authorities(new SimpleGrantedAuthority(role.name()));
+    }
+
+    private JobApplicationDto saveJobApplication(UserDto petSitterDto, JobDto jobDto) {
+
+        return jobTestUtils.saveJobApplication(
+            JobApplicationDto.builder()
+                .status(PENDING)
+                .userId(petSitterDto.getId())
+                .jobId(jobDto.getId())
+                .build());
+    }
+
+    private UserDto saveUser(Email email, User.UserRole role) {
+
+        return userTestUtils.save(
+            UserDto.builder()
+                .email(email)
+                .password("1Password!")
+                .fullName("Full Name")
+                .roles(Set.of(role))
+                .build());
+    }
+}
@@ -991,12 +991,12 @@ class JobTests {
 
             entityManager.flush();
 
-            var jobApplicationDtoSet = jobService.viewApplicationsForJob(jobDtoId);
+            var jobApplicationDtoList = jobService.viewApplicationsForJob(jobDtoId).toList();
 
             assertAll(
-                () -> assertTrue(jobApplicationDtoSet.contains(jobApplication1Dto)),
-                () -> assertTrue(jobApplicationDtoSet.contains(jobApplication2Dto)),
-                () -> assertEquals(2, jobApplicationDtoSet.size())
+                () -> assertTrue(jobApplicationDtoList.contains(jobApplication1Dto)),
+                () -> assertTrue(jobApplicationDtoList.contains(jobApplication2Dto)),
+                () -> assertEquals(2, jobApplicationDtoList.size())
             );
         }
 
@@ -1289,12 +1289,12 @@ class JobTests {
 
             entityManager.flush();
 
-            var jobDtoSet = jobService.viewAllJobs();
+            var jobDtoList = jobService.viewAllJobs().toList();
 
             assertAll(
-                () -> assertTrue(jobDtoSet.contains(job1Dto)),
-                () -> assertTrue(jobDtoSet.contains(job2Dto)),
-                () -> assertEquals(2, jobDtoSet.size())
+                () -> assertTrue(jobDtoList.contains(job1Dto)),
+                () -> assertTrue(jobDtoList.contains(job2Dto)),
+                () -> assertEquals(2, jobDtoList.size())
             );
         }
 
@@ -1785,12 +1785,12 @@ class JobTests {
 
             entityManager.flush();
 
-            var jobDtoSet = jobService.viewAllJobs();
+            var jobDtoList = jobService.viewAllJobs().toList();
 
             assertAll(
-                () -> assertTrue(jobDtoSet.contains(job1Dto.toBuilder().id(job1DtoId).build())),
-                () -> assertTrue(jobDtoSet.contains(job2Dto.toBuilder().id(job2DtoId).build())),
-                () -> assertEquals(2, jobDtoSet.size())
+                () -> assertTrue(jobDtoList.contains(job1Dto.toBuilder().id(job1DtoId).build())),
+                () -> assertTrue(jobDtoList.contains(job2Dto.toBuilder().id(job2DtoId).build())),
+                () -> assertEquals(2, jobDtoList.size())
             );
         }
 
@@ -1959,12 +1959,12 @@ class JobTests {
 
             entityManager.flush();
 
-            var jobApplicationDtoSet = jobService.viewApplicationsForJob(jobDtoId);
+            var jobApplicationDtoList = jobService.viewApplicationsForJob(jobDtoId).toList();
 
             assertAll(
-                () -> assertTrue(jobApplicationDtoSet.contains(jobApplication1Dto)),
-                () -> assertTrue(jobApplicationDtoSet.contains(jobApplication2Dto)),
-                () -> assertEquals(2, jobApplicationDtoSet.size())
+                () -> assertTrue(jobApplicationDtoList.contains(jobApplication1Dto)),
+                () -> assertTrue(jobApplicationDtoList.contains(jobApplication2Dto)),
+                () -> assertEquals(2, jobApplicationDtoList.size())
             );
         }
 
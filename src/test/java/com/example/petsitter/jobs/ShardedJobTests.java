@@ -0,0 +1,344 @@
+package com.example.petsitter.jobs;
+
+import com.example.petsitter.common.Email;
+import com.example.petsitter.common.exception.InvalidArgumentException;
+import com.example.petsitter.sessions.WithSession;
+import com.example.petsitter.users.User;
+import com.example.petsitter.users.UserDto;
+import com.example.petsitter.users.UserTestConfig;
+import com.example.petsitter.users.UserTestUtils;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.example.petsitter.jobs.JobApplication.JobApplicationStatus.PENDING;
+import static com.example.petsitter.jobs.JobTests.*;
+import static com.example.petsitter.sessions.SessionTestConfig.*;
+import static com.example.petsitter.users.User.UserRole.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the job repository against three job shards. Users are rolled back with the test transaction, the shards
+ * commit on their own and are emptied after each test.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+    "spring.datasource.url=jdbc:h2:mem:sharded-job-db",
+    "petsitter.jobs.sharding.enabled=true",
+    "petsitter.jobs.sharding.urls=" +
+        "jdbc:h2:mem:job-shard-test-0;DB_CLOSE_DELAY=-1," +
+        "jdbc:h2:mem:job-shard-test-1;DB_CLOSE_DELAY=-1," +
+        "jdbc:h2:mem:job-shard-test-2;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+@Import({JobTestConfig.class, UserTestConfig.class})
+@RequiredArgsConstructor
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+@Transactional
+class ShardedJobTests {
+
+    private static final int PET_OWNERS = 12;
+
+    final JobServiceInternal jobService;
+
+    final JobRepository jobRepository;
+
+    final JobShards jobShards;
+
+    final UserTestUtils userTestUtils;
+
+    List<UserDto> petOwnerDtos;
+    UserDto petSitterDto;
+
+    @BeforeEach
+    void setupData() {
+
+        petOwnerDtos = IntStream.range(0, PET_OWNERS)
+            .mapToObj(i -> saveUser(new Email("pet-owner-%d@example.com".formatted(i)), PET_OWNER))
+            .collect(Collectors.toCollection(ArrayList::new));
+
+        petOwnerDtos.add(saveUser(PET_OWNER_EMAIL, PET_OWNER));
+
+        petSitterDto = saveUser(PET_SITTER_EMAIL, PET_SITTER);
+    }
+
+    @AfterEach
+    void deleteJobs() {
+
+        jobShards.writeAll(jdbcTemplate -> {
+
+            jdbcTemplate.update("DELETE FROM job_applications");
+            jdbcTemplate.update("DELETE FROM jobs");
+        });
+    }
+
+    @Test
+    void whenSaveJobThenJobStoredOnlyOnShardOfItsOwner() {
+
+        for (var petOwnerDto : petOwnerDtos) {
+
+            var jobId = saveJob(petOwnerDto.getId()).getId();
+
+            var ownerShard = jobShards.shardOfOwner(petOwnerDto.getId());
+
+            assertSame(ownerShard, jobShards.shardOfId(jobId).orElseThrow());
+
+            for (int i = 0; i < jobShards.size(); i++) {
+
+                var jobCount = jobShards.get(i).read(jdbcTemplate -> jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM jobs WHERE id = ?", Integer.class, jobId));
+
+                assertEquals(i == ownerShard.index() ? 1 : 0, jobCount);
+            }
+        }
+    }
+
+    @Test
+    void whenFindAllDtoThenJobsOfEveryShardMergedInIdOrder() {
+
+        var jobDtos = petOwnerDtos.stream()
+            .map(petOwnerDto -> saveJob(petOwnerDto.getId()))
+            .collect(Collectors.toSet());
+
+        var foundJobDtos = jobRepository.findAllDto().toList();
+
+        assertEquals(jobDtos, Set.copyOf(foundJobDtos));
+
+        // the databases order UUIDs as unsigned numbers, which their hexadecimal strings sort like
+        var jobIds = foundJobDtos.stream().map(jobDto -> jobDto.getId().toString()).toList();
+
+        assertEquals(jobIds.stream().sorted().toList(), jobIds);
+    }
+
+    @Test
+    void givenMoreJobsThanReadAheadWhenFindAllDtoThenEveryJobFoundInIdOrder() {
+
+        var jobs = jobShards.size() * JobShards.PREFETCHED_ROWS_PER_SHARD + PET_OWNERS;
+
+        var jobIds = IntStream.range(0, jobs)
+            .mapToObj(i -> saveJob(petOwnerDtos.get(i % petOwnerDtos.size()).getId()).getId().toString())
+            .sorted()
+            .toList();
+
+        assertEquals(jobIds, jobRepository.findAllDto().toList().stream()
+            .map(jobDto -> jobDto.getId().toString())
+            .toList());
+    }
+
+    @Test
+    void whenFindAllDtoStoppedByFailingActionThenShardConnectionsReleased() {
+
+        var jobs = jobShards.size() * JobShards.PREFETCHED_ROWS_PER_SHARD;
+
+        IntStream.range(0, jobs).forEach(i -> saveJob(petOwnerDtos.get(i % petOwnerDtos.size()).getId()));
+
+        // more reads than each shard has connections, so any connection left reading ahead exhausts its pool
+        for (int i = 0; i < 20; i++) {
+
+            assertThrows(IllegalStateException.class, () -> jobRepository.findAllDto().forEach(jobDto -> {
+                throw new IllegalStateException("Client went away");
+            }));
+        }
+
+        assertEquals(jobs, jobRepository.findAllDto().toList().size());
+    }
+
+    @Test
+    void whenIdEncodesNoShardThenJobNotFound() {
+
+        var jobId = new UUID(-1L, 0L);
+
+        assertTrue(jobShards.shardOfId(jobId).isEmpty());
+        assertTrue(jobRepository.findDtoById(jobId).isEmpty());
+        assertFalse(jobRepository.existsById(jobId));
+    }
+
+    @Test
+    void whenSaveJobApplicationThenStoredOnShardOfJobAndFoundByApplicationOwner() {
+
+        var jobApplicationDtos = new HashSet<JobApplicationDto>();
+
+        for (var petOwnerDto : petOwnerDtos) {
+
+            var jobId = saveJob(petOwnerDto.getId()).getId();
+
+            var jobApplicationDto = jobRepository.saveJobApplication(petSitterDto.getId(), jobId,
+                JobApplicationDto.builder().status(PENDING).build());
+
+            assertSame(jobShards.shardOfId(jobId).orElseThrow(),
+                jobShards.shardOfId(jobApplicationDto.getId()).orElseThrow());
+
+            assertTrue(jobRepository.applicationExistsByJobIdAndOwnerId(jobId, petSitterDto.getId()));
+
+            jobApplicationDtos.add(jobApplicationDto);
+        }
+
+        assertEquals(jobApplicationDtos,
+            Set.copyOf(jobRepository.findAllApplicationsDtoByApplicationOwnerId(petSitterDto.getId()).toList()));
+    }
+
+    @Test
+    void whenModifyJobOwnerToOwnerOnSameShardThenJobKeepsItsIdAndIsFoundByNewOwner() {
+
+        // more owners than shards, so at least two share one
+        var owners = ownersOnShards(true);
+
+        var petOwnerId = owners.get(0);
+        var anotherPetOwnerId = owners.get(1);
+
+        var jobDto = saveJob(petOwnerId);
+
+        var modifiedJobDto = jobRepository.updateJobFromDto(jobRepository.findWithJobOwnerById(jobDto.getId())
+            .orElseThrow(), JobDto.builder().creatorUserId(anotherPetOwnerId).build());
+
+        assertEquals(jobDto.toBuilder().creatorUserId(anotherPetOwnerId).build(), modifiedJobDto);
+        assertEquals(Optional.of(modifiedJobDto), jobRepository.findDtoById(jobDto.getId()));
+        assertEquals(List.of(modifiedJobDto), jobRepository.findAllDtoByJobOwnerId(anotherPetOwnerId).toList());
+        assertEquals(List.of(), jobRepository.findAllDtoByJobOwnerId(petOwnerId).toList());
+    }
+
+    @Test
+    void whenModifyJobOwnerToOwnerOnAnotherShardThenInvalidArgumentExceptionAndJobUnchanged() {
+
+        var owners = ownersOnShards(false);
+
+        var petOwnerId = owners.get(0);
+        var anotherPetOwnerId = owners.get(1);
+
+        var jobDto = saveJob(petOwnerId);
+        var ownerChange = JobDto.builder().creatorUserId(anotherPetOwnerId).build();
+
+        assertAll(
+            () -> assertThrows(InvalidArgumentException.class, () -> jobRepository.updateJobFromDto(
+                jobRepository.findWithJobOwnerById(jobDto.getId()).orElseThrow(), ownerChange)),
+
+            () -> assertThrows(InvalidArgumentException.class, () -> jobRepository.updateJobIfVersion(
+                jobRepository.findVersionedDtoById(jobDto.getId()).orElseThrow(), ownerChange)),
+
+            () -> assertEquals(Optional.of(jobDto), jobRepository.findDtoById(jobDto.getId())),
+            () -> assertEquals(List.of(jobDto), jobRepository.findAllDtoByJobOwnerId(petOwnerId).toList())
+        );
+    }
+
+    @Test
+    void whenModifyJobConcurrentlyThenOptimisticLockingFailureException() {
+
+        var jobId = saveJob(petOwnerDtos.get(0).getId()).getId();
+
+        var job = jobRepository.findWithJobOwnerById(jobId).orElseThrow();
+        var sameJob = jobRepository.findWithJobOwnerById(jobId).orElseThrow();
+
+        jobRepository.updateJobFromDto(job, JobDto.builder().activity("Walk").build());
+
+        assertThrows(OptimisticLockingFailureException.class, () ->
+            jobRepository.updateJobFromDto(sameJob, JobDto.builder().activity("Play").build()));
+
+        assertEquals("Walk", jobRepository.findDtoById(jobId).orElseThrow().getActivity());
+    }
+
+    @Test
+    void whenDeleteAllJobsAndApplicationsByOwnerIdThenRemovedFromEveryShard() {
+
+        var petOwnerId = petOwnerDtos.get(0).getId();
+
+        var jobIds = List.of(saveJob(petOwnerId).getId(), saveJob(petOwnerId).getId());
+
+        for (var jobId : jobIds) {
+
+            jobRepository.saveJobApplication(petSitterDto.getId(), jobId,
+                JobApplicationDto.builder().status(PENDING).build());
+        }
+
+        var otherJobDto = saveJob(petOwnerDtos.get(1).getId());
+
+        jobRepository.deleteAllJobsAndApplicationsByOwnerId(petOwnerId);
+
+        assertEquals(List.of(otherJobDto), jobRepository.findAllDto().toList());
+        assertEquals(List.of(),
+            jobRepository.findAllApplicationsDtoByApplicationOwnerId(petSitterDto.getId()).toList());
+    }
+
+    @Nested
+    @WithSession(PET_OWNER)
+    class GivenPetOwnerSession {
+
+        @Test
+        void givenPetOwnerSessionWhenCreateJobThenJobViewableAndListedForPetOwner() {
+
+            var jobDto = JobDto.builder()
+                .startTime(START_TIME)
+                .endTime(END_TIME)
+                .activity(ACTIVITY)
+                .dog(DOG_DTO)
+                .build();
+
+            var jobId = jobService.createJob(jobDto);
+
+            var petOwnerId = petOwnerDtos.get(PET_OWNERS).getId();
+
+            var expectedJobDto = jobDto.toBuilder().id(jobId).creatorUserId(petOwnerId).build();
+
+            assertEquals(expectedJobDto, jobService.viewJobWithId(jobId));
+            assertEquals(List.of(expectedJobDto), jobRepository.findAllDtoByJobOwnerId(petOwnerId).toList());
+        }
+    }
+
+    private JobDto saveJob(UUID jobOwnerId) {
+
+        return jobRepository.save(jobOwnerId,
+
+            JobDto.builder()
+                .startTime(START_TIME)
+                .endTime(END_TIME)
+                .activity(ACTIVITY)
+                .dog(DOG_DTO)
+                .build()
+        );
+    }
+
+    /**
+     * @return the ids of two pet owners whose jobs are placed on the same shard, or on different shards
+     */
+    private List<UUID> ownersOnShards(boolean sameShard) {
+
+        for (var petOwnerDto : petOwnerDtos) {
+
+            var shard = jobShards.shardOfOwner(petOwnerDto.getId());
+
+            var other = petOwnerDtos.stream()
+                .map(UserDto::getId)
+                .filter(id -> !id.equals(petOwnerDto.getId()))
+                .filter(id -> (jobShards.shardOfOwner(id) == shard) == sameShard)
+                .findFirst();
+
+            if (other.isPresent()) {
+                return List.of(petOwnerDto.getId(), other.get());
+            }
+        }
+
+        throw new IllegalStateException("No two pet owners on %s shards".formatted(sameShard ? "the same" : "other"));
+    }
+
+    private UserDto saveUser(Email email, User.UserRole role) {
+
+        return userTestUtils.save(
+
+            UserDto.builder()
+                .email(email)
+                .password("1Password!")
+                .fullName("Full Name")
+                .roles(Set.of(role))
+                .build());
+    }
+}
@@ -0,0 +1,286 @@
+package com.example.petsitter.load;
+
+import com.example.petsitter.users.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Starts runs of weighted scenarios at a fixed arrival rate, independent of how fast the application responds, and
+ * records the latency of every request per endpoint in an HdrHistogram. The first request of a run is measured from
+ * when the run was due to start, so a stalled application shows up in the latencies rather than as fewer requests
+ * (coordinated omission). Only runs due after the warm-up are recorded.
+ * <p>
+ * Runs are picked with a seeded random, so the same seed, rate and duration replay the same load on every commit.
+ */
+public class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final URI baseUri;
+
+    private final Map<User.UserRole, List<String>> authHeaders;
+
+    private final List<Scenario> scenarios;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public LoadGenerator(URI baseUri, Map<User.UserRole, List<String>> authHeaders, List<Scenario> scenarios) {
+        this.baseUri = baseUri;
+        this.authHeaders = authHeaders;
+        this.scenarios = scenarios;
+    }
+
+    /**
+     * @param arrivalRate scenario runs started per second
+     */
+    public Report run(double arrivalRate, Duration warmUp, Duration measurement, long seed)
+        throws InterruptedException {
+
+        var executor = newVirtualThreadPerTaskExecutor();
+
+        // the client completes responses on its own executor, which must outlive the runs
+        var httpClientExecutor = newVirtualThreadPerTaskExecutor();
+
+        var httpClient = HttpClient.newBuilder()
+            .executor(httpClientExecutor)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+        var random = new Random(seed);
+
+        var totalWeight = scenarios.stream().mapToInt(Scenario::weight).sum();
+
+        var intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / arrivalRate);
+
+        var start = System.nanoTime();
+        var measurementStart = start + warmUp.toNanos();
+        var end = measurementStart + measurement.toNanos();
+
+        try {
+            for (long i = 0; start + i * intervalNanos < end; i++) {
+
+                var dueTime = start + i * intervalNanos;
+
+                LockSupport.parkNanos(dueTime - System.nanoTime());
+
+                var scenario = pick(random.nextInt(totalWeight));
+                var scenarioRun = new ScenarioRun(authHeaders, new Random(random.nextLong()), objectMapper);
+                var recorded = dueTime >= measurementStart;
+
+                executor.execute(() -> run(httpClient, scenario, scenarioRun, dueTime, recorded));
+            }
+        }
+        finally {
+
+            executor.shutdown();
+
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                executor.shutdownNow();
+            }
+
+            httpClientExecutor.shutdownNow();
+        }
+
+        return new Report(new TreeMap<>(endpoints), measurement);
+    }
+
+    private Scenario pick(int weightedIndex) {
+
+        for (var scenario : scenarios) {
+
+            weightedIndex -= scenario.weight();
+
+            if (weightedIndex < 0) {
+                return scenario;
+            }
+        }
+
+        throw new IllegalStateException("No scenario");
+    }
+
+    private void run(HttpClient httpClient, Scenario scenario, ScenarioRun scenarioRun, long dueTime,
+                     boolean recorded) {
+
+        var stepStart = dueTime;
+
+        for (var step : scenario.steps()) {
+
+            var endpoint = endpoints.computeIfAbsent(step.endpoint(), e -> new Endpoint());
+
+            HttpResponse<String> response = null;
+
+            try {
+                response = httpClient.send(request(step, scenarioRun), HttpResponse.BodyHandlers.ofString());
+            }
+            catch (IOException e) {
+                // counted as an error below
+            }
+            catch (InterruptedException e) {
+
+                Thread.currentThread().interrupt();
+
+                return;
+            }
+
+            var now = System.nanoTime();
+
+            var success = response != null && response.statusCode() >= 200 && response.statusCode() < 300 &&
+                          save(step, scenarioRun, response);
+
+            if (recorded) {
+                endpoint.record(TimeUnit.NANOSECONDS.toMicros(now - stepStart), success);
+            }
+
+            if (!success) {
+                return;
+            }
+
+            stepStart = System.nanoTime();
+        }
+    }
+
+    /**
+     * @return false if a variable cannot be extracted from the response, which ends the run
+     */
+    private static boolean save(Scenario.Step step, ScenarioRun scenarioRun, HttpResponse<String> response) {
+
+        try {
+            for (var extractor : step.extractors()) {
+                scenarioRun.save(extractor.variable(), extractor.extractor().apply(scenarioRun, response));
+            }
+
+            return true;
+        }
+        catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private HttpRequest request(Scenario.Step step, ScenarioRun scenarioRun) {
+
+        var bodyPublisher = step.bodyTemplate() == null ? HttpRequest.BodyPublishers.noBody() :
+            HttpRequest.BodyPublishers.ofString(scenarioRun.resolve(step.bodyTemplate()));
+
+        var contentType = step.method().equals("PATCH") ? "application/merge-patch+json" : "application/json";
+
+        return HttpRequest.newBuilder(baseUri.resolve(scenarioRun.resolve(step.pathTemplate())))
+            .header("Authorization", scenarioRun.authHeader(step.role()))
+            .header("Content-Type", contentType)
+            .timeout(Duration.ofSeconds(30))
+            .method(step.method(), bodyPublisher)
+            .build();
+    }
+
+    /**
+     * A virtual thread per task on Java 21 or later, so waiting for responses costs no platform thread. On Java 17 a
+     * cached thread pool stands in.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    static class Endpoint {
+
+        private final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_LATENCY_MICROS, 3);
+
+        private final LongAdder errors = new LongAdder();
+
+        void record(long latencyMicros, boolean success) {
+
+            latencies.recordValue(Math.min(latencyMicros, HIGHEST_TRACKABLE_LATENCY_MICROS));
+
+            if (!success) {
+                errors.increment();
+            }
+        }
+    }
+
+    public record Report(Map<String, Endpoint> endpoints, Duration measurement) {
+
+        public long requests() {
+            return endpoints.values().stream().mapToLong(endpoint -> endpoint.latencies.getTotalCount()).sum();
+        }
+
+        public long errors() {
+            return endpoints.values().stream().mapToLong(endpoint -> endpoint.errors.sum()).sum();
+        }
+
+        public void print(PrintStream out) {
+
+            out.printf("%n%-40s %10s %12s %9s %9s %9s %9s %9s %8s%n", "endpoint", "requests", "requests/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+
+            endpoints.forEach((name, endpoint) -> {
+
+                var latencies = endpoint.latencies;
+
+                out.printf("%-40s %10d %12.1f %9.2f %9.2f %9.2f %9.2f %9.2f %8d%n", name, latencies.getTotalCount(),
+                    latencies.getTotalCount() / (measurement.toMillis() / 1000.0),
+                    millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(90)),
+                    millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)),
+                    millis(latencies.getMaxValue()), endpoint.errors.sum());
+            });
+        }
+
+        /**
+         * Writes the summary to report.txt and the latency distribution of each endpoint, in milliseconds, to an .hgrm
+         * file, which HdrHistogram's plotter can compare across runs.
+         */
+        public void write(Path directory) {
+
+            try {
+                Files.createDirectories(directory);
+
+                try (var out = new PrintStream(Files.newOutputStream(directory.resolve("report.txt")))) {
+                    print(out);
+                }
+
+                for (var entry : endpoints.entrySet()) {
+
+                    var fileName = entry.getKey().replaceAll("[^A-Za-z0-9-]+", "_") + ".hgrm";
+
+                    try (var out = new PrintStream(Files.newOutputStream(directory.resolve(fileName)))) {
+                        entry.getValue().latencies.outputPercentileDistribution(out, 1000.0);
+                    }
+                }
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+}
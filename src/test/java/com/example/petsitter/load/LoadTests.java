@@ -0,0 +1,167 @@
+package com.example.petsitter.load;
+
+import com.example.petsitter.PetSitterApplication;
+import com.example.petsitter.users.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.petsitter.load.Scenario.ANY_ITEM_ID;
+import static com.example.petsitter.load.Scenario.LOCATION_ID;
+import static com.example.petsitter.load.Scenario.scenario;
+import static com.example.petsitter.users.User.UserRole.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Starts the application on a random port, signs up pet owners and pet sitters, logs them and the demo administrator
+ * in through POST /sessions and replays the scenarios below at a fixed arrival rate. Prints latency percentiles and
+ * throughput per endpoint and writes them to target/load-test/&lt;label&gt;.
+ * <p>
+ * Excluded from the regular build; run with {@code mvn -Pbenchmark test -Dtest=LoadTests}. The rate, durations, seed
+ * and label can be set with -Dload-test.rate=50, -Dload-test.warm-up=PT10S, -Dload-test.measurement=PT30S,
+ * -Dload-test.seed=42 and -Dload-test.label=$(git rev-parse --short HEAD). Jobs accumulate during a run, so compare
+ * runs of the same rate and duration only.
+ */
+@Tag("benchmark")
+class LoadTests {
+
+    private static final int USERS_PER_ROLE = 20;
+
+    private static final String PASSWORD = "1Password!";
+
+    private static final String JOB_BODY = """
+        {
+          "start_time": "2030-12-02 12:00",
+          "end_time": "2030-12-02 14:00",
+          "activity": "Walk",
+          "dog": {
+            "name": "Rambo",
+            "age": "3",
+            "breed": "Bichon Frisé",
+            "size": "6kg"
+          }
+        }""";
+
+    private static final List<Scenario> SCENARIOS = List.of(
+
+        scenario("browse jobs", 60)
+            .as(PET_SITTER).get("/jobs").save("jobId", ANY_ITEM_ID)
+            .as(PET_SITTER).get("/jobs/{jobId}"),
+
+        scenario("apply and accept", 20)
+            .as(PET_OWNER).post("/jobs", JOB_BODY).save("jobId", LOCATION_ID)
+            .as(PET_SITTER).post("/jobs/{jobId}/job-applications", """
+                {"status": "PENDING"}""").save("jobApplicationId", LOCATION_ID)
+            .as(PET_OWNER).get("/jobs/{jobId}/job-applications")
+            .as(PET_OWNER).patch("/job-applications/{jobApplicationId}", """
+                {"status": "ACCEPTED"}"""),
+
+        scenario("modify job", 15)
+            .as(PET_OWNER).post("/jobs", JOB_BODY).save("jobId", LOCATION_ID)
+            .as(PET_OWNER).patch("/jobs/{jobId}", """
+                {"activity": "Walk, Exercise"}""")
+            .as(PET_OWNER).get("/jobs/{jobId}"),
+
+        scenario("review jobs", 5)
+            .as(ADMIN).get("/jobs").save("jobId", ANY_ITEM_ID)
+            .as(ADMIN).get("/jobs/{jobId}/job-applications")
+    );
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+    @Test
+    void replayScenarios() throws Exception {
+
+        var rate = Double.parseDouble(System.getProperty("load-test.rate", "50"));
+        var warmUp = Duration.parse(System.getProperty("load-test.warm-up", "PT10S"));
+        var measurement = Duration.parse(System.getProperty("load-test.measurement", "PT30S"));
+        var seed = Long.parseLong(System.getProperty("load-test.seed", "42"));
+        var label = System.getProperty("load-test.label", "latest");
+
+        try (var context = new SpringApplicationBuilder(PetSitterApplication.class)
+            .properties(
+                "server.port=0",
+                "management.server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:load-test",
+                "petsitter.login-rate-limit.enabled=false",
+                "petsitter.password-hashing.bcrypt.cost=10")
+            .run()) {
+
+            var baseUri = URI.create("http://localhost:" +
+                context.getEnvironment().getRequiredProperty("local.server.port"));
+
+            var authHeaders = new EnumMap<User.UserRole, List<String>>(User.UserRole.class);
+
+            authHeaders.put(PET_OWNER, signUpAndLogIn(baseUri, PET_OWNER));
+            authHeaders.put(PET_SITTER, signUpAndLogIn(baseUri, PET_SITTER));
+            authHeaders.put(ADMIN, List.of(logIn(baseUri, "admin@example.com", "password")));
+
+            var report = new LoadGenerator(baseUri, authHeaders, SCENARIOS).run(rate, warmUp, measurement, seed);
+
+            System.out.printf("%n%s: %.1f scenario runs/s, %s warm-up, %s measurement, seed %d%n", label, rate, warmUp,
+                measurement, seed);
+
+            report.print(System.out);
+            report.write(Path.of("target", "load-test", label));
+
+            assertTrue(report.requests() > 0);
+        }
+    }
+
+    private List<String> signUpAndLogIn(URI baseUri, User.UserRole role) throws IOException, InterruptedException {
+
+        var authHeaders = new ArrayList<String>(USERS_PER_ROLE);
+
+        for (int i = 0; i < USERS_PER_ROLE; i++) {
+
+            var email = "load-test-%s-%d@example.com".formatted(role.name().toLowerCase().replace('_', '-'), i);
+
+            var userBody = objectMapper.writeValueAsString(Map.of(
+                "email", email,
+                "password", PASSWORD,
+                "full_name", "Load Test User",
+                "roles", List.of(role.name())));
+
+            var response = httpClient.send(HttpRequest.newBuilder(baseUri.resolve("/users"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(userBody))
+                .build(), HttpResponse.BodyHandlers.discarding());
+
+            assertEquals(201, response.statusCode(), "Sign up of " + email);
+
+            authHeaders.add(logIn(baseUri, email, PASSWORD));
+        }
+
+        return authHeaders;
+    }
+
+    private String logIn(URI baseUri, String email, String password) throws IOException, InterruptedException {
+
+        var loginBody = objectMapper.writeValueAsString(Map.of("email", email, "password", password));
+
+        var response = httpClient.send(HttpRequest.newBuilder(baseUri.resolve("/sessions"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(loginBody))
+            .build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(201, response.statusCode(), "Log in of " + email);
+
+        return objectMapper.readTree(response.body()).get("auth_header").asText();
+    }
+}
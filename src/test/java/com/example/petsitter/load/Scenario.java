@@ -0,0 +1,123 @@
+package com.example.petsitter.load;
+
+import com.example.petsitter.users.User;
+
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * A weighted sequence of requests, each sent as a user of a role. Paths and bodies may refer to variables saved from
+ * earlier responses of the same run, e.g.
+ * <pre>{@code
+ * scenario("apply and accept", 20)
+ *     .as(PET_OWNER).post("/jobs", JOB_BODY).save("jobId", LOCATION_ID)
+ *     .as(PET_SITTER).post("/jobs/{jobId}/job-applications", APPLICATION_BODY).save("applicationId", LOCATION_ID)
+ *     .as(PET_OWNER).patch("/job-applications/{applicationId}", ACCEPTED_BODY);
+ * }</pre>
+ * Latencies are reported per endpoint, the method and the path template, e.g. {@code PATCH /jobs/{jobId}}.
+ */
+public class Scenario {
+
+    /**
+     * Saves the last path segment of the Location header, the id of the created resource.
+     */
+    public static final BiFunction<ScenarioRun, HttpResponse<String>, String> LOCATION_ID = (run, response) -> {
+
+        var location = response.headers().firstValue("Location").orElseThrow();
+
+        return location.substring(location.lastIndexOf('/') + 1);
+    };
+
+    /**
+     * Saves the id of a random item of a collection response.
+     */
+    public static final BiFunction<ScenarioRun, HttpResponse<String>, String> ANY_ITEM_ID = ScenarioRun::anyItemId;
+
+    private final String name;
+
+    private final int weight;
+
+    private final List<Step> steps = new ArrayList<>();
+
+    private User.UserRole role;
+
+    private Scenario(String name, int weight) {
+        this.name = name;
+        this.weight = weight;
+    }
+
+    public static Scenario scenario(String name, int weight) {
+        return new Scenario(name, weight);
+    }
+
+    public Scenario as(User.UserRole role) {
+
+        this.role = role;
+
+        return this;
+    }
+
+    public Scenario get(String pathTemplate) {
+        return step("GET", pathTemplate, null);
+    }
+
+    public Scenario post(String pathTemplate, String bodyTemplate) {
+        return step("POST", pathTemplate, bodyTemplate);
+    }
+
+    public Scenario patch(String pathTemplate, String bodyTemplate) {
+        return step("PATCH", pathTemplate, bodyTemplate);
+    }
+
+    /**
+     * Saves a value taken from the response of the previous request as a variable of the run.
+     */
+    public Scenario save(String variable, BiFunction<ScenarioRun, HttpResponse<String>, String> extractor) {
+
+        var step = steps.remove(steps.size() - 1);
+
+        var extractors = new ArrayList<>(step.extractors());
+        extractors.add(new Extractor(variable, extractor));
+
+        steps.add(new Step(step.role(), step.method(), step.pathTemplate(), step.bodyTemplate(),
+            Collections.unmodifiableList(extractors)));
+
+        return this;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int weight() {
+        return weight;
+    }
+
+    public List<Step> steps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    private Scenario step(String method, String pathTemplate, String bodyTemplate) {
+
+        if (role == null) {
+            throw new IllegalStateException("Scenario %s: role of %s %s not set".formatted(name, method, pathTemplate));
+        }
+
+        steps.add(new Step(role, method, pathTemplate, bodyTemplate, List.of()));
+
+        return this;
+    }
+
+    public record Step(User.UserRole role, String method, String pathTemplate, String bodyTemplate,
+                       List<Extractor> extractors) {
+
+        public String endpoint() {
+            return method + " " + pathTemplate;
+        }
+    }
+
+    public record Extractor(String variable, BiFunction<ScenarioRun, HttpResponse<String>, String> extractor) {}
+}
@@ -0,0 +1,82 @@
+package com.example.petsitter.load;
+
+import com.example.petsitter.users.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.http.HttpResponse;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The state of one run of a scenario: the user picked for each role, on first use, and the variables saved so far.
+ */
+public class ScenarioRun {
+
+    private static final Pattern VARIABLE = Pattern.compile("\\{(\\w+)}");
+
+    private final Map<User.UserRole, List<String>> authHeaders;
+
+    private final Random random;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<User.UserRole, String> pickedAuthHeaders = new EnumMap<>(User.UserRole.class);
+
+    private final Map<String, String> variables = new HashMap<>();
+
+    ScenarioRun(Map<User.UserRole, List<String>> authHeaders, Random random, ObjectMapper objectMapper) {
+        this.authHeaders = authHeaders;
+        this.random = random;
+        this.objectMapper = objectMapper;
+    }
+
+    String authHeader(User.UserRole role) {
+
+        return pickedAuthHeaders.computeIfAbsent(role, r -> {
+
+            var roleAuthHeaders = authHeaders.get(r);
+
+            return roleAuthHeaders.get(random.nextInt(roleAuthHeaders.size()));
+        });
+    }
+
+    void save(String variable, String value) {
+        variables.put(variable, value);
+    }
+
+    String resolve(String template) {
+
+        return VARIABLE.matcher(template).replaceAll(match -> {
+
+            var value = variables.get(match.group(1));
+
+            if (value == null) {
+                throw new IllegalStateException("Variable %s not saved".formatted(match.group(1)));
+            }
+
+            return Matcher.quoteReplacement(value);
+        });
+    }
+
+    String anyItemId(HttpResponse<String> response) {
+
+        try {
+            var items = objectMapper.readTree(response.body()).get("items");
+
+            if (items == null || items.isEmpty()) {
+                throw new IllegalStateException("No items in response of " + response.uri());
+            }
+
+            return items.get(random.nextInt(items.size())).get("id").asText();
+        }
+        catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read response of " + response.uri(), e);
+        }
+    }
+}
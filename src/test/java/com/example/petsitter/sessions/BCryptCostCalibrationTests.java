@@ -0,0 +1,46 @@
+package com.example.petsitter.sessions;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BCryptCostCalibrationTests {
+
+    @Test
+    void whenMeasureThenStopAfterFirstCostOverBudget() {
+
+        var latencyByCost = BCryptCostCalibration.measure(4, 8, Duration.ZERO, 1);
+
+        assertAll(
+            () -> assertEquals(1, latencyByCost.size()),
+            () -> assertTrue(latencyByCost.containsKey(4))
+        );
+    }
+
+    @Test
+    void whenMeasureWithinBudgetThenEveryCostMeasured() {
+
+        var latencyByCost = BCryptCostCalibration.measure(4, 6, Duration.ofMinutes(1), 3);
+
+        assertEquals(3, latencyByCost.size());
+    }
+
+    @Test
+    void whenSelectThenHighestCostWithinBudget() {
+
+        var latencyByCost = new TreeMap<Integer, Duration>();
+
+        latencyByCost.put(10, Duration.ofMillis(60));
+        latencyByCost.put(11, Duration.ofMillis(120));
+        latencyByCost.put(12, Duration.ofMillis(240));
+        latencyByCost.put(13, Duration.ofMillis(480));
+
+        assertAll(
+            () -> assertEquals(12, BCryptCostCalibration.select(latencyByCost, 10, Duration.ofMillis(250))),
+            () -> assertEquals(10, BCryptCostCalibration.select(latencyByCost, 10, Duration.ofMillis(50)))
+        );
+    }
+}
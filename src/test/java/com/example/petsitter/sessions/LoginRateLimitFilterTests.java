@@ -0,0 +1,168 @@
+package com.example.petsitter.sessions;
+
+import com.example.petsitter.common.Email;
+import com.example.petsitter.jobs.JobTestConfig;
+import com.example.petsitter.users.UserDto;
+import com.example.petsitter.users.UserTestConfig;
+import com.example.petsitter.users.UserTestUtils;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestConstructor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.example.petsitter.sessions.SessionTestConfig.PET_OWNER_EMAIL;
+import static com.example.petsitter.users.User.UserRole.PET_OWNER;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sends login attempts through the filter chain with an email allowance of two attempts.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:login-rate-limit-db",
+    "petsitter.login-rate-limit.email.capacity=2"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import({JobTestConfig.class, UserTestConfig.class})
+@RequiredArgsConstructor
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+@Transactional
+class LoginRateLimitFilterTests {
+
+    private static final String PASSWORD = "1Password!";
+
+    private static final int MAX_BODY_BYTES = 4096;
+
+    // the email buckets outlive each test, so each test that uses them logs in with an address of its own
+    private static final String PADDED_BODY_EMAIL = "padded-body-owner@example.com";
+
+    private final MockMvc mockMvc;
+
+    private final UserTestUtils userTestUtils;
+
+    @SpyBean
+    private UserDetailsService userDetailsService;
+
+    @SpyBean
+    private BulkheadPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setupData() {
+
+        for (var email : List.of(PET_OWNER_EMAIL, new Email(PADDED_BODY_EMAIL))) {
+
+            userTestUtils.save(
+                UserDto.builder()
+                    .email(email)
+                    .password(PASSWORD)
+                    .fullName("Full Name")
+                    .roles(Set.of(PET_OWNER))
+                    .build());
+        }
+    }
+
+    @Test
+    void givenEmailAllowanceUsedWhenCreateSessionThenTooManyRequestsWithoutLookupOrHashing() throws Exception {
+
+        createSession(sessionRequest(PET_OWNER_EMAIL.getAddress(), PASSWORD)).andExpect(status().isCreated());
+        createSession(sessionRequest(PET_OWNER_EMAIL.getAddress(), "2Password!")).andExpect(status().isUnauthorized());
+
+        verify(userDetailsService, times(2)).loadUserByUsername(anyString());
+        verify(passwordEncoder, times(2)).matches(any(), anyString());
+
+        clearInvocations(userDetailsService, passwordEncoder);
+
+        createSession(sessionRequest(PET_OWNER_EMAIL.getAddress(), PASSWORD))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+            .andExpect(jsonPath("$.detail").value("Too many login attempts for this user"));
+
+        verifyNoInteractions(userDetailsService, passwordEncoder);
+    }
+
+    @Test
+    void givenEmailAllowanceUsedWhenCreateSessionWithPaddedBodyThenTooManyRequests() throws Exception {
+
+        createSession(sessionRequest(PADDED_BODY_EMAIL, PASSWORD)).andExpect(status().isCreated());
+        createSession(sessionRequest(PADDED_BODY_EMAIL, "2Password!")).andExpect(status().isUnauthorized());
+
+        // trailing whitespace is valid JSON, padded up to the largest body inspected for the email
+        var sessionRequest = sessionRequest(PADDED_BODY_EMAIL, PASSWORD);
+
+        createSession(sessionRequest + " ".repeat(MAX_BODY_BYTES - sessionRequest.length()))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(jsonPath("$.detail").value("Too many login attempts for this user"));
+    }
+
+    @Test
+    void whenCreateSessionWithBodyTooLargeThenPayloadTooLargeWithoutLookupOrHashing() throws Exception {
+
+        createSession(sessionRequest(PET_OWNER_EMAIL.getAddress(), PASSWORD) + " ".repeat(MAX_BODY_BYTES))
+            .andExpect(status().isPayloadTooLarge())
+            .andExpect(jsonPath("$.detail").value("Session request body too large"));
+
+        verifyNoLookupOrHashing();
+    }
+
+    @Test
+    void whenCreateSessionWithoutEmailThenBadRequestWithoutLookupOrHashing() throws Exception {
+
+        mockMvc.perform(post("/sessions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                      "email": ["%s"],
+                      "password": "%s"
+                    }
+                    """.formatted(PET_OWNER_EMAIL.getAddress(), PASSWORD)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.detail").value("Session request without email"));
+
+        verifyNoLookupOrHashing();
+    }
+
+    /**
+     * Saving the test users hashes their passwords, so only password checks count.
+     */
+    private void verifyNoLookupOrHashing() {
+
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verify(passwordEncoder, never()).matches(any(), anyString());
+    }
+
+    private ResultActions createSession(String content) throws Exception {
+
+        return mockMvc.perform(post("/sessions")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(content));
+    }
+
+    private static String sessionRequest(String email, String password) {
+
+        return """
+            {
+              "email": "%s",
+              "password": "%s"
+            }
+            """.formatted(email, password);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.petsitter.sessions;
+
+import com.example.petsitter.common.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingBulkheadTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final PasswordHashingBulkhead passwordHashingBulkhead =
+        new PasswordHashingBulkhead(meterRegistry, 1, 1, Duration.ofSeconds(2));
+
+    @AfterEach
+    void shutdown() {
+        passwordHashingBulkhead.destroy();
+    }
+
+    @Test
+    void whenEncodeThenHashLatencyRecorded() {
+
+        assertEquals("hash", passwordHashingBulkhead.encode(() -> "hash"));
+
+        assertEquals(1, meterRegistry.get("petsitter.password.hash").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    void whenQueueFullThenServiceUnavailableException() throws Exception {
+
+        var hashing = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        var running = CompletableFuture.supplyAsync(() -> passwordHashingBulkhead.matches(() -> {
+
+            hashing.countDown();
+            await(release);
+
+            return true;
+        }));
+
+        assertTrue(hashing.await(5, TimeUnit.SECONDS));
+
+        var queued = CompletableFuture.supplyAsync(() -> passwordHashingBulkhead.matches(() -> true));
+
+        while (meterRegistry.get("petsitter.password.hash.queue.depth").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        var serviceUnavailableException = assertThrowsExactly(ServiceUnavailableException.class, () ->
+            passwordHashingBulkhead.matches(() -> true));
+
+        release.countDown();
+
+        assertAll(
+            () -> assertEquals(Duration.ofSeconds(2), serviceUnavailableException.getRetryAfter()),
+            () -> assertEquals(1, meterRegistry.get("petsitter.password.hash.rejected").counter().count()),
+            () -> assertTrue(running.get(5, TimeUnit.SECONDS)),
+            () -> assertTrue(queued.get(5, TimeUnit.SECONDS))
+        );
+    }
+
+    private static void await(CountDownLatch latch) {
+
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -158,4 +158,113 @@ class SessionTests {
 
         assertEquals("Null password", badCredentialsException.getMessage());
     }
+
+    @Test
+    void whenRefreshSessionThenSessionCreatedAndRefreshTokenRotated() {
+
+        var petOwnerPassword = "1Password!";
+
+        var userDto = userTestUtils.save(
+
+            UserDto.builder()
+                .email(PET_OWNER_EMAIL)
+                .password(petOwnerPassword)
+                .fullName("Full Name")
+                .roles(Set.of(PET_OWNER))
+                .build()
+        );
+
+        var sessionResponseDto = sessionController.createSession(
+
+            SessionRequestDto.builder()
+                .email(PET_OWNER_EMAIL)
+                .password(petOwnerPassword)
+                .build()
+        );
+
+        var refreshedSessionResponseDto = sessionController.refreshSession(
+
+            RefreshSessionRequestDto.builder()
+                .refreshToken(sessionResponseDto.refreshToken())
+                .build()
+        );
+
+        var claims = jwtDecoder.decode(refreshedSessionResponseDto.authHeader().replaceFirst("^Bearer ", ""))
+            .getClaims();
+
+        assertAll (
+            () -> assertEquals(userDto.getId(), refreshedSessionResponseDto.userId()),
+            () -> assertEquals(userDto.getId().toString(), claims.get("sub")),
+            () -> assertEquals(PET_OWNER.name(), claims.get(JWT_CLAIMS_ROLES_KEY)),
+            () -> assertNotNull(refreshedSessionResponseDto.refreshToken()),
+            () -> assertNotEquals(sessionResponseDto.refreshToken(), refreshedSessionResponseDto.refreshToken())
+        );
+    }
+
+    @Test
+    void whenRefreshTokenReusedThenTokenFamilyRevoked() {
+
+        var petOwnerPassword = "1Password!";
+
+        userTestUtils.save(
+
+            UserDto.builder()
+                .email(PET_OWNER_EMAIL)
+                .password(petOwnerPassword)
+                .fullName("Full Name")
+                .roles(Set.of(PET_OWNER))
+                .build()
+        );
+
+        var sessionResponseDto = sessionController.createSession(
+
+            SessionRequestDto.builder()
+                .email(PET_OWNER_EMAIL)
+                .password(petOwnerPassword)
+                .build()
+        );
+
+        var refreshedSessionResponseDto = sessionController.refreshSession(
+
+            RefreshSessionRequestDto.builder()
+                .refreshToken(sessionResponseDto.refreshToken())
+                .build()
+        );
+
+        var badCredentialsException = assertThrowsExactly(BadCredentialsException.class, () ->
+
+            sessionController.refreshSession(
+
+                RefreshSessionRequestDto.builder()
+                    .refreshToken(sessionResponseDto.refreshToken())
+                    .build())
+        );
+
+        assertAll (
+            () -> assertEquals("Reused refresh token, session revoked", badCredentialsException.getMessage()),
+
+            () -> assertThrowsExactly(BadCredentialsException.class, () ->
+
+                sessionController.refreshSession(
+
+                    RefreshSessionRequestDto.builder()
+                        .refreshToken(refreshedSessionResponseDto.refreshToken())
+                        .build()))
+        );
+    }
+
+    @Test
+    void whenRefreshSessionWithUnknownTokenThenBadCredentialsException() {
+
+        var badCredentialsException = assertThrowsExactly(BadCredentialsException.class, () ->
+
+            sessionController.refreshSession(
+
+                RefreshSessionRequestDto.builder()
+                    .refreshToken("not-a-refresh-token")
+                    .build())
+        );
+
+        assertEquals("Invalid refresh token", badCredentialsException.getMessage());
+    }
 }
@@ -0,0 +1,73 @@
+package com.example.petsitter.sessions;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedTokenBucketsTests {
+
+    private final AtomicLong nanoClock = new AtomicLong();
+
+    private final StripedTokenBuckets stripedTokenBuckets = new StripedTokenBuckets(4, 2, Duration.ofSeconds(10),
+        Duration.ofSeconds(60), 6, nanoClock::get);
+
+    @Test
+    void whenCapacityExhaustedThenWaitUntilNextToken() {
+
+        assertAll(
+            () -> assertEquals(0, stripedTokenBuckets.tryAcquire("a")),
+            () -> assertEquals(0, stripedTokenBuckets.tryAcquire("a")),
+            () -> assertEquals(Duration.ofSeconds(5).toNanos(), stripedTokenBuckets.tryAcquire("a"), 1),
+            () -> assertEquals(0, stripedTokenBuckets.tryAcquire("b"))
+        );
+    }
+
+    @Test
+    void whenRefilledThenTokenAvailable() {
+
+        stripedTokenBuckets.tryAcquire("a");
+        stripedTokenBuckets.tryAcquire("a");
+
+        nanoClock.addAndGet(Duration.ofSeconds(6).toNanos());
+
+        assertAll(
+            () -> assertEquals(0, stripedTokenBuckets.tryAcquire("a")),
+            () -> assertTrue(stripedTokenBuckets.tryAcquire("a") > 0)
+        );
+    }
+
+    @Test
+    void whenIdleThenBucketExpired() {
+
+        stripedTokenBuckets.tryAcquire("a");
+        stripedTokenBuckets.tryAcquire("b");
+
+        for (int i = 0; i < 3; i++) {
+            tick();
+        }
+
+        stripedTokenBuckets.tryAcquire("b");
+
+        for (int i = 0; i < 3; i++) {
+            tick();
+        }
+
+        assertEquals(1, stripedTokenBuckets.size());
+
+        for (int i = 0; i < 3; i++) {
+            tick();
+        }
+
+        assertEquals(0, stripedTokenBuckets.size());
+    }
+
+    private void tick() {
+
+        nanoClock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        stripedTokenBuckets.advance();
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.petsitter.users;
+
+import com.example.petsitter.common.journal.EventJournal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailBloomFilterTests {
+
+    private static final String EMAIL = "owner@example.com";
+
+    private static final String OTHER_EMAIL = "sitter@example.com";
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @Test
+    void whenNotLoadedThenEveryAddressMightBeContained() {
+
+        var emailBloomFilter = new EmailBloomFilter(new SimpleMeterRegistry(), 1000, 0.01);
+
+        assertTrue(emailBloomFilter.mightContain(EMAIL));
+    }
+
+    @Test
+    void whenAddedThenMightBeContainedUntilRemoved() {
+
+        var emailBloomFilter = new EmailBloomFilter(new SimpleMeterRegistry(), 1000, 0.01);
+
+        emailBloomFilter.startLoading();
+        emailBloomFilter.markLoaded();
+        emailBloomFilter.add(EMAIL);
+
+        assertTrue(emailBloomFilter.mightContain(EMAIL));
+
+        emailBloomFilter.remove(EMAIL);
+
+        assertFalse(emailBloomFilter.mightContain(EMAIL));
+    }
+
+    @Test
+    void whenAddedBeforeLoadingAndLoadedThenCountedOnceAndRemovable() {
+
+        var emailBloomFilter = new EmailBloomFilter(new SimpleMeterRegistry(), 1000, 0.01);
+
+        // e.g. demo data inserted during startup, which the load then reads
+        emailBloomFilter.add(EMAIL);
+
+        emailBloomFilter.startLoading();
+        emailBloomFilter.add(EMAIL);
+        emailBloomFilter.markLoaded();
+
+        emailBloomFilter.remove(EMAIL);
+
+        assertFalse(emailBloomFilter.mightContain(EMAIL));
+    }
+
+    @Test
+    void whenAddedTwiceAndRemovedOnceThenMightBeContained() {
+
+        var emailBloomFilter = new EmailBloomFilter(new SimpleMeterRegistry(), 1000, 0.01);
+
+        emailBloomFilter.startLoading();
+        emailBloomFilter.markLoaded();
+        emailBloomFilter.add(EMAIL);
+        emailBloomFilter.add(EMAIL);
+        emailBloomFilter.remove(EMAIL);
+
+        assertTrue(emailBloomFilter.mightContain(EMAIL));
+    }
+
+    @Test
+    void whenFilledToExpectedInsertionsThenNoFalseNegativesAndFalsePositiveRateNearTarget() {
+
+        var emailBloomFilter = new EmailBloomFilter(new SimpleMeterRegistry(), 10_000, 0.01);
+
+        emailBloomFilter.startLoading();
+
+        IntStream.range(0, 10_000).forEach(i -> emailBloomFilter.add("user-%d@example.com".formatted(i)));
+
+        emailBloomFilter.markLoaded();
+
+        assertTrue(IntStream.range(0, 10_000)
+            .allMatch(i -> emailBloomFilter.mightContain("user-%d@example.com".formatted(i))));
+
+        IntStream.range(0, 10_000)
+            .filter(i -> emailBloomFilter.mightContain("other-%d@example.com".formatted(i)))
+            .forEach(i -> emailBloomFilter.recordProbableHit(false));
+
+        assertTrue(emailBloomFilter.falsePositiveRate() < 0.02);
+    }
+
+    @Test
+    void whenJournaledThenRestoredFromSnapshotAndLaterEvents(@TempDir Path journalDirectory) {
+
+        var emailBloomFilter = new EmailBloomFilter(new SimpleMeterRegistry(), 1000, 0.01,
+            new EventJournal(journalDirectory, SEGMENT_SIZE));
+
+        emailBloomFilter.startLoading();
+        emailBloomFilter.add(EMAIL);
+        emailBloomFilter.markLoaded();
+        emailBloomFilter.writeSnapshot();
+
+        emailBloomFilter.add(OTHER_EMAIL);
+        emailBloomFilter.remove(EMAIL);
+
+        var restoredEmailBloomFilter = new EmailBloomFilter(new SimpleMeterRegistry(), 1000, 0.01,
+            new EventJournal(journalDirectory, SEGMENT_SIZE));
+
+        assertTrue(restoredEmailBloomFilter.isLoaded());
+        assertTrue(restoredEmailBloomFilter.mightContain(OTHER_EMAIL));
+        assertFalse(restoredEmailBloomFilter.mightContain(EMAIL));
+    }
+
+    @Test
+    void whenJournaledWithoutSnapshotOrSizedDifferentlyThenNotRestored(@TempDir Path journalDirectory) {
+
+        var emailBloomFilter = new EmailBloomFilter(new SimpleMeterRegistry(), 1000, 0.01,
+            new EventJournal(journalDirectory, SEGMENT_SIZE));
+
+        emailBloomFilter.startLoading();
+        emailBloomFilter.add(EMAIL);
+
+        assertFalse(new EmailBloomFilter(new SimpleMeterRegistry(), 1000, 0.01,
+            new EventJournal(journalDirectory, SEGMENT_SIZE)).isLoaded());
+
+        emailBloomFilter.markLoaded();
+        emailBloomFilter.writeSnapshot();
+
+        assertFalse(new EmailBloomFilter(new SimpleMeterRegistry(), 2000, 0.01,
+            new EventJournal(journalDirectory, SEGMENT_SIZE)).isLoaded());
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.petsitter.users;
+
+import com.example.petsitter.common.exception.InvalidArgumentException;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+
+import static com.example.petsitter.sessions.SessionTestConfig.PET_OWNER_EMAIL;
+import static com.example.petsitter.users.User.UserRole.PET_OWNER;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts against the schema built by the migrations, as the production profile does, so the context only loads if
+ * Hibernate validates the migrated schema against the entities.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+    "spring.datasource.url=jdbc:h2:mem:migrated-schema-db",
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("test")
+@RequiredArgsConstructor
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+@Transactional
+class MigratedSchemaTests {
+
+    private final UserServiceInternal userService;
+
+    @Test
+    void whenRegisterUserAndEmailAlreadyRegisteredThenInvalidArgumentException() {
+
+        var userDto = UserDto.builder()
+            .email(PET_OWNER_EMAIL)
+            .password("1Password")
+            .fullName("Full Name")
+            .roles(Set.of(PET_OWNER))
+            .build();
+
+        userService.registerUser(userDto);
+
+        var invalidArgumentException = assertThrowsExactly(InvalidArgumentException.class, () ->
+            userService.registerUser(userDto));
+
+        assertTrue(invalidArgumentException.contains("user", "email",
+            "username %s already exists".formatted(PET_OWNER_EMAIL.getAddress())));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.petsitter.users;
+
+import com.example.petsitter.common.Email;
+import com.example.petsitter.jobs.JobTestConfig;
+import com.example.petsitter.sessions.WithSession;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestConstructor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static com.example.petsitter.sessions.SessionTestConfig.ADMIN_EMAIL;
+import static com.example.petsitter.sessions.SessionTestConfig.PET_OWNER_EMAIL;
+import static com.example.petsitter.users.User.UserRole.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+
+/**
+ * Imports users whose addresses are taken between the lookup of existing addresses and the insert. Each batch commits
+ * on its own, so these tests run outside a test transaction and delete the users they create.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    properties = "spring.datasource.url=jdbc:h2:mem:user-import-conflict-db")
+@ActiveProfiles("test")
+@Import({JobTestConfig.class, UserTestConfig.class})
+@RequiredArgsConstructor
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+class UserImportConflictTests {
+
+    private final UserImportServiceInternal userImportService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setupData() {
+
+        transactionTemplate.executeWithoutResult(status -> {
+
+            userRepository.save(
+                UserDto.builder()
+                    .email(ADMIN_EMAIL)
+                    .password("1Password")
+                    .fullName("Admin Name")
+                    .roles(Set.of(ADMIN))
+                    .build());
+
+            // signed up after the import looked up existing addresses
+            userRepository.save(
+                UserDto.builder()
+                    .email(PET_OWNER_EMAIL)
+                    .password("1Password")
+                    .fullName("Owner Name")
+                    .roles(Set.of(PET_OWNER))
+                    .build());
+        });
+
+        doReturn(Set.of()).when(userRepository).findExistingNormalizedEmailAddresses(any());
+    }
+
+    @AfterEach
+    void deleteData() {
+
+        jdbcTemplate.update("DELETE FROM user_roles");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    @WithSession(ADMIN)
+    void givenAddressTakenAfterLookupWhenImportUsersThenOtherRowsImportedAndTakenRowReported() throws Exception {
+
+        var result = userImportService.importUsers(UserImportFormat.CSV, new ByteArrayInputStream("""
+            email,full_name,password,roles
+            first@example.com,First Owner,1Password,PET_OWNER
+            %s,Owen Again,1Password,PET_OWNER
+            last@example.com,Last Owner,1Password,PET_OWNER
+            """.formatted(PET_OWNER_EMAIL.getAddress()).getBytes(StandardCharsets.UTF_8)));
+
+        assertAll(
+            () -> assertEquals(2, result.imported()),
+            () -> assertEquals(1, result.failed()),
+
+            () -> assertEquals(3, result.errors().get(0).line()),
+            () -> assertEquals("email", result.errors().get(0).field()),
+            () -> assertEquals("username %s already exists".formatted(PET_OWNER_EMAIL.getAddress()),
+                result.errors().get(0).detail()),
+
+            () -> assertTrue(userRepository.existsByEmail(new Email("first@example.com"))),
+            () -> assertTrue(userRepository.existsByEmail(new Email("last@example.com"))),
+            () -> assertEquals("Owner Name", userRepository.findDtoWithPasswordAndRolesByEmailAddress(
+                PET_OWNER_EMAIL.getAddress()).orElseThrow().getFullName())
+        );
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.petsitter.users;
+
+import com.example.petsitter.common.Email;
+import com.example.petsitter.common.exception.ForbiddenException;
+import com.example.petsitter.common.exception.UnauthorizedException;
+import com.example.petsitter.jobs.JobTestConfig;
+import com.example.petsitter.sessions.WithSession;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.example.petsitter.sessions.SessionTestConfig.*;
+import static com.example.petsitter.users.User.UserRole.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@Import({JobTestConfig.class, UserTestConfig.class})
+@RequiredArgsConstructor
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+@Transactional
+class UserImportTests {
+
+    private static final String VALID_PASSWORD = "1Password";
+
+    private final UserImportServiceInternal userImportService;
+
+    private final UserRepository userRepository;
+
+    private final PasswordEncoder passwordEncoder;
+
+    @Test
+    void whenImportUsersWithoutSessionThenUnauthorizedException() {
+
+        assertThrowsExactly(UnauthorizedException.class, () ->
+            userImportService.importUsers(UserImportFormat.CSV, inputStream("email,password,full_name,roles")));
+    }
+
+    @Nested
+    @WithSession(PET_OWNER)
+    class WithPetOwnerSessionTests {
+
+        @BeforeEach
+        void setupSessionData() {
+
+            userRepository.save(
+
+                UserDto.builder()
+                    .email(PET_OWNER_EMAIL)
+                    .password(VALID_PASSWORD)
+                    .fullName("Owner Name")
+                    .roles(Set.of(PET_OWNER))
+                    .build()
+            );
+        }
+
+        @Test
+        void whenImportUsersThenForbiddenException() {
+
+            assertThrowsExactly(ForbiddenException.class, () ->
+                userImportService.importUsers(UserImportFormat.CSV, inputStream("""
+                    email,password,full_name,roles
+                    new-user@example.com,1Password,New User,PET_OWNER
+                    """)));
+        }
+    }
+
+    @Nested
+    @WithSession(ADMIN)
+    class WithAdminSessionTests {
+
+        @BeforeEach
+        void setupSessionData() {
+
+            userRepository.save(
+
+                UserDto.builder()
+                    .email(ADMIN_EMAIL)
+                    .password(VALID_PASSWORD)
+                    .fullName("Admin Name")
+                    .roles(Set.of(ADMIN))
+                    .build()
+            );
+        }
+
+        @Test
+        void whenImportUsersFromCsvThenValidRowsImportedAndInvalidRowsReported() throws Exception {
+
+            var result = userImportService.importUsers(UserImportFormat.CSV, inputStream("""
+                email,full_name,password,roles
+                owner@example.com,Owen Owner,1Password,PET_OWNER
+                sitter@example.com,"Sitter, Sally",1Password,PET_OWNER PET_SITTER
+                admin@example.com,Another Admin,1Password,ADMIN
+                qwerty,Invalid Email,1Password,PET_OWNER
+                owner@example.com,Owen Again,1Password,PET_OWNER
+                walker@example.com,Walker,1Password,DOG_WALKER
+                """));
+
+            var sitter = userRepository.findDtoWithPasswordAndRolesByEmailAddress("sitter@example.com")
+                .orElseThrow();
+
+            assertAll(
+                () -> assertEquals(2, result.imported()),
+                () -> assertEquals(4, result.failed()),
+
+                () -> assertEquals(4, result.errors().get(0).line()),
+                () -> assertEquals("username admin@example.com already exists", result.errors().get(0).detail()),
+                () -> assertEquals(5, result.errors().get(1).line()),
+                () -> assertEquals("email", result.errors().get(1).field()),
+                () -> assertEquals(6, result.errors().get(2).line()),
+                () -> assertEquals("duplicate of an earlier row", result.errors().get(2).detail()),
+                () -> assertEquals(7, result.errors().get(3).line()),
+                () -> assertEquals("roles", result.errors().get(3).field()),
+
+                () -> assertTrue(userRepository.existsByEmail(new Email("owner@example.com"))),
+                () -> assertEquals("Sitter, Sally", sitter.getFullName()),
+                () -> assertEquals(Set.of(PET_OWNER, PET_SITTER), sitter.getRoles()),
+                () -> assertTrue(passwordEncoder.matches(VALID_PASSWORD, sitter.getPassword()))
+            );
+        }
+
+        @Test
+        void whenImportUsersFromNdjsonThenValidRowsImportedAndInvalidRowsReported() throws Exception {
+
+            var result = userImportService.importUsers(UserImportFormat.NDJSON, inputStream("""
+                {"email": "owner@example.com", "password": "1Password", "full_name": "Owen", "roles": ["PET_OWNER"]}
+
+                {"id": "%s", "email": "id@example.com", "password": "1Password", "full_name": "Id", "roles": []}
+                {"email": "sitter@example.com", "password": "short", "full_name": "Sally", "roles": ["PET_SITTER"]}
+                {"email":
+                """.formatted(UUID.randomUUID())));
+
+            assertAll(
+                () -> assertEquals(1, result.imported()),
+                () -> assertEquals(3, result.failed()),
+                () -> assertEquals(3, result.errors().get(0).line()),
+                () -> assertEquals(4, result.errors().get(1).line()),
+                () -> assertEquals("password", result.errors().get(1).field()),
+                () -> assertEquals(5, result.errors().get(2).line()),
+                () -> assertTrue(userRepository.findDtoWithPasswordAndRolesByEmailAddress("owner@example.com")
+                    .isPresent())
+            );
+        }
+    }
+
+    private static InputStream inputStream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.petsitter.users;
+
+import com.example.petsitter.common.StatementRecorder;
+import com.example.petsitter.common.StatementRecorderConfig;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.example.petsitter.sessions.SessionTestConfig.*;
+import static com.example.petsitter.users.User.UserRole.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Explains the statements behind each user repository query against the migrated schema and fails if any of them reads
+ * a table without an index. Loading the email filter reads every user by design and is not covered.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+    "spring.datasource.url=jdbc:h2:mem:user-query-plan-db",
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("test")
+@Import(StatementRecorderConfig.class)
+@RequiredArgsConstructor
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+@Transactional
+class UserQueryPlanTests {
+
+    private final UserRepository userRepository;
+
+    private final StatementRecorder statementRecorder;
+
+    private final EntityManager entityManager;
+
+    private UserDto petOwnerDto;
+
+    @BeforeEach
+    void setupData() {
+
+        petOwnerDto = userRepository.save(
+            UserDto.builder()
+                .email(PET_OWNER_EMAIL)
+                .password("1Password!")
+                .fullName("Full Name")
+                .roles(Set.of(PET_OWNER))
+                .build());
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void whenDeleteByIdThenNoTableScan() {
+        assertNoTableScans(() -> userRepository.deleteById(petOwnerDto.getId()));
+    }
+
+    @Test
+    void whenExistsByEmailThenNoTableScan() {
+        assertNoTableScans(() -> userRepository.existsByEmail(PET_OWNER_EMAIL));
+    }
+
+    @Test
+    void whenExistsByIdThenNoTableScan() {
+        assertNoTableScans(() -> userRepository.existsById(petOwnerDto.getId()));
+    }
+
+    @Test
+    void whenExistsByIdAndRoleThenNoTableScan() {
+        assertNoTableScans(() -> userRepository.existsByIdAndRole(petOwnerDto.getId(), PET_OWNER));
+    }
+
+    @Test
+    void whenFindDtoWithPasswordAndRolesByEmailAddressThenNoTableScan() {
+
+        assertNoTableScans(() ->
+            userRepository.findDtoWithPasswordAndRolesByEmailAddress(PET_OWNER_EMAIL.getAddress()));
+    }
+
+    @Test
+    void whenFindDtoWithRolesByIdThenNoTableScan() {
+        assertNoTableScans(() -> userRepository.findDtoWithRolesById(petOwnerDto.getId()));
+    }
+
+    @Test
+    void whenFindExistingNormalizedEmailAddressesThenNoTableScan() {
+
+        assertNoTableScans(() -> userRepository.findExistingNormalizedEmailAddresses(
+            List.of(PET_OWNER_EMAIL.getAddress(), PET_SITTER_EMAIL.getAddress())));
+    }
+
+    @Test
+    void whenUpdatePasswordIfUnchangedThenNoTableScan() {
+        assertNoTableScans(() -> userRepository.updatePasswordIfUnchanged(petOwnerDto.getId(), "old", "new"));
+    }
+
+    private void assertNoTableScans(Runnable repositoryCall) {
+
+        var recordedStatements = statementRecorder.record(() -> {
+
+            repositoryCall.run();
+
+            entityManager.flush();
+        });
+
+        assertAll(
+            () -> assertFalse(recordedStatements.isEmpty()),
+            () -> assertEquals(List.of(), statementRecorder.tableScans(recordedStatements))
+        );
+    }
+}
@@ -172,6 +172,45 @@ class UserTests {
             "username %s already exists".formatted(PET_OWNER_EMAIL.getAddress())));
     }
 
+    @Test
+    void whenRegisterUserAndEmailRegisteredInDifferentCaseThenInvalidArgumentException() {
+
+        var userDtoBuilder = UserDto.builder()
+            .password(VALID_PASSWORD)
+            .fullName(VALID_FULL_NAME)
+            .roles(Set.of(PET_OWNER));
+
+        userService.registerUser(userDtoBuilder.email(PET_OWNER_EMAIL).build());
+
+        var upperCaseEmail = new Email(PET_OWNER_EMAIL.getAddress().toUpperCase());
+
+        var invalidArgumentException = assertThrowsExactly(InvalidArgumentException.class, () ->
+            userService.registerUser(userDtoBuilder.email(upperCaseEmail).build()));
+
+        assertTrue(invalidArgumentException.contains("user", "email",
+            "username %s already exists".formatted(upperCaseEmail.getAddress())));
+    }
+
+    @Test
+    void whenRegisterUserThenEmailNoLongerAvailableInAnyCase() {
+
+        userService.registerUser(
+
+            UserDto.builder()
+                .email(PET_OWNER_EMAIL)
+                .password(VALID_PASSWORD)
+                .fullName(VALID_FULL_NAME)
+                .roles(Set.of(PET_OWNER))
+                .build()
+        );
+
+        assertAll(
+            () -> assertFalse(userService.isEmailAvailable(PET_OWNER_EMAIL)),
+            () -> assertFalse(userService.isEmailAvailable(new Email(PET_OWNER_EMAIL.getAddress().toUpperCase()))),
+            () -> assertTrue(userService.isEmailAvailable(PET_SITTER_EMAIL))
+        );
+    }
+
     @Test
     void whenRegisterUserWithNullPasswordThenInvalidArgumentException() {
 
@@ -793,12 +832,12 @@ class UserTests {
         @Test
         void givenPetOwnerSessionWhenViewJobsForPetOwnerThenJobsReturned() {
 
-            var jobDtoSet = userService.viewJobsForUser(petOwnerDto.getId());
+            var jobDtoList = userService.viewJobsForUser(petOwnerDto.getId()).toList();
 
             assertAll(
-                () -> assertTrue(jobDtoSet.contains(job1Dto)),
-                () -> assertTrue(jobDtoSet.contains(job2Dto)),
-                () -> assertEquals(2, jobDtoSet.size())
+                () -> assertTrue(jobDtoList.contains(job1Dto)),
+                () -> assertTrue(jobDtoList.contains(job2Dto)),
+                () -> assertEquals(2, jobDtoList.size())
             );
         }
     }
@@ -929,12 +968,12 @@ class UserTests {
         @Test
         void givenPetSitterSessionWhenViewApplicationsForPetSitterThenApplicationsReturned() {
 
-            var jobApplicationDtoSet = userService.viewApplicationsForUser(petSitterDto.getId());
+            var jobApplicationDtoList = userService.viewApplicationsForUser(petSitterDto.getId()).toList();
 
             assertAll(
-                () -> assertTrue(jobApplicationDtoSet.contains(jobApplication1Dto)),
-                () -> assertTrue(jobApplicationDtoSet.contains(jobApplication2Dto)),
-                () -> assertEquals(2, jobApplicationDtoSet.size())
+                () -> assertTrue(jobApplicationDtoList.contains(jobApplication1Dto)),
+                () -> assertTrue(jobApplicationDtoList.contains(jobApplication2Dto)),
+                () -> assertEquals(2, jobApplicationDtoList.size())
             );
         }
     }
@@ -1119,24 +1158,24 @@ class UserTests {
         @Test
         void givenAdminSessionWhenViewJobsForUserThenJobsReturned() {
 
-            var jobDtoSet = userService.viewJobsForUser(petOwnerDto.getId());
+            var jobDtoList = userService.viewJobsForUser(petOwnerDto.getId()).toList();
 
             assertAll(
-                () -> assertTrue(jobDtoSet.contains(job1Dto)),
-                () -> assertTrue(jobDtoSet.contains(job2Dto)),
-                () -> assertEquals(2, jobDtoSet.size())
+                () -> assertTrue(jobDtoList.contains(job1Dto)),
+                () -> assertTrue(jobDtoList.contains(job2Dto)),
+                () -> assertEquals(2, jobDtoList.size())
             );
         }
 
         @Test
         void givenAdminSessionWhenViewApplicationsForUserThenApplicationsReturned() {
 
-            var jobApplicationDtoSet = userService.viewApplicationsForUser(petSitterDto.getId());
+            var jobApplicationDtoList = userService.viewApplicationsForUser(petSitterDto.getId()).toList();
 
             assertAll(
-                () -> assertTrue(jobApplicationDtoSet.contains(jobApplication1Dto)),
-                () -> assertTrue(jobApplicationDtoSet.contains(jobApplication2Dto)),
-                () -> assertEquals(2, jobApplicationDtoSet.size())
+                () -> assertTrue(jobApplicationDtoList.contains(jobApplication1Dto)),
+                () -> assertTrue(jobApplicationDtoList.contains(jobApplication2Dto)),
+                () -> assertEquals(2, jobApplicationDtoList.size())
             );
         }
     }